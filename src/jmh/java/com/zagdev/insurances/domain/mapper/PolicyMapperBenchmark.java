@@ -0,0 +1,112 @@
+package com.zagdev.insurances.domain.mapper;
+
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.dto.StatusChange;
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.enums.InsuranceCategory;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolicyMapperBenchmark {
+
+    private Policy document;
+
+    @Setup
+    public void setup() {
+        document = new Policy();
+        document.setId(UUID.randomUUID());
+        document.setCustomerId(UUID.randomUUID());
+        document.setProductId(UUID.randomUUID());
+        document.setCategory(InsuranceCategory.AUTO);
+        document.setSalesChannel("MOBILE");
+        document.setPaymentMethod("CREDIT_CARD");
+        document.setPaymentConfirmed(true);
+        document.setSubscriptionAuthorized(true);
+        document.setTotalMonthlyPremium(BigDecimal.valueOf(75.25));
+        document.setInsuredAmount(BigDecimal.valueOf(275_000));
+        document.setCoverages(Map.of("Roubo", BigDecimal.valueOf(100_000), "Colisao", BigDecimal.valueOf(75_000)));
+        document.setAssistances(List.of("Guincho", "Chaveiro"));
+        document.setStatus(PolicyStatus.APPROVED);
+        document.setCreatedAt(Instant.now());
+        document.setFinishedAt(Instant.now());
+        document.setVersion(3L);
+        document.setHistory(List.of(
+                history(PolicyStatus.RECEIVED), history(PolicyStatus.VALIDATED),
+                history(PolicyStatus.PENDING), history(PolicyStatus.APPROVED)));
+    }
+
+    private static Policy.StatusHistory history(PolicyStatus status) {
+        var entry = new Policy.StatusHistory();
+        entry.setStatus(status);
+        entry.setTimestamp(Instant.now());
+        return entry;
+    }
+
+    @Benchmark
+    public PolicyDTO rehydrate() {
+        return PolicyMapper.toDomain(document);
+    }
+
+    @Benchmark
+    public PolicyDTO creationConstructor(Blackhole blackhole) {
+        blackhole.consume(UUID.randomUUID());
+        var domain = new PolicyDTO(
+                document.getCustomerId(),
+                document.getProductId(),
+                document.getCategory(),
+                document.getSalesChannel(),
+                document.getPaymentMethod(),
+                document.getTotalMonthlyPremium(),
+                document.getInsuredAmount(),
+                document.getCoverages(),
+                document.getAssistances()
+        );
+
+        domain.setId(document.getId());
+        domain.setStatus(document.getStatus());
+        domain.setCreatedAt(document.getCreatedAt());
+        domain.setFinishedAt(document.getFinishedAt());
+        domain.setVersion(document.getVersion() == null ? 0 : document.getVersion());
+        domain.setPaymentConfirmed(document.getPaymentConfirmed());
+        domain.setSubscriptionAuthorized(document.getSubscriptionAuthorized());
+
+        domain.getHistory().clear();
+        document.getHistory().forEach(h -> domain.getHistory().add(new StatusChange(h.getStatus(), h.getTimestamp())));
+
+        return domain;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PolicyMapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,109 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.usecases.PolicyUseCase;
+import com.zagdev.insurances.infrastructure.dto.MessageResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RabbitMqPaymentListenerBenchmark {
+
+    @Param({"0", "500"})
+    public long useCaseLatencyMicros;
+
+    private final AtomicLong deliveryTags = new AtomicLong();
+    private final LongAdder acks = new LongAdder();
+    private final LongAdder rejects = new LongAdder();
+
+    private RabbitMqPaymentListener listener;
+    private Channel channel;
+    private String payload;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        MessageResult result = new MessageResult();
+        result.setPolicyId(UUID.randomUUID());
+        result.setSuccess(true);
+        payload = objectMapper.writeValueAsString(result);
+
+        PolicyDTO approved = new PolicyDTO();
+        approved.setId(result.getPolicyId());
+        approved.setStatus(PolicyStatus.APPROVED);
+        PolicyUseCase useCase = (PolicyUseCase) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PolicyUseCase.class}, (proxy, method, args) -> {
+                    if (useCaseLatencyMicros > 0) {
+                        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(useCaseLatencyMicros));
+                    }
+                    return approved;
+                });
+
+        channel = (Channel) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Channel.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "basicAck" -> acks.increment();
+                        case "basicReject" -> rejects.increment();
+                        default -> { }
+                    }
+                    return null;
+                });
+
+        listener = new RabbitMqPaymentListener(useCase, objectMapper, new InlinePolicyLanes(),
+                new MongoProcessedMessageStore(null, false, Duration.ZERO, 0, Clock.systemUTC(), new SimpleMeterRegistry()),
+                (queue, payload, attempt, tier, ticket) -> false);
+    }
+
+    @TearDown(Level.Trial)
+    public void verify() {
+        if (acks.sum() != deliveryTags.get() || rejects.sum() != 0) {
+            throw new IllegalStateException("Expected every delivery to be acked exactly once: deliveries="
+                    + deliveryTags.get() + ", acks=" + acks.sum() + ", rejects=" + rejects.sum());
+        }
+    }
+
+    @Benchmark
+    public void consumePaymentResult() throws Exception {
+        listener.handlePaymentResult(payload, channel, deliveryTags.incrementAndGet(), null, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RabbitMqPaymentListenerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
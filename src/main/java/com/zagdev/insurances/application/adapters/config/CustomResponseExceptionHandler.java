@@ -1,8 +1,10 @@
 package com.zagdev.insurances.application.adapters.config;
 
+import com.zagdev.insurances.domain.exceptions.ConflictException;
 import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
 import com.zagdev.insurances.domain.exceptions.ErrorCode;
 import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.domain.exceptions.ServiceUnavailableException;
 import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +28,8 @@ import java.util.Optional;
 @RestControllerAdvice
 public class CustomResponseExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     private final Logger logger = LoggerFactory.getLogger(CustomResponseExceptionHandler.class);
 
     @Override
@@ -88,9 +92,23 @@ public class CustomResponseExceptionHandler extends ResponseEntityExceptionHandl
         return new ResponseEntity<>(ResponseError.build(ex.getErrorCode()), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ResponseError.ResponseErrorMessage> conflictException(ConflictException ex) {
+        logger.info(ex.getMessage(), ex);
+        return new ResponseEntity<>(ResponseError.build(ex.getErrorCode()), HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(DataNotFoundException.class)
     public ResponseEntity<ResponseError.ResponseErrorMessage> dataNotFoundException(DataNotFoundException ex) {
         logger.info(ex.getMessage(), ex);
         return new ResponseEntity<>(ResponseError.build(ex.getErrorCode()), HttpStatus.NOT_FOUND);
     }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ResponseError.ResponseErrorMessage> serviceUnavailableException(ServiceUnavailableException ex) {
+        logger.warn(ex.getMessage(), ex);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        return new ResponseEntity<>(ResponseError.build(ex.getErrorCode()), headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
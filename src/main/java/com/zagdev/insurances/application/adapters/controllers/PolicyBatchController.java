@@ -0,0 +1,215 @@
+package com.zagdev.insurances.application.adapters.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zagdev.insurances.application.adapters.config.ResponseError;
+import com.zagdev.insurances.application.adapters.dto.PolicyBatchItemResponse;
+import com.zagdev.insurances.application.adapters.dto.PolicyBatchResponse;
+import com.zagdev.insurances.application.adapters.dto.PolicyRequest;
+import com.zagdev.insurances.application.adapters.dto.PolicyValidateBatchRequest;
+import com.zagdev.insurances.application.adapters.mapper.PolicyMapper;
+import com.zagdev.insurances.application.adapters.mapper.PolicyRequestValidator;
+import com.zagdev.insurances.domain.dto.PolicyBatchItemResult;
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.domain.usecases.PolicyUseCase;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/policies")
+@Tag(name = "Policy", description = "Policy management API")
+public class PolicyBatchController {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final PolicyUseCase policyUseCase;
+
+    private final ObjectMapper objectMapper;
+
+    private final int maxBatchSize;
+
+    private final int chunkSize;
+
+    private final Logger logger = LoggerFactory.getLogger(PolicyBatchController.class);
+
+    public PolicyBatchController(PolicyUseCase policyUseCase, ObjectMapper objectMapper,
+                                 @Value("${policy.batch.max-size:5000}") int maxBatchSize,
+                                 @Value("${policy.batch.chunk-size:500}") int chunkSize) {
+        this.policyUseCase = policyUseCase;
+        this.objectMapper = objectMapper;
+        this.maxBatchSize = maxBatchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    @Operation(
+            summary = "Create policies in batch",
+            description = "Create up to policy.batch.max-size policies from a JSON array, returning one result per item",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch processed"),
+                    @ApiResponse(responseCode = "400", description = "Invalid data"),
+                    @ApiResponse(responseCode = "500", description = "Unexpected error")
+            }
+    )
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PolicyBatchResponse> createBatch(@RequestBody List<PolicyRequest> requests) throws InvalidDataException {
+        logger.info("Controller: Received request to create batch of [{}] policies", requests.size());
+        if (requests.isEmpty() || requests.size() > maxBatchSize) {
+            logger.info("Controller: Batch size [{}] outside allowed range [1, {}]", requests.size(), maxBatchSize);
+            throw new InvalidDataException(ErrorCode.INVALID_DATA);
+        }
+
+        List<PolicyBatchItemResponse> items = new ArrayList<>(requests.size());
+        for (int start = 0; start < requests.size(); start += chunkSize) {
+            items.addAll(process(start, requests.subList(start, Math.min(start + chunkSize, requests.size()))));
+        }
+
+        PolicyBatchResponse response = PolicyBatchResponse.of(items);
+        logger.info("Controller: Batch processed, [{}] created and [{}] failed", response.getSucceeded(), response.getFailed());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Create policies from an NDJSON stream",
+            description = "Create policies from newline-delimited JSON, streaming one NDJSON result line per input line",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Stream processed"),
+                    @ApiResponse(responseCode = "500", description = "Unexpected error")
+            }
+    )
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE, produces = APPLICATION_NDJSON_VALUE)
+    public void createBatchStream(InputStream body, HttpServletResponse response) throws IOException {
+        logger.info("Controller: Received request to create policies from NDJSON stream");
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<PolicyRequest> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        int chunkStart = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parse(index, line));
+            index++;
+            if (chunk.size() == chunkSize) {
+                write(out, process(chunkStart, chunk));
+                chunk.clear();
+                chunkStart = index;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(out, process(chunkStart, chunk));
+        }
+        logger.info("Controller: NDJSON stream processed, [{}] policies received", index);
+    }
+
+    @Operation(
+            summary = "Validate policies in batch",
+            description = "Validate up to policy.batch.max-size policies with parallel fraud lookups and one bulk write",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch processed"),
+                    @ApiResponse(responseCode = "400", description = "Invalid data"),
+                    @ApiResponse(responseCode = "500", description = "Unexpected error")
+            }
+    )
+    @PostMapping(value = "/validate-batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PolicyBatchResponse> validateBatch(@RequestBody PolicyValidateBatchRequest request) throws InvalidDataException {
+        List<UUID> ids = request.getIds();
+        if (ids == null || ids.isEmpty() || ids.size() > maxBatchSize || ids.contains(null)) {
+            logger.info("Controller: Invalid batch validation request");
+            throw new InvalidDataException(ErrorCode.INVALID_DATA);
+        }
+        logger.info("Controller: Received request to validate batch of [{}] policies", ids.size());
+
+        Map<UUID, PolicyBatchItemResult> results = new HashMap<>();
+        policyUseCase.validateAll(ids).forEach(result -> results.put(result.getId(), result));
+
+        List<PolicyBatchItemResponse> items = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            items.add(toItem(i, results.get(ids.get(i))));
+        }
+
+        PolicyBatchResponse response = PolicyBatchResponse.of(items);
+        logger.info("Controller: Batch validation processed, [{}] validated and [{}] failed",
+                response.getSucceeded(), response.getFailed());
+        return ResponseEntity.ok(response);
+    }
+
+    private List<PolicyBatchItemResponse> process(int start, List<PolicyRequest> requests) {
+        PolicyBatchItemResponse[] items = new PolicyBatchItemResponse[requests.size()];
+        List<Integer> positions = new ArrayList<>(requests.size());
+        List<PolicyDTO> valid = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            PolicyRequest request = requests.get(i);
+            List<ResponseError.FieldError> errors = PolicyRequestValidator.validate(request);
+            if (errors.isEmpty()) {
+                positions.add(i);
+                valid.add(PolicyMapper.toDomain(request));
+            } else {
+                items[i] = PolicyBatchItemResponse.failed(start + i, null, ResponseError.build(ErrorCode.INVALID_DATA, errors));
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            List<PolicyBatchItemResult> results = policyUseCase.createAll(valid);
+            for (int k = 0; k < results.size(); k++) {
+                items[positions.get(k)] = toItem(start + positions.get(k), results.get(k));
+            }
+        }
+        return Arrays.asList(items);
+    }
+
+    private static PolicyBatchItemResponse toItem(int index, PolicyBatchItemResult result) {
+        return result.isSucceeded()
+                ? PolicyBatchItemResponse.succeeded(index, result.getId(), result.getPolicy().getStatus())
+                : PolicyBatchItemResponse.failed(index, result.getId(), ResponseError.build(result.getError()));
+    }
+
+    private PolicyRequest parse(int index, String line) {
+        try {
+            return objectMapper.readValue(line, PolicyRequest.class);
+        } catch (JsonProcessingException e) {
+            logger.info("Controller: Invalid NDJSON line at index [{}]: [{}]", index, e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private void write(OutputStream out, List<PolicyBatchItemResponse> items) throws IOException {
+        for (PolicyBatchItemResponse item : items) {
+            out.write(objectMapper.writeValueAsBytes(item));
+            out.write('\n');
+        }
+        out.flush();
+    }
+}
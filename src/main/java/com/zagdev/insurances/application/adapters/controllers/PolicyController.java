@@ -1,52 +1,101 @@
 package com.zagdev.insurances.application.adapters.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zagdev.insurances.application.adapters.dto.PolicyPageResponse;
 import com.zagdev.insurances.application.adapters.dto.PolicyRequest;
 import com.zagdev.insurances.application.adapters.dto.PolicyResponse;
+import com.zagdev.insurances.application.adapters.dto.PolicySummaryResponse;
 import com.zagdev.insurances.application.adapters.mapper.PolicyMapper;
+import com.zagdev.insurances.application.adapters.mapper.PolicyRequestValidator;
+import com.zagdev.insurances.domain.dto.PolicyCursor;
 import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.dto.PolicyPage;
+import com.zagdev.insurances.domain.enums.PolicyField;
+import com.zagdev.insurances.domain.exceptions.ConflictException;
 import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
 import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.domain.exceptions.ServiceUnavailableException;
 import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
 import com.zagdev.insurances.domain.usecases.PolicyUseCase;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/v1/policies")
 @Tag(name = "Policy", description = "Policy management API")
 public class PolicyController {
 
+    private static final String ASYNC_MODE = "async";
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final PolicyUseCase policyUseCase;
 
+    private final ObjectMapper objectMapper;
+
+    private final int maxPageSize;
+
     private final Logger logger = LoggerFactory.getLogger(PolicyController.class);
 
-    public PolicyController(PolicyUseCase policyUseCase) {
+    public PolicyController(PolicyUseCase policyUseCase, ObjectMapper objectMapper,
+                            @Value("${policy.listing.max-page-size:500}") int maxPageSize) {
         this.policyUseCase = policyUseCase;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @InitBinder("policyRequest")
+    public void initPolicyRequestBinder(WebDataBinder binder) {
+        binder.addValidators(new PolicyRequestValidator());
     }
 
     @Operation(
             summary = "Create policy",
             description = "Create new policy",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Policy created"),
-                    @ApiResponse(responseCode = "400", description = "Invalid data"),
+                    @ApiResponse(responseCode = "200", description = "Policy created, or replayed for a repeated Idempotency-Key"),
+                    @ApiResponse(responseCode = "400", description = "Invalid data or Idempotency-Key reused with a different request"),
+                    @ApiResponse(responseCode = "409", description = "Request with the same Idempotency-Key still in progress"),
                     @ApiResponse(responseCode = "500", description = "Unexpected error")
             }
     )
     @PostMapping
-    public ResponseEntity<PolicyResponse> create(@RequestBody PolicyRequest dto) throws InvalidDataException, UnexpectedErrorException {
+    public ResponseEntity<PolicyResponse> create(@Valid @RequestBody PolicyRequest dto,
+                                                 @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey)
+            throws InvalidDataException, UnexpectedErrorException, ConflictException {
         logger.info("Controller: Received request to create policy for customer [{}]", dto.getCustomerId());
-        PolicyDTO policy = policyUseCase.create(PolicyMapper.toDomain(dto));
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            logger.info("Controller: Invalid idempotency key for customer [{}]", dto.getCustomerId());
+            throw new InvalidDataException(ErrorCode.INVALID_DATA);
+        }
+        PolicyDTO policy = idempotencyKey == null
+                ? policyUseCase.create(PolicyMapper.toDomain(dto))
+                : policyUseCase.create(PolicyMapper.toDomain(dto), idempotencyKey);
         logger.info("Controller: Policy created successfully for customer [{}] with id [{}] (status: [{}])",
                 policy.getCustomerId(), policy.getId(), policy.getStatus());
         return ResponseEntity.ok(PolicyMapper.toResponse(policy));
@@ -54,21 +103,38 @@ public class PolicyController {
 
     @Operation(
             summary = "Validate Policy",
-            description = "Validate policy by ID.",
+            description = "Validate policy by ID. With mode=async the validation is queued and its result is available at the returned Location.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Policy valitated"),
+                    @ApiResponse(responseCode = "202", description = "Policy validation queued"),
                     @ApiResponse(responseCode = "400", description = "Invalid Data"),
-                    @ApiResponse(responseCode = "500", description = "Unexpected error")
+                    @ApiResponse(responseCode = "500", description = "Unexpected error"),
+                    @ApiResponse(responseCode = "503", description = "Validation queue full")
             }
     )
     @PatchMapping("/{id}/validate")
-    public ResponseEntity<PolicyResponse> validate(@Valid @PathVariable UUID id) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException {
+    public ResponseEntity<PolicyResponse> validate(@Valid @PathVariable UUID id, @RequestParam(required = false) String mode)
+            throws DataNotFoundException, InvalidDataException, UnexpectedErrorException, ServiceUnavailableException {
+        if (ASYNC_MODE.equalsIgnoreCase(mode)) {
+            return validateAsync(id);
+        }
         logger.info("Controller: Received request to validate policy [{}]", id);
         PolicyDTO policy = policyUseCase.validate(id);
         logger.info("Controller: Policy [{}] validated (status: [{}])", policy.getId(), policy.getStatus());
         return ResponseEntity.ok(PolicyMapper.toResponse(policy));
     }
 
+    private ResponseEntity<PolicyResponse> validateAsync(UUID id) throws DataNotFoundException, InvalidDataException, ServiceUnavailableException {
+        logger.info("Controller: Received request to validate policy [{}] asynchronously", id);
+        PolicyDTO policy = policyUseCase.submitValidation(id);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/policies/{id}")
+                .buildAndExpand(id)
+                .toUri();
+        logger.info("Controller: Policy [{}] validation accepted (status: [{}])", policy.getId(), policy.getStatus());
+        return ResponseEntity.accepted().location(location).body(PolicyMapper.toResponse(policy));
+    }
+
     @Operation(
             summary = "Cancel Policy",
             description = "Cancel policy by id",
@@ -88,19 +154,32 @@ public class PolicyController {
 
     @Operation(
             summary = "Get policy by ID",
-            description = "Get policy by ID",
+            description = "Get policy by ID. With fields only the listed heavy fields (history, coverages, assistances) are loaded",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Policy found"),
+                    @ApiResponse(responseCode = "304", description = "Policy not modified since the given ETag"),
                     @ApiResponse(responseCode = "400", description = "Invalid Data"),
                     @ApiResponse(responseCode = "500", description = "Unexpected error")
             }
     )
     @GetMapping("/{id}")
-    public ResponseEntity<PolicyResponse> getById(@Valid @PathVariable UUID id) throws DataNotFoundException {
+    public ResponseEntity<PolicyResponse> getById(@Valid @PathVariable UUID id, @RequestParam(required = false) String fields,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws DataNotFoundException, InvalidDataException {
+        Set<PolicyField> projection = PolicyMapper.toFields(fields);
         logger.info("Controller: Received request to get policy [{}]", id);
-        PolicyDTO policy = policyUseCase.findById(id);
+        if (ifNoneMatch != null) {
+            String current = PolicyMapper.toETag(policyUseCase.findVersionById(id), projection);
+            if (matches(ifNoneMatch, current)) {
+                logger.info("Controller: Policy [{}] not modified", id);
+                return notModified(current);
+            }
+        }
+        PolicyDTO policy = projection == null ? policyUseCase.findById(id) : policyUseCase.findById(id, projection);
         logger.info("Controller: Policy [{}] found (status: [{}])", policy.getId(), policy.getStatus());
-        return ResponseEntity.ok(PolicyMapper.toResponse(policy));
+        return ResponseEntity.ok()
+                .eTag(PolicyMapper.toETag(policy.getVersion(), projection))
+                .body(PolicyMapper.toResponse(policy, projection));
     }
 
     @Operation(
@@ -108,14 +187,117 @@ public class PolicyController {
             description = "Get policies by customer Id",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Policies List found"),
+                    @ApiResponse(responseCode = "304", description = "Policies not modified since the given ETag")
             }
     )
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<PolicyResponse>> getByCustomer(@PathVariable UUID customerId) {
+    public ResponseEntity<List<PolicyResponse>> getByCustomer(@PathVariable UUID customerId, @RequestParam(required = false) String fields,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws InvalidDataException {
+        Set<PolicyField> projection = PolicyMapper.toFields(fields);
         logger.info("Controller: Received request to get policies for customer [{}]", customerId);
-        List<PolicyDTO> policies = policyUseCase.findByCustomerId(customerId);
+        if (ifNoneMatch != null) {
+            String current = PolicyMapper.toETag(policyUseCase.findVersionsByCustomerId(customerId), projection);
+            if (matches(ifNoneMatch, current)) {
+                logger.info("Controller: Policies for customer [{}] not modified", customerId);
+                return notModified(current);
+            }
+        }
+        List<PolicyDTO> policies = projection == null
+                ? policyUseCase.findByCustomerId(customerId)
+                : policyUseCase.findByCustomerId(customerId, projection);
         logger.info("Controller: Found [{}] policies for customer [{}]", policies.size(), customerId);
-        List<PolicyResponse> response = policies.stream().map(PolicyMapper::toResponse).collect(Collectors.toList());
+        List<PolicyResponse> response = policies.stream()
+                .map(policy -> PolicyMapper.toResponse(policy, projection))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok()
+                .eTag(PolicyMapper.toETag(policies, projection))
+                .body(response);
+    }
+
+    @Operation(
+            summary = "Get policy summaries by customer",
+            description = "Get id, status, category and premium of every policy of the customer",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Policy summaries found")
+            }
+    )
+    @GetMapping("/customer/{customerId}/summary")
+    public ResponseEntity<List<PolicySummaryResponse>> getSummariesByCustomer(@PathVariable UUID customerId) {
+        logger.info("Controller: Received request to get policy summaries for customer [{}]", customerId);
+        List<PolicySummaryResponse> response = policyUseCase.findSummariesByCustomerId(customerId).stream()
+                .map(PolicyMapper::toSummary)
+                .collect(Collectors.toList());
+        logger.info("Controller: Found [{}] policy summaries for customer [{}]", response.size(), customerId);
         return ResponseEntity.ok(response);
     }
+
+    @Operation(
+            summary = "Get page of policies by customer",
+            description = "Get up to limit policies by customer Id ordered by creation, continuing after the given cursor",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Policies page found"),
+                    @ApiResponse(responseCode = "400", description = "Invalid limit or cursor")
+            }
+    )
+    @GetMapping(value = "/customer/{customerId}", params = "limit")
+    public ResponseEntity<PolicyPageResponse> getPageByCustomer(@PathVariable UUID customerId, @RequestParam int limit,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) String fields) throws InvalidDataException {
+        if (limit < 1 || limit > maxPageSize) {
+            logger.info("Controller: Invalid page size [{}] for customer [{}]", limit, customerId);
+            throw new InvalidDataException(ErrorCode.INVALID_DATA);
+        }
+        PolicyCursor after = cursor == null ? null : PolicyCursor.decode(cursor);
+        Set<PolicyField> projection = PolicyMapper.toFields(fields);
+        logger.info("Controller: Received request to get page of [{}] policies for customer [{}]", limit, customerId);
+        PolicyPage page = policyUseCase.findPageByCustomerId(customerId, projection, after, limit);
+
+        PolicyPageResponse response = new PolicyPageResponse();
+        response.setItems(page.getItems().stream()
+                .map(policy -> PolicyMapper.toResponse(policy, projection))
+                .collect(Collectors.toList()));
+        response.setNextCursor(page.hasNext() ? page.getNextCursor().encode() : null);
+        logger.info("Controller: Found [{}] policies for customer [{}] (has next: [{}])",
+                response.getItems().size(), customerId, page.hasNext());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Stream policies by customer",
+            description = "Stream every policy of the customer as newline-delimited JSON, one line per policy as it is read",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Policies streamed")
+            }
+    )
+    @GetMapping(value = "/customer/{customerId}", produces = PolicyBatchController.APPLICATION_NDJSON_VALUE)
+    public void streamByCustomer(@PathVariable UUID customerId, @RequestParam(required = false) String fields,
+                                 HttpServletResponse response) throws IOException, InvalidDataException {
+        Set<PolicyField> projection = PolicyMapper.toFields(fields);
+        logger.info("Controller: Received request to stream policies for customer [{}]", customerId);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(PolicyBatchController.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+
+        int count = 0;
+        try (Stream<PolicyDTO> policies = policyUseCase.streamByCustomerId(customerId, projection)) {
+            for (PolicyDTO policy : (Iterable<PolicyDTO>) policies::iterator) {
+                out.write(objectMapper.writeValueAsBytes(PolicyMapper.toResponse(policy, projection)));
+                out.write('\n');
+                count++;
+            }
+        }
+        out.flush();
+        logger.info("Controller: Streamed [{}] policies for customer [{}]", count, customerId);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        ETag current = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream()
+                .anyMatch(candidate -> candidate.isWildcard() || candidate.compare(current, false));
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
 }
@@ -0,0 +1,70 @@
+package com.zagdev.insurances.application.adapters.controllers;
+
+import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
+import com.zagdev.insurances.domain.exceptions.ServiceUnavailableException;
+import com.zagdev.insurances.domain.usecases.PolicyUseCase;
+import com.zagdev.insurances.infrastructure.PolicyEventBroadcaster;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/policies")
+@Tag(name = "Policy", description = "Policy management API")
+public class PolicyEventController {
+
+    private final PolicyUseCase policyUseCase;
+
+    private final PolicyEventBroadcaster broadcaster;
+
+    private final Logger logger = LoggerFactory.getLogger(PolicyEventController.class);
+
+    public PolicyEventController(PolicyUseCase policyUseCase, PolicyEventBroadcaster broadcaster) {
+        this.policyUseCase = policyUseCase;
+        this.broadcaster = broadcaster;
+    }
+
+    @Operation(
+            summary = "Stream policy status changes",
+            description = "Server-sent events with every status change of the policy as it happens",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Event stream opened"),
+                    @ApiResponse(responseCode = "404", description = "Policy not found"),
+                    @ApiResponse(responseCode = "503", description = "Too many open event streams")
+            }
+    )
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPolicyEvents(@PathVariable UUID id) throws DataNotFoundException, ServiceUnavailableException {
+        logger.info("Controller: Received request to stream events of policy [{}]", id);
+        policyUseCase.findVersionById(id);
+        SseEmitter emitter = broadcaster.subscribeToPolicy(id);
+        logger.info("Controller: Event stream opened for policy [{}]", id);
+        return emitter;
+    }
+
+    @Operation(
+            summary = "Stream status changes of customer policies",
+            description = "Server-sent events with every status change of any policy of the customer as it happens",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Event stream opened"),
+                    @ApiResponse(responseCode = "503", description = "Too many open event streams")
+            }
+    )
+    @GetMapping(value = "/customer/{customerId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCustomerEvents(@PathVariable UUID customerId) throws ServiceUnavailableException {
+        logger.info("Controller: Received request to stream policy events of customer [{}]", customerId);
+        SseEmitter emitter = broadcaster.subscribeToCustomer(customerId);
+        logger.info("Controller: Event stream opened for customer [{}]", customerId);
+        return emitter;
+    }
+}
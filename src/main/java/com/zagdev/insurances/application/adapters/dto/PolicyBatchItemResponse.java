@@ -0,0 +1,68 @@
+package com.zagdev.insurances.application.adapters.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.zagdev.insurances.application.adapters.config.ResponseError;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PolicyBatchItemResponse {
+
+    private int index;
+    private UUID id;
+    private PolicyStatus status;
+    private ResponseError.ResponseErrorMessage error;
+
+    public static PolicyBatchItemResponse succeeded(int index, UUID id, PolicyStatus status) {
+        PolicyBatchItemResponse item = new PolicyBatchItemResponse();
+        item.setIndex(index);
+        item.setId(id);
+        item.setStatus(status);
+        return item;
+    }
+
+    public static PolicyBatchItemResponse failed(int index, UUID id, ResponseError.ResponseErrorMessage error) {
+        PolicyBatchItemResponse item = new PolicyBatchItemResponse();
+        item.setIndex(index);
+        item.setId(id);
+        item.setError(error);
+        return item;
+    }
+
+    public boolean isSucceeded() {
+        return error == null;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public PolicyStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PolicyStatus status) {
+        this.status = status;
+    }
+
+    public ResponseError.ResponseErrorMessage getError() {
+        return error;
+    }
+
+    public void setError(ResponseError.ResponseErrorMessage error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,53 @@
+package com.zagdev.insurances.application.adapters.dto;
+
+import java.util.List;
+
+public class PolicyBatchResponse {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<PolicyBatchItemResponse> items;
+
+    public static PolicyBatchResponse of(List<PolicyBatchItemResponse> items) {
+        PolicyBatchResponse response = new PolicyBatchResponse();
+        int succeeded = (int) items.stream().filter(PolicyBatchItemResponse::isSucceeded).count();
+        response.setTotal(items.size());
+        response.setSucceeded(succeeded);
+        response.setFailed(items.size() - succeeded);
+        response.setItems(items);
+        return response;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<PolicyBatchItemResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PolicyBatchItemResponse> items) {
+        this.items = items;
+    }
+}
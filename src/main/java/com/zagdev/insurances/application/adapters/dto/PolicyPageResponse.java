@@ -0,0 +1,28 @@
+package com.zagdev.insurances.application.adapters.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class PolicyPageResponse {
+
+    private List<PolicyResponse> items;
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    public List<PolicyResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PolicyResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -22,6 +22,8 @@ public class PolicyResponse {
     private PolicyStatus status;
     private Instant createdAt;
     private Instant finishedAt;
+    private String validationError;
+    private Instant validationFailedAt;
     @JsonProperty("total_monthly_premium_amount")
     private BigDecimal totalMonthlyPremiumAmount;
     @JsonProperty("insured_amount")
@@ -102,6 +104,22 @@ public class PolicyResponse {
         this.finishedAt = finishedAt;
     }
 
+    public String getValidationError() {
+        return validationError;
+    }
+
+    public void setValidationError(String validationError) {
+        this.validationError = validationError;
+    }
+
+    public Instant getValidationFailedAt() {
+        return validationFailedAt;
+    }
+
+    public void setValidationFailedAt(Instant validationFailedAt) {
+        this.validationFailedAt = validationFailedAt;
+    }
+
     public BigDecimal getTotalMonthlyPremiumAmount() {
         return totalMonthlyPremiumAmount;
     }
@@ -0,0 +1,48 @@
+package com.zagdev.insurances.application.adapters.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public class PolicySummaryResponse {
+
+    private UUID id;
+    private PolicyStatus status;
+    private String category;
+    @JsonProperty("total_monthly_premium_amount")
+    private BigDecimal totalMonthlyPremiumAmount;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public PolicyStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PolicyStatus status) {
+        this.status = status;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public BigDecimal getTotalMonthlyPremiumAmount() {
+        return totalMonthlyPremiumAmount;
+    }
+
+    public void setTotalMonthlyPremiumAmount(BigDecimal totalMonthlyPremiumAmount) {
+        this.totalMonthlyPremiumAmount = totalMonthlyPremiumAmount;
+    }
+}
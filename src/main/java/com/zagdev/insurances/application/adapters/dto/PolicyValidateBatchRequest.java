@@ -0,0 +1,17 @@
+package com.zagdev.insurances.application.adapters.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class PolicyValidateBatchRequest {
+
+    private List<UUID> ids;
+
+    public List<UUID> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,28 @@
+package com.zagdev.insurances.application.adapters.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public class ProjectedPolicyResponse extends PolicyResponse {
+
+    @Override
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Map<String, BigDecimal> getCoverages() {
+        return super.getCoverages();
+    }
+
+    @Override
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public List<String> getAssistances() {
+        return super.getAssistances();
+    }
+
+    @Override
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public List<StatusHistoryDTO> getHistory() {
+        return super.getHistory();
+    }
+}
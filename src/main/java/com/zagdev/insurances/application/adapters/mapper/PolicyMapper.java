@@ -2,9 +2,23 @@ package com.zagdev.insurances.application.adapters.mapper;
 
 import com.zagdev.insurances.application.adapters.dto.PolicyRequest;
 import com.zagdev.insurances.application.adapters.dto.PolicyResponse;
+import com.zagdev.insurances.application.adapters.dto.PolicySummaryResponse;
+import com.zagdev.insurances.application.adapters.dto.ProjectedPolicyResponse;
 import com.zagdev.insurances.domain.dto.PolicyDTO;
 import com.zagdev.insurances.domain.enums.InsuranceCategory;
+import com.zagdev.insurances.domain.enums.PolicyField;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
 
+import org.springframework.util.DigestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class PolicyMapper {
@@ -24,7 +38,10 @@ public class PolicyMapper {
     }
 
     public static PolicyResponse toResponse(PolicyDTO policy) {
-        PolicyResponse dto = new PolicyResponse();
+        return fill(policy, new PolicyResponse());
+    }
+
+    private static PolicyResponse fill(PolicyDTO policy, PolicyResponse dto) {
         dto.setId(policy.getId());
         dto.setCustomerId(policy.getCustomerId());
         dto.setProductId(policy.getProductId());
@@ -34,6 +51,8 @@ public class PolicyMapper {
         dto.setStatus(policy.getStatus());
         dto.setCreatedAt(policy.getCreatedAt());
         dto.setFinishedAt(policy.getFinishedAt());
+        dto.setValidationError(policy.getValidationError());
+        dto.setValidationFailedAt(policy.getValidationFailedAt());
         dto.setTotalMonthlyPremiumAmount(policy.getTotalMonthlyPremium());
         dto.setInsuredAmount(policy.getInsuredAmount());
         dto.setCoverages(policy.getCoverages());
@@ -48,4 +67,76 @@ public class PolicyMapper {
 
         return dto;
     }
+
+    public static PolicyResponse toResponse(PolicyDTO policy, Set<PolicyField> fields) {
+        if (fields == null) {
+            return toResponse(policy);
+        }
+        PolicyResponse dto = fill(policy, new ProjectedPolicyResponse());
+        if (!fields.contains(PolicyField.COVERAGES)) {
+            dto.setCoverages(null);
+        }
+        if (!fields.contains(PolicyField.ASSISTANCES)) {
+            dto.setAssistances(null);
+        }
+        if (!fields.contains(PolicyField.HISTORY)) {
+            dto.setHistory(null);
+        }
+        return dto;
+    }
+
+    public static PolicySummaryResponse toSummary(PolicyDTO policy) {
+        PolicySummaryResponse dto = new PolicySummaryResponse();
+        dto.setId(policy.getId());
+        dto.setStatus(policy.getStatus());
+        dto.setCategory(policy.getCategory() == null ? null : policy.getCategory().name());
+        dto.setTotalMonthlyPremiumAmount(policy.getTotalMonthlyPremium());
+        return dto;
+    }
+
+    public static String toETag(long version, Set<PolicyField> fields) {
+        if (fields == null) {
+            return "\"" + version + "\"";
+        }
+        return "\"" + version + "-" + DigestUtils.md5DigestAsHex(toProjectionKey(fields)).substring(0, 8) + "\"";
+    }
+
+    public static String toETag(List<PolicyDTO> policies, Set<PolicyField> fields) {
+        byte[] projection = fields == null ? new byte[0] : toProjectionKey(fields);
+        ByteBuffer buffer = ByteBuffer.allocate(policies.size() * 3 * Long.BYTES + projection.length);
+        policies.stream()
+                .sorted(Comparator.comparing(PolicyDTO::getId))
+                .forEach(policy -> buffer
+                        .putLong(policy.getId().getMostSignificantBits())
+                        .putLong(policy.getId().getLeastSignificantBits())
+                        .putLong(policy.getVersion()));
+        buffer.put(projection);
+        return "\"" + DigestUtils.md5DigestAsHex(buffer.array()) + "\"";
+    }
+
+    private static byte[] toProjectionKey(Set<PolicyField> fields) {
+        return fields.stream()
+                .sorted()
+                .map(PolicyField::name)
+                .collect(Collectors.joining(",", "fields:", ""))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static Set<PolicyField> toFields(String fields) throws InvalidDataException {
+        if (fields == null) {
+            return null;
+        }
+        Set<PolicyField> result = EnumSet.noneOf(PolicyField.class);
+        for (String field : fields.split(",")) {
+            if (field.isBlank()) {
+                continue;
+            }
+            try {
+                result.add(PolicyField.valueOf(field.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidDataException(ErrorCode.INVALID_DATA, e);
+            }
+        }
+        return result;
+    }
 }
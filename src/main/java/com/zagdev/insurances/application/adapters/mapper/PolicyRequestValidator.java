@@ -0,0 +1,55 @@
+package com.zagdev.insurances.application.adapters.mapper;
+
+import com.zagdev.insurances.application.adapters.config.ResponseError;
+import com.zagdev.insurances.application.adapters.dto.PolicyRequest;
+import com.zagdev.insurances.domain.enums.InsuranceCategory;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.Validator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class PolicyRequestValidator implements Validator {
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return PolicyRequest.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        BindingResult result = (BindingResult) errors;
+        validate((PolicyRequest) target).forEach(error -> error.details().forEach(detail ->
+                result.addError(new FieldError(errors.getObjectName(), error.name(), detail))));
+    }
+
+    public static List<ResponseError.FieldError> validate(PolicyRequest request) {
+        List<ResponseError.FieldError> errors = new ArrayList<>();
+        if (request == null) {
+            errors.add(fieldError("policy", "must be a valid policy object"));
+            return errors;
+        }
+        if (request.getCustomerId() == null) {
+            errors.add(fieldError("customer_id", "must not be null"));
+        }
+        if (!isValidCategory(request.getCategory())) {
+            errors.add(fieldError("category", "must be one of " + Arrays.toString(InsuranceCategory.values())));
+        }
+        if (request.getInsuredAmount() == null || request.getInsuredAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            errors.add(fieldError("insured_amount", "must be greater than zero"));
+        }
+        return errors;
+    }
+
+    private static boolean isValidCategory(String category) {
+        return category != null && Arrays.stream(InsuranceCategory.values()).anyMatch(c -> c.name().equals(category));
+    }
+
+    private static ResponseError.FieldError fieldError(String name, String detail) {
+        return new ResponseError.FieldError(name, new ArrayList<>(List.of(detail)));
+    }
+}
@@ -0,0 +1,92 @@
+package com.zagdev.insurances.config;
+
+import com.zagdev.insurances.infrastructure.FraudApiClient;
+import com.zagdev.insurances.infrastructure.implementation.CachingFraudApiClient;
+import com.zagdev.insurances.infrastructure.implementation.FallbackFraudApiClient;
+import com.zagdev.insurances.infrastructure.implementation.FraudApiClientImpl;
+import com.zagdev.insurances.infrastructure.implementation.ResilientFraudApiClient;
+import com.zagdev.insurances.infrastructure.implementation.SingleFlightFraudApiClient;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+public class FraudApiClientConfig {
+
+    static final String FRAUD_API = "fraud-api";
+
+    @Bean
+    @Primary
+    public FraudApiClient fraudApiClient(FraudApiClientImpl fraudApiClientImpl, FraudApiProperties properties,
+                                         MeterRegistry meterRegistry,
+                                         @Qualifier("fraudCacheRefreshExecutor") Executor fraudCacheRefreshExecutor) {
+        FraudApiProperties.Resilience resilience = properties.getResilience();
+
+        FraudApiClient client = fraudApiClientImpl;
+        if (resilience.isEnabled()) {
+            client = new ResilientFraudApiClient(client, circuitBreaker(resilience, meterRegistry),
+                    bulkhead(resilience, meterRegistry));
+        }
+        if (properties.isSingleFlight()) {
+            client = new SingleFlightFraudApiClient(client);
+        }
+        if (properties.getCache().isEnabled()) {
+            client = new CachingFraudApiClient(client, properties.getCache(), meterRegistry, fraudCacheRefreshExecutor);
+        }
+        if (resilience.isEnabled() && resilience.getFallbackClassification() != null) {
+            client = new FallbackFraudApiClient(client, resilience.getFallbackClassification());
+        }
+        return client;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor fraudCacheRefreshExecutor(FraudApiProperties properties) {
+        FraudApiProperties.Cache cache = properties.getCache();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("fraud-cache-refresh-");
+        executor.setCorePoolSize(cache.getRefreshThreads());
+        executor.setMaxPoolSize(cache.getRefreshThreads());
+        executor.setQueueCapacity(cache.getRefreshQueueCapacity());
+        return executor;
+    }
+
+    static CircuitBreaker circuitBreaker(FraudApiProperties.Resilience resilience, MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(resilience.getFailureRateThreshold())
+                .slowCallRateThreshold(resilience.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(resilience.getSlowCallDuration())
+                .slidingWindowSize(resilience.getSlidingWindowSize())
+                .minimumNumberOfCalls(resilience.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(resilience.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(resilience.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordExceptions(ResourceAccessException.class, HttpServerErrorException.class)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker(FRAUD_API);
+    }
+
+    static Bulkhead bulkhead(FraudApiProperties.Resilience resilience, MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(resilience.getMaxConcurrentCalls())
+                .maxWaitDuration(resilience.getMaxWaitDuration())
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(FRAUD_API);
+    }
+}
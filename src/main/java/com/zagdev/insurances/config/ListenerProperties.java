@@ -0,0 +1,266 @@
+package com.zagdev.insurances.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "policy.listeners")
+public class ListenerProperties {
+
+    private Consumer paymentResult = new Consumer();
+
+    private Consumer subscriptionResult = new Consumer();
+
+    private Batch batch = new Batch();
+
+    private Lanes lanes = new Lanes();
+
+    private Dedupe dedupe = new Dedupe();
+
+    private Retry retry = new Retry();
+
+    public Consumer getPaymentResult() {
+        return paymentResult;
+    }
+
+    public void setPaymentResult(Consumer paymentResult) {
+        this.paymentResult = paymentResult;
+    }
+
+    public Consumer getSubscriptionResult() {
+        return subscriptionResult;
+    }
+
+    public void setSubscriptionResult(Consumer subscriptionResult) {
+        this.subscriptionResult = subscriptionResult;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+
+    public Lanes getLanes() {
+        return lanes;
+    }
+
+    public void setLanes(Lanes lanes) {
+        this.lanes = lanes;
+    }
+
+    public Dedupe getDedupe() {
+        return dedupe;
+    }
+
+    public void setDedupe(Dedupe dedupe) {
+        this.dedupe = dedupe;
+    }
+
+    public Retry getRetry() {
+        return retry;
+    }
+
+    public void setRetry(Retry retry) {
+        this.retry = retry;
+    }
+
+    public static class Consumer {
+
+        private static final int DEFAULT_CONCURRENCY = 4;
+
+        private static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+        private Integer concurrency;
+
+        private Integer maxConcurrency;
+
+        private int prefetch = 50;
+
+        public int getConcurrency() {
+            return concurrency == null ? DEFAULT_CONCURRENCY : concurrency;
+        }
+
+        public void setConcurrency(Integer concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency == null ? DEFAULT_MAX_CONCURRENCY : maxConcurrency;
+        }
+
+        public void setMaxConcurrency(Integer maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public boolean isConcurrent() {
+            return (concurrency != null && concurrency > 1) || (maxConcurrency != null && maxConcurrency > 1);
+        }
+
+        public int getPrefetch() {
+            return prefetch;
+        }
+
+        public void setPrefetch(int prefetch) {
+            this.prefetch = prefetch;
+        }
+    }
+
+    public static class Batch {
+
+        private boolean enabled = false;
+
+        private int size = 500;
+
+        private long receiveTimeoutMs = 200;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public long getReceiveTimeoutMs() {
+            return receiveTimeoutMs;
+        }
+
+        public void setReceiveTimeoutMs(long receiveTimeoutMs) {
+            this.receiveTimeoutMs = receiveTimeoutMs;
+        }
+    }
+
+    public static class Lanes {
+
+        private boolean enabled = true;
+
+        private int count = 8;
+
+        private int capacity = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    public static class Dedupe {
+
+        private boolean enabled = true;
+
+        private Duration ttl = Duration.ofHours(24);
+
+        private long cacheSize = 100_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getCacheSize() {
+            return cacheSize;
+        }
+
+        public void setCacheSize(long cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+    }
+
+    public static class Retry {
+
+        private boolean enabled = true;
+
+        private int tiers = 4;
+
+        private Duration initialDelay = Duration.ofSeconds(1);
+
+        private double multiplier = 4.0;
+
+        private Duration confirmTimeout = Duration.ofSeconds(5);
+
+        public Duration delayOf(int tier) {
+            return Duration.ofMillis((long) (initialDelay.toMillis() * Math.pow(multiplier, tier - 1)));
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getTiers() {
+            return tiers;
+        }
+
+        public void setTiers(int tiers) {
+            this.tiers = tiers;
+        }
+
+        public Duration getInitialDelay() {
+            return initialDelay;
+        }
+
+        public void setInitialDelay(Duration initialDelay) {
+            this.initialDelay = initialDelay;
+        }
+
+        public double getMultiplier() {
+            return multiplier;
+        }
+
+        public void setMultiplier(double multiplier) {
+            this.multiplier = multiplier;
+        }
+
+        public Duration getConfirmTimeout() {
+            return confirmTimeout;
+        }
+
+        public void setConfirmTimeout(Duration confirmTimeout) {
+            this.confirmTimeout = confirmTimeout;
+        }
+    }
+}
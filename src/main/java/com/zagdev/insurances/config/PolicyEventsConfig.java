@@ -0,0 +1,22 @@
+package com.zagdev.insurances.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class PolicyEventsConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor policyEventsExecutor(
+            @Value("${policy.events.dispatch-threads:4}") int dispatchThreads,
+            @Value("${policy.events.dispatch-queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("policy-events-");
+        executor.setCorePoolSize(dispatchThreads);
+        executor.setMaxPoolSize(dispatchThreads);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+}
@@ -1,16 +1,38 @@
 package com.zagdev.insurances.config;
 
+import com.zagdev.insurances.infrastructure.PolicyLanes;
+import com.zagdev.insurances.infrastructure.ProcessedMessageStore;
+import com.zagdev.insurances.infrastructure.ResultRetryScheduler;
+import com.zagdev.insurances.infrastructure.implementation.InlinePolicyLanes;
+import com.zagdev.insurances.infrastructure.implementation.MongoProcessedMessageStore;
+import com.zagdev.insurances.infrastructure.implementation.RabbitMqResultRetryScheduler;
+import com.zagdev.insurances.infrastructure.implementation.ShardedPolicyLanes;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.retry.RejectAndDontRequeueRecoverer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
+@EnableConfigurationProperties(ListenerProperties.class)
 public class RabbitMqConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(RabbitMqConfig.class);
+
+    private static final List<String> RESULT_QUEUES = List.of("payment-result-queue", "subscription-result-queue");
+
     @Bean
     public TopicExchange policyExchange() {
         return new TopicExchange("policy-exchange");
@@ -34,6 +56,74 @@ public class RabbitMqConfig {
         return factory;
     }
 
+    @Bean
+    public SimpleRabbitListenerContainerFactory paymentResultContainerFactory(ConnectionFactory connectionFactory,
+                                                                              ListenerProperties properties) {
+        return resultContainerFactory(connectionFactory, "payment-result", properties.getPaymentResult(), properties);
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory subscriptionResultContainerFactory(ConnectionFactory connectionFactory,
+                                                                                   ListenerProperties properties) {
+        return resultContainerFactory(connectionFactory, "subscription-result", properties.getSubscriptionResult(), properties);
+    }
+
+    @Bean
+    public PolicyLanes policyLanes(ListenerProperties properties, MeterRegistry meterRegistry) {
+        ListenerProperties.Lanes lanes = properties.getLanes();
+        if (!lanes.isEnabled()) {
+            return new InlinePolicyLanes();
+        }
+        return new ShardedPolicyLanes(lanes.getCount(), lanes.getCapacity(), meterRegistry);
+    }
+
+    @Bean
+    public ProcessedMessageStore processedMessageStore(MongoTemplate mongoTemplate, ListenerProperties properties,
+                                                       MeterRegistry meterRegistry) {
+        return new MongoProcessedMessageStore(mongoTemplate, properties.getDedupe(), meterRegistry);
+    }
+
+    @Bean
+    public ResultRetryScheduler resultRetryScheduler(RabbitTemplate rabbitTemplate, ListenerProperties properties) {
+        return new RabbitMqResultRetryScheduler(rabbitTemplate, properties.getRetry());
+    }
+
+    private SimpleRabbitListenerContainerFactory resultContainerFactory(ConnectionFactory connectionFactory, String name,
+                                                                       ListenerProperties.Consumer consumer,
+                                                                       ListenerProperties properties) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setConcurrentConsumers(consumer.getConcurrency());
+        factory.setMaxConcurrentConsumers(Math.max(consumer.getConcurrency(), consumer.getMaxConcurrency()));
+        factory.setPrefetchCount(consumer.getPrefetch());
+        factory.setDefaultRequeueRejected(false);
+
+        if (properties.getBatch().isEnabled()) {
+            enableBatchConsumption(factory, properties.getBatch(), consumer.getPrefetch());
+        } else if (properties.getLanes().isEnabled()) {
+            if (consumer.isConcurrent()) {
+                throw new IllegalStateException("policy.listeners." + name + ".concurrency and max-concurrency cannot be "
+                        + "combined with policy.listeners.lanes.enabled, size policy.listeners.lanes.count instead");
+            }
+            logger.info("Lanes: Consuming '{}' results with a single consumer dispatching to [{}] lanes",
+                    name, properties.getLanes().getCount());
+            factory.setConcurrentConsumers(1);
+            factory.setMaxConcurrentConsumers(1);
+        }
+
+        return factory;
+    }
+
+    private static void enableBatchConsumption(SimpleRabbitListenerContainerFactory factory, ListenerProperties.Batch batch,
+                                               int prefetch) {
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batch.getSize());
+        factory.setBatchReceiveTimeout(batch.getReceiveTimeoutMs());
+        factory.setPrefetchCount(Math.max(prefetch, batch.getSize()));
+    }
+
     @Bean
     public Queue paymentResultQueue() {
         return QueueBuilder.durable("payment-result-queue")
@@ -60,8 +150,35 @@ public class RabbitMqConfig {
         return QueueBuilder.durable("subscription-result-queue.dlq").build();
     }
 
+    @Bean
+    public Declarables resultRetryQueues(ListenerProperties properties) {
+        ListenerProperties.Retry retry = properties.getRetry();
+        List<Declarable> queues = new ArrayList<>();
+        for (String queue : RESULT_QUEUES) {
+            for (int tier = 1; tier <= retry.getTiers(); tier++) {
+                Duration delay = retry.delayOf(tier);
+                queues.add(QueueBuilder.durable(RabbitMqResultRetryScheduler.tierQueue(queue, delay))
+                        .ttl((int) delay.toMillis())
+                        .deadLetterExchange("")
+                        .deadLetterRoutingKey(queue)
+                        .build());
+            }
+        }
+        return new Declarables(queues);
+    }
+
     @Bean
     public Binding binding(Queue statusQueue, TopicExchange policyExchange) {
         return BindingBuilder.bind(statusQueue).to(policyExchange).with("policy.status.changed");
     }
+
+    @Bean
+    public AnonymousQueue policyEventsBroadcastQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding policyEventsBroadcastBinding(AnonymousQueue policyEventsBroadcastQueue, TopicExchange policyExchange) {
+        return BindingBuilder.bind(policyEventsBroadcastQueue).to(policyExchange).with("policy.status.changed");
+    }
 }
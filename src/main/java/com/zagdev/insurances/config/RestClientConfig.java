@@ -1,14 +1,87 @@
 package com.zagdev.insurances.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
+@EnableConfigurationProperties(FraudApiProperties.class)
 public class RestClientConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public ClientHttpRequestFactory fraudApiRequestFactory(FraudApiProperties properties) {
+        FraudApiProperties.Http http = properties.getHttp();
+        if (http.getVersion() == FraudApiProperties.Version.HTTP_2) {
+            return http2RequestFactory(http);
+        }
+        return pooledRequestFactory(http);
+    }
+
+    @Bean
+    public RestTemplate fraudApiRestTemplate(@Qualifier("fraudApiRequestFactory") ClientHttpRequestFactory requestFactory) {
+        return new RestTemplate(requestFactory);
+    }
+
+    static HttpComponentsClientHttpRequestFactory pooledRequestFactory(FraudApiProperties.Http http) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(http.getMaxConnections())
+                .setMaxConnPerRoute(http.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(timeout(http.getConnectTimeout()))
+                        .setSocketTimeout(timeout(http.getReadTimeout()))
+                        .setTimeToLive(TimeValue.of(http.getKeepAlive()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(1))
+                        .build())
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setSoTimeout(timeout(http.getReadTimeout()))
+                        .setTcpNoDelay(true)
+                        .build())
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout(http.getConnectionRequestTimeout()))
+                        .setResponseTimeout(timeout(http.getResponseTimeout()))
+                        .setConnectionKeepAlive(TimeValue.of(http.getKeepAlive()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(http.getIdleEviction()))
+                .disableAutomaticRetries()
+                .build();
+
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    static JdkClientHttpRequestFactory http2RequestFactory(FraudApiProperties.Http http) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(http.getConnectTimeout())
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(http.getResponseTimeout());
+        return requestFactory;
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.of(duration);
     }
 }
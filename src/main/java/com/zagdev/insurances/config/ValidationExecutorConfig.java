@@ -0,0 +1,42 @@
+package com.zagdev.insurances.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ValidationExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor policyValidationExecutor(
+            @Value("${policy.validation.async.core-pool-size:8}") int corePoolSize,
+            @Value("${policy.validation.async.max-pool-size:16}") int maxPoolSize,
+            @Value("${policy.validation.async.queue-capacity:1000}") int queueCapacity,
+            @Value("${policy.validation.async.await-termination-seconds:30}") int awaitTerminationSeconds) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("policy-validation-");
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(awaitTerminationSeconds);
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor fraudLookupExecutor(
+            @Value("${policy.validation.batch.parallelism:16}") int parallelism,
+            @Value("${policy.validation.batch.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("fraud-lookup-");
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,46 @@
+package com.zagdev.insurances.domain.dto;
+
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+
+import java.util.UUID;
+
+public class PolicyBatchItemResult {
+
+    private final UUID id;
+    private final PolicyDTO policy;
+    private final ErrorCode error;
+
+    private PolicyBatchItemResult(UUID id, PolicyDTO policy, ErrorCode error) {
+        this.id = id;
+        this.policy = policy;
+        this.error = error;
+    }
+
+    public static PolicyBatchItemResult succeeded(PolicyDTO policy) {
+        return new PolicyBatchItemResult(policy.getId(), policy, null);
+    }
+
+    public static PolicyBatchItemResult failed(PolicyDTO policy, ErrorCode error) {
+        return new PolicyBatchItemResult(policy.getId(), policy, error);
+    }
+
+    public static PolicyBatchItemResult failed(UUID id, ErrorCode error) {
+        return new PolicyBatchItemResult(id, null, error);
+    }
+
+    public boolean isSucceeded() {
+        return error == null;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public PolicyDTO getPolicy() {
+        return policy;
+    }
+
+    public ErrorCode getError() {
+        return error;
+    }
+}
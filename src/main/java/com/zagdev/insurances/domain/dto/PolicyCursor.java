@@ -0,0 +1,50 @@
+package com.zagdev.insurances.domain.dto;
+
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+public class PolicyCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final Instant createdAt;
+    private final UUID id;
+
+    public PolicyCursor(Instant createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static PolicyCursor of(PolicyDTO policy) {
+        return new PolicyCursor(policy.getCreatedAt(), policy.getId());
+    }
+
+    public static PolicyCursor decode(String value) throws InvalidDataException {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, 2);
+            Instant createdAt = parts[0].isEmpty() ? null : Instant.ofEpochMilli(Long.parseLong(parts[0]));
+            return new PolicyCursor(createdAt, UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidDataException(ErrorCode.INVALID_DATA, e);
+        }
+    }
+
+    public String encode() {
+        String raw = (createdAt == null ? "" : String.valueOf(createdAt.toEpochMilli())) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
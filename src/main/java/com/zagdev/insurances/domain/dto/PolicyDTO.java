@@ -2,6 +2,7 @@ package com.zagdev.insurances.domain.dto;
 
 import com.zagdev.insurances.domain.enums.InsuranceCategory;
 import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.enums.PolicyTransition;
 import com.zagdev.insurances.domain.enums.RiskClassification;
 import com.zagdev.insurances.domain.exceptions.InvalidDataException;
 import com.zagdev.insurances.domain.rules.RiskRules;
@@ -32,12 +33,14 @@ public class PolicyDTO {
     private PolicyStatus status;
     private Instant createdAt;
     private Instant finishedAt;
+    private String validationError;
+    private Instant validationFailedAt;
+    private long version;
     private List<StatusChange> history = new ArrayList<>();
 
     public PolicyDTO(UUID customerId, UUID productId, InsuranceCategory category, String salesChannel,
                   String paymentMethod, BigDecimal totalMonthlyPremium, BigDecimal insuredAmount,
                   Map<String, BigDecimal> coverages, List<String> assistances) {
-        this.id = UUID.randomUUID();
         this.customerId = customerId;
         this.productId = productId;
         this.category = category;
@@ -58,49 +61,45 @@ public class PolicyDTO {
     }
 
     public void validate(RiskClassification classification) throws InvalidDataException {
-        if (status == PolicyStatus.CANCELLED) {
+        apply(validationOutcome(classification));
+    }
+
+    public PolicyTransition validationOutcome(RiskClassification classification) throws InvalidDataException {
+        if (!PolicyTransition.VALIDATE.isAllowedFrom(status)) {
             throw new InvalidDataException(INVALID_STATUS);
         }
 
         boolean approved = RiskRules.isApproved(classification, category, insuredAmount);
 
-        if (approved) {
-            transitionTo(PolicyStatus.VALIDATED);
-        } else {
-            transitionTo(PolicyStatus.REJECTED);
-        }
+        return approved ? PolicyTransition.VALIDATE : PolicyTransition.DENY;
     }
 
     public void markAsPending() throws InvalidDataException {
-        if (status != PolicyStatus.VALIDATED) {
-            throw new InvalidDataException(INVALID_STATUS);
-        }
-        transitionTo(PolicyStatus.PENDING);
+        apply(PolicyTransition.MARK_AS_PENDING);
     }
 
     public void approve() throws InvalidDataException {
-        if (status != PolicyStatus.PENDING) {
-            throw new InvalidDataException(INVALID_STATUS);
-        }
-
-        transitionTo(PolicyStatus.APPROVED);
-        this.finishedAt = Instant.now();
+        apply(PolicyTransition.APPROVE);
     }
 
     public void reject() throws InvalidDataException {
-        if (status != PolicyStatus.PENDING && status != PolicyStatus.VALIDATED) {
-            throw new InvalidDataException(INVALID_STATUS);
-        }
-        transitionTo(PolicyStatus.REJECTED);
-        this.finishedAt = Instant.now();
+        apply(PolicyTransition.REJECT);
     }
 
     public void cancel() throws InvalidDataException {
-        if (status == PolicyStatus.APPROVED || status == PolicyStatus.REJECTED || status == PolicyStatus.CANCELLED) {
+        apply(PolicyTransition.CANCEL);
+    }
+
+    private void apply(PolicyTransition transition) throws InvalidDataException {
+        if (!transition.isAllowedFrom(status)) {
             throw new InvalidDataException(INVALID_STATUS);
         }
-        transitionTo(PolicyStatus.CANCELLED);
-        this.finishedAt = Instant.now();
+
+        transitionTo(transition.getTarget());
+
+        if (transition.isFinishing()) {
+            this.finishedAt = Instant.now();
+        }
     }
 
     private void transitionTo(PolicyStatus newStatus) {
@@ -232,6 +231,30 @@ public class PolicyDTO {
         this.finishedAt = finishedAt;
     }
 
+    public String getValidationError() {
+        return validationError;
+    }
+
+    public void setValidationError(String validationError) {
+        this.validationError = validationError;
+    }
+
+    public Instant getValidationFailedAt() {
+        return validationFailedAt;
+    }
+
+    public void setValidationFailedAt(Instant validationFailedAt) {
+        this.validationFailedAt = validationFailedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public List<StatusChange> getHistory() {
         return history;
     }
@@ -0,0 +1,26 @@
+package com.zagdev.insurances.domain.dto;
+
+import java.util.List;
+
+public class PolicyPage {
+
+    private final List<PolicyDTO> items;
+    private final PolicyCursor nextCursor;
+
+    public PolicyPage(List<PolicyDTO> items, PolicyCursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PolicyDTO> getItems() {
+        return items;
+    }
+
+    public PolicyCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
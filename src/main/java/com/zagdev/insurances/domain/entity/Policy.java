@@ -27,7 +27,13 @@ public class Policy {
     private PolicyStatus status;
     private Instant createdAt;
     private Instant finishedAt;
+    private String validationError;
+    private Instant validationFailedAt;
+    private Long version;
     private List<StatusHistory> history;
+    private List<OutboxEvent> outbox;
+    private String outboxClaimedBy;
+    private Instant outboxLeaseUntil;
 
     public UUID getId() {
         return id;
@@ -149,6 +155,30 @@ public class Policy {
         this.finishedAt = finishedAt;
     }
 
+    public String getValidationError() {
+        return validationError;
+    }
+
+    public void setValidationError(String validationError) {
+        this.validationError = validationError;
+    }
+
+    public Instant getValidationFailedAt() {
+        return validationFailedAt;
+    }
+
+    public void setValidationFailedAt(Instant validationFailedAt) {
+        this.validationFailedAt = validationFailedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<StatusHistory> getHistory() {
         return history;
     }
@@ -157,6 +187,30 @@ public class Policy {
         this.history = history;
     }
 
+    public List<OutboxEvent> getOutbox() {
+        return outbox;
+    }
+
+    public void setOutbox(List<OutboxEvent> outbox) {
+        this.outbox = outbox;
+    }
+
+    public String getOutboxClaimedBy() {
+        return outboxClaimedBy;
+    }
+
+    public void setOutboxClaimedBy(String outboxClaimedBy) {
+        this.outboxClaimedBy = outboxClaimedBy;
+    }
+
+    public Instant getOutboxLeaseUntil() {
+        return outboxLeaseUntil;
+    }
+
+    public void setOutboxLeaseUntil(Instant outboxLeaseUntil) {
+        this.outboxLeaseUntil = outboxLeaseUntil;
+    }
+
     public static class StatusHistory {
         private PolicyStatus status;
         private Instant timestamp;
@@ -177,4 +231,34 @@ public class Policy {
             this.timestamp = timestamp;
         }
     }
+
+    public static class OutboxEvent {
+        private UUID eventId;
+        private PolicyStatus newStatus;
+        private Instant occurredAt;
+
+        public UUID getEventId() {
+            return eventId;
+        }
+
+        public void setEventId(UUID eventId) {
+            this.eventId = eventId;
+        }
+
+        public PolicyStatus getNewStatus() {
+            return newStatus;
+        }
+
+        public void setNewStatus(PolicyStatus newStatus) {
+            this.newStatus = newStatus;
+        }
+
+        public Instant getOccurredAt() {
+            return occurredAt;
+        }
+
+        public void setOccurredAt(Instant occurredAt) {
+            this.occurredAt = occurredAt;
+        }
+    }
 }
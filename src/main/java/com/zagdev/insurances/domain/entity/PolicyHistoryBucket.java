@@ -0,0 +1,65 @@
+package com.zagdev.insurances.domain.entity;
+
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Document(collection = "policy_history")
+public class PolicyHistoryBucket {
+    private String id;
+    private UUID policyId;
+    private int count;
+    private Instant firstAt;
+    private Instant lastAt;
+    private List<Policy.StatusHistory> entries;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public UUID getPolicyId() {
+        return policyId;
+    }
+
+    public void setPolicyId(UUID policyId) {
+        this.policyId = policyId;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public Instant getFirstAt() {
+        return firstAt;
+    }
+
+    public void setFirstAt(Instant firstAt) {
+        this.firstAt = firstAt;
+    }
+
+    public Instant getLastAt() {
+        return lastAt;
+    }
+
+    public void setLastAt(Instant lastAt) {
+        this.lastAt = lastAt;
+    }
+
+    public List<Policy.StatusHistory> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<Policy.StatusHistory> entries) {
+        this.entries = entries;
+    }
+}
@@ -0,0 +1,6 @@
+package com.zagdev.insurances.domain.enums;
+
+public enum HistoryMode {
+    EMBEDDED,
+    BUCKETED
+}
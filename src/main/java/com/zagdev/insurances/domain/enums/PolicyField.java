@@ -0,0 +1,29 @@
+package com.zagdev.insurances.domain.enums;
+
+import java.util.Collections;
+import java.util.List;
+
+public enum PolicyField {
+
+    HISTORY("history"),
+    COVERAGES("coverages"),
+    ASSISTANCES("assistances");
+
+    public static final List<String> CORE_FIELDS = Collections.unmodifiableList(List.of(
+            "customerId", "productId", "category", "salesChannel", "paymentMethod", "status",
+            "createdAt", "finishedAt", "totalMonthlyPremium", "insuredAmount", "version",
+            "validationError", "validationFailedAt"));
+
+    public static final List<String> SUMMARY_FIELDS = Collections.unmodifiableList(List.of(
+            "status", "category", "totalMonthlyPremium"));
+
+    private final String documentField;
+
+    PolicyField(String documentField) {
+        this.documentField = documentField;
+    }
+
+    public String getDocumentField() {
+        return documentField;
+    }
+}
@@ -0,0 +1,43 @@
+package com.zagdev.insurances.domain.enums;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static com.zagdev.insurances.domain.enums.PolicyStatus.*;
+
+public enum PolicyTransition {
+
+    VALIDATE(VALIDATED, false, EnumSet.of(RECEIVED, VALIDATED, PENDING, APPROVED, REJECTED)),
+    DENY(REJECTED, false, EnumSet.of(RECEIVED, VALIDATED, PENDING, APPROVED, REJECTED)),
+    MARK_AS_PENDING(PENDING, false, EnumSet.of(VALIDATED)),
+    APPROVE(APPROVED, true, EnumSet.of(PENDING)),
+    REJECT(REJECTED, true, EnumSet.of(PENDING, VALIDATED)),
+    CANCEL(CANCELLED, true, EnumSet.of(RECEIVED, VALIDATED, PENDING));
+
+    private final PolicyStatus target;
+    private final boolean finishing;
+    private final Set<PolicyStatus> allowedFrom;
+
+    PolicyTransition(PolicyStatus target, boolean finishing, Set<PolicyStatus> allowedFrom) {
+        this.target = target;
+        this.finishing = finishing;
+        this.allowedFrom = Collections.unmodifiableSet(allowedFrom);
+    }
+
+    public PolicyStatus getTarget() {
+        return target;
+    }
+
+    public boolean isFinishing() {
+        return finishing;
+    }
+
+    public Set<PolicyStatus> getAllowedFrom() {
+        return allowedFrom;
+    }
+
+    public boolean isAllowedFrom(PolicyStatus status) {
+        return allowedFrom.contains(status);
+    }
+}
@@ -11,6 +11,9 @@ public class PolicyEvent {
     private PolicyStatus newStatus;
     private Instant occurredAt;
 
+    public PolicyEvent() {
+    }
+
     public PolicyEvent(UUID policyId, UUID customerId, PolicyStatus newStatus) {
         this.policyId = policyId;
         this.customerId = customerId;
@@ -0,0 +1,8 @@
+package com.zagdev.insurances.domain.exceptions;
+
+public class ConflictException extends GenericException {
+
+  public ConflictException(ErrorCode errorCode) {
+    super(errorCode);
+  }
+}
@@ -5,7 +5,10 @@ public enum ErrorCode {
     UNEXPECTED_ERROR    (100, "Unexpected Error", "An unexpected error has occurred, please try again."),
     INVALID_DATA        (101, "Invalid data", "The data provided is invalid for this operation."),
     POLICY_NOT_FOUND    (102, "Data not found", "Policy not found."),
-    INVALID_STATUS      (103, "Invalid policy status", "Policy is not allowed to does this operation.");
+    INVALID_STATUS      (103, "Invalid policy status", "Policy is not allowed to does this operation."),
+    SERVICE_UNAVAILABLE (104, "Service unavailable", "Too many pending requests, please try again later."),
+    IDEMPOTENCY_KEY_IN_USE (105, "Request in progress", "A request with the same Idempotency-Key is still being processed."),
+    IDEMPOTENCY_KEY_REUSED (106, "Idempotency key reused", "The Idempotency-Key was already used with a different request.");
 
     private final Integer code;
     private final String title;
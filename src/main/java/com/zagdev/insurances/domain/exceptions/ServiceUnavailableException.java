@@ -0,0 +1,13 @@
+package com.zagdev.insurances.domain.exceptions;
+
+public class ServiceUnavailableException extends GenericException {
+
+  public ServiceUnavailableException(ErrorCode errorCode) {
+    super(errorCode);
+  }
+
+  public ServiceUnavailableException(ErrorCode errorCode, Throwable throwable) {
+    super(errorCode, throwable);
+  }
+
+}
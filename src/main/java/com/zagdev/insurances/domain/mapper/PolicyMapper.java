@@ -3,7 +3,17 @@ package com.zagdev.insurances.domain.mapper;
 import com.zagdev.insurances.domain.dto.PolicyDTO;
 import com.zagdev.insurances.domain.entity.Policy;
 import com.zagdev.insurances.domain.dto.StatusChange;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.event.PolicyEvent;
 
+import org.springframework.util.DigestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.TreeMap;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 public class PolicyMapper {
@@ -25,6 +35,9 @@ public class PolicyMapper {
         doc.setStatus(domain.getStatus());
         doc.setCreatedAt(domain.getCreatedAt());
         doc.setFinishedAt(domain.getFinishedAt());
+        doc.setValidationError(domain.getValidationError());
+        doc.setValidationFailedAt(domain.getValidationFailedAt());
+        doc.setVersion(domain.getVersion());
 
         var history = domain.getHistory().stream().map(h -> {
             var hDoc = new Policy.StatusHistory();
@@ -37,32 +50,77 @@ public class PolicyMapper {
         return doc;
     }
 
-    public static PolicyDTO toDomain(Policy doc) {
-        var domain = new PolicyDTO(
-                doc.getCustomerId(),
-                doc.getProductId(),
-                doc.getCategory(),
-                doc.getSalesChannel(),
-                doc.getPaymentMethod(),
-                doc.getTotalMonthlyPremium(),
-                doc.getInsuredAmount(),
-                doc.getCoverages(),
-                doc.getAssistances()
-        );
+    public static String toFingerprint(PolicyDTO request) {
+        StringBuilder canonical = new StringBuilder()
+                .append(request.getCustomerId()).append('|')
+                .append(request.getProductId()).append('|')
+                .append(request.getCategory()).append('|')
+                .append(request.getSalesChannel()).append('|')
+                .append(request.getPaymentMethod()).append('|')
+                .append(toPlain(request.getTotalMonthlyPremium())).append('|')
+                .append(toPlain(request.getInsuredAmount())).append('|');
+        if (request.getCoverages() != null) {
+            new TreeMap<>(request.getCoverages()).forEach((name, amount) ->
+                    canonical.append(name).append('=').append(toPlain(amount)).append(';'));
+        }
+        canonical.append('|');
+        if (request.getAssistances() != null) {
+            request.getAssistances().forEach(assistance -> canonical.append(assistance).append(';'));
+        }
+        return DigestUtils.md5DigestAsHex(canonical.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toPlain(BigDecimal amount) {
+        return amount == null ? null : amount.stripTrailingZeros().toPlainString();
+    }
+
+    public static Policy.OutboxEvent toOutboxEvent(PolicyStatus status, Instant occurredAt) {
+        var event = new Policy.OutboxEvent();
+        event.setEventId(UUID.randomUUID());
+        event.setNewStatus(status);
+        event.setOccurredAt(occurredAt);
+        return event;
+    }
+
+    public static Policy.StatusHistory toStatusHistory(Policy.OutboxEvent outboxEvent) {
+        var entry = new Policy.StatusHistory();
+        entry.setStatus(outboxEvent.getNewStatus());
+        entry.setTimestamp(outboxEvent.getOccurredAt());
+        return entry;
+    }
 
+    public static PolicyEvent toEvent(Policy doc, Policy.OutboxEvent outboxEvent) {
+        var event = new PolicyEvent(doc.getId(), doc.getCustomerId(), outboxEvent.getNewStatus());
+        event.setOccurredAt(outboxEvent.getOccurredAt());
+        return event;
+    }
+
+    public static PolicyDTO toDomain(Policy doc) {
+        var domain = new PolicyDTO();
         domain.setId(doc.getId());
+        domain.setCustomerId(doc.getCustomerId());
+        domain.setProductId(doc.getProductId());
+        domain.setCategory(doc.getCategory());
+        domain.setSalesChannel(doc.getSalesChannel());
+        domain.setPaymentMethod(doc.getPaymentMethod());
+        domain.setPaymentConfirmed(doc.getPaymentConfirmed());
+        domain.setSubscriptionAuthorized(doc.getSubscriptionAuthorized());
+        domain.setTotalMonthlyPremium(doc.getTotalMonthlyPremium());
+        domain.setInsuredAmount(doc.getInsuredAmount());
+        domain.setCoverages(doc.getCoverages());
+        domain.setAssistances(doc.getAssistances());
         domain.setStatus(doc.getStatus());
         domain.setCreatedAt(doc.getCreatedAt());
         domain.setFinishedAt(doc.getFinishedAt());
-        domain.setPaymentConfirmed(doc.getPaymentConfirmed());
-        domain.setSubscriptionAuthorized(doc.getSubscriptionAuthorized());
-
-        var history = doc.getHistory().stream().map(h ->
-                new StatusChange(h.getStatus(), h.getTimestamp())
-        ).toList();
+        domain.setValidationError(doc.getValidationError());
+        domain.setValidationFailedAt(doc.getValidationFailedAt());
+        domain.setVersion(doc.getVersion() == null ? 0 : doc.getVersion());
 
-        domain.getHistory().clear();
-        domain.getHistory().addAll(history);
+        if (doc.getHistory() != null) {
+            var history = new ArrayList<StatusChange>(doc.getHistory().size());
+            doc.getHistory().forEach(h -> history.add(new StatusChange(h.getStatus(), h.getTimestamp())));
+            domain.setHistory(history);
+        }
 
         return domain;
     }
@@ -0,0 +1,12 @@
+package com.zagdev.insurances.domain.repositories;
+
+import com.zagdev.insurances.domain.entity.Policy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface PolicyBulkRepository {
+
+    Map<UUID, String> insertAll(List<Policy> policies);
+}
@@ -0,0 +1,14 @@
+package com.zagdev.insurances.domain.repositories;
+
+import com.zagdev.insurances.domain.entity.Policy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface PolicyHistoryRepository {
+
+    void archiveHistory(Map<UUID, List<Policy.StatusHistory>> entries);
+
+    void loadArchivedHistory(Policy policy);
+}
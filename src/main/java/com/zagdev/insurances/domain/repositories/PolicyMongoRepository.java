@@ -8,7 +8,8 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface PolicyMongoRepository extends MongoRepository<Policy, UUID> {
+public interface PolicyMongoRepository extends MongoRepository<Policy, UUID>, PolicyTransitionRepository, PolicyOutboxRepository,
+        PolicyBulkRepository, PolicyQueryRepository, PolicyHistoryRepository {
 
     List<Policy> findByCustomerId(UUID customerId);
 }
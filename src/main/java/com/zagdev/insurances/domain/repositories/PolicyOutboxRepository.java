@@ -0,0 +1,17 @@
+package com.zagdev.insurances.domain.repositories;
+
+import com.zagdev.insurances.domain.entity.Policy;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface PolicyOutboxRepository {
+
+    List<Policy> claimPendingOutbox(String claimToken, Instant now, Instant leaseUntil, int limit);
+
+    void acknowledgeOutbox(String claimToken, Map<UUID, List<UUID>> publishedEventIds);
+
+    void releaseOutboxClaim(String claimToken);
+}
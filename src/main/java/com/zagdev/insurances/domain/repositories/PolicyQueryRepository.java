@@ -0,0 +1,28 @@
+package com.zagdev.insurances.domain.repositories;
+
+import com.zagdev.insurances.domain.dto.PolicyCursor;
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.enums.PolicyField;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface PolicyQueryRepository {
+
+    Optional<Policy> findProjectedById(UUID id, Set<PolicyField> fields);
+
+    List<Policy> findProjectedByCustomerId(UUID customerId, Set<PolicyField> fields);
+
+    List<Policy> findSummariesByCustomerId(UUID customerId);
+
+    List<Policy> findByCustomerIdAfter(UUID customerId, Set<PolicyField> fields, PolicyCursor after, int limit);
+
+    Stream<Policy> streamByCustomerId(UUID customerId, Set<PolicyField> fields);
+
+    Optional<Policy> findVersionById(UUID id);
+
+    List<Policy> findVersionsByCustomerId(UUID customerId);
+}
@@ -0,0 +1,34 @@
+package com.zagdev.insurances.domain.repositories;
+
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.enums.PolicyTransition;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface PolicyTransitionRepository {
+
+    Optional<Policy> applyTransitions(UUID id, List<PolicyTransition> transitions, Instant occurredAt);
+
+    int applyTransitionsInBulk(Map<UUID, List<PolicyTransition>> transitions, Instant occurredAt);
+
+    int applyTransitionsIfUnchanged(Map<UUID, List<PolicyTransition>> transitions, Map<UUID, Policy> read, Instant occurredAt);
+
+    Optional<Policy> approveWhenSettled(UUID id, Instant occurredAt);
+
+    Optional<Policy> markPaymentConfirmed(UUID id);
+
+    Optional<Policy> markSubscriptionAuthorized(UUID id);
+
+    int approveWhenSettledInBulk(Collection<UUID> ids, Instant occurredAt);
+
+    int markPaymentConfirmedInBulk(Collection<UUID> ids);
+
+    int markSubscriptionAuthorizedInBulk(Collection<UUID> ids);
+
+    boolean recordValidationFailure(UUID id, String error, Instant failedAt);
+}
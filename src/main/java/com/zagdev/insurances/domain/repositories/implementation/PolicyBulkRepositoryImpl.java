@@ -0,0 +1,39 @@
+package com.zagdev.insurances.domain.repositories.implementation;
+
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.repositories.PolicyBulkRepository;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class PolicyBulkRepositoryImpl implements PolicyBulkRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public PolicyBulkRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Map<UUID, String> insertAll(List<Policy> policies) {
+        if (policies.isEmpty()) {
+            return Map.of();
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Policy.class);
+        bulk.insert(policies);
+        try {
+            bulk.execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<UUID, String> failures = new HashMap<>();
+            e.getErrors().forEach(error -> failures.put(policies.get(error.getIndex()).getId(), error.getMessage()));
+            return failures;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.zagdev.insurances.domain.repositories.implementation;
+
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.entity.PolicyHistoryBucket;
+import com.zagdev.insurances.domain.enums.HistoryMode;
+import com.zagdev.insurances.domain.repositories.PolicyHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public class PolicyHistoryRepositoryImpl implements PolicyHistoryRepository {
+
+    private final MongoTemplate mongoTemplate;
+    private final HistoryMode mode;
+    private final int bucketSize;
+
+    public PolicyHistoryRepositoryImpl(MongoTemplate mongoTemplate) {
+        this(mongoTemplate, HistoryMode.EMBEDDED, 50);
+    }
+
+    @Autowired
+    public PolicyHistoryRepositoryImpl(MongoTemplate mongoTemplate,
+                                       @Value("${policy.history.mode:EMBEDDED}") HistoryMode mode,
+                                       @Value("${policy.history.bucket-size:50}") int bucketSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.mode = mode;
+        this.bucketSize = bucketSize;
+    }
+
+    @Override
+    public void archiveHistory(Map<UUID, List<Policy.StatusHistory>> entries) {
+        if (mode != HistoryMode.BUCKETED || entries.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PolicyHistoryBucket.class);
+        entries.forEach((policyId, history) -> {
+            for (int from = 0; from < history.size(); from += bucketSize) {
+                List<Policy.StatusHistory> chunk = history.subList(from, Math.min(from + bucketSize, history.size()));
+                bulk.upsert(openBucket(policyId, chunk.size()), append(chunk));
+            }
+        });
+        bulk.execute();
+    }
+
+    @Override
+    public void loadArchivedHistory(Policy policy) {
+        if (mode != HistoryMode.BUCKETED) {
+            return;
+        }
+
+        Query query = Query.query(Criteria.where("policyId").is(policy.getId())).with(Sort.by("firstAt"));
+        List<PolicyHistoryBucket> buckets = mongoTemplate.find(query, PolicyHistoryBucket.class);
+        policy.setHistory(merge(buckets, policy.getHistory()));
+    }
+
+    Query openBucket(UUID policyId, int incoming) {
+        return Query.query(Criteria.where("policyId").is(policyId).and("count").lte(bucketSize - incoming));
+    }
+
+    static Update append(List<Policy.StatusHistory> history) {
+        Instant first = history.get(0).getTimestamp();
+        Instant last = history.get(history.size() - 1).getTimestamp();
+        Update update = new Update()
+                .inc("count", history.size())
+                .min("firstAt", first)
+                .max("lastAt", last);
+        update.push("entries").each(history.toArray());
+        return update;
+    }
+
+    static List<Policy.StatusHistory> merge(List<PolicyHistoryBucket> buckets, List<Policy.StatusHistory> embedded) {
+        List<Policy.StatusHistory> merged = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (PolicyHistoryBucket bucket : buckets) {
+            addUnseen(bucket.getEntries(), merged, seen);
+        }
+        addUnseen(embedded, merged, seen);
+        merged.sort(Comparator.comparing(Policy.StatusHistory::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return merged;
+    }
+
+    private static void addUnseen(List<Policy.StatusHistory> entries, List<Policy.StatusHistory> merged, Set<String> seen) {
+        if (entries == null) {
+            return;
+        }
+        for (Policy.StatusHistory entry : entries) {
+            if (seen.add(entry.getStatus() + "@" + entry.getTimestamp())) {
+                merged.add(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.zagdev.insurances.domain.repositories.implementation;
+
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.repositories.PolicyOutboxRepository;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class PolicyOutboxRepositoryImpl implements PolicyOutboxRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public PolicyOutboxRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Policy> claimPendingOutbox(String claimToken, Instant now, Instant leaseUntil, int limit) {
+        List<UUID> ids = mongoTemplate.find(pendingOutboxQuery(now, limit), Policy.class).stream().map(Policy::getId).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(ids).and("outboxLeaseUntil").not().gte(now)),
+                new Update().set("outboxClaimedBy", claimToken).set("outboxLeaseUntil", leaseUntil),
+                Policy.class);
+
+        Query claimed = Query.query(Criteria.where("outboxClaimedBy").is(claimToken))
+                .with(Sort.by("outbox.occurredAt"));
+        claimed.fields().include("customerId", "outbox");
+        return mongoTemplate.find(claimed, Policy.class);
+    }
+
+    @Override
+    public void acknowledgeOutbox(String claimToken, Map<UUID, List<UUID>> publishedEventIds) {
+        if (publishedEventIds.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Policy.class);
+        publishedEventIds.forEach((policyId, eventIds) -> bulk.updateOne(
+                Query.query(Criteria.where("_id").is(policyId).and("outboxClaimedBy").is(claimToken)),
+                new Update().pull("outbox", new Document("eventId", new Document("$in", eventIds)))
+                        .unset("outboxClaimedBy")
+                        .unset("outboxLeaseUntil")));
+        bulk.execute();
+    }
+
+    @Override
+    public void releaseOutboxClaim(String claimToken) {
+        mongoTemplate.updateMulti(Query.query(Criteria.where("outboxClaimedBy").is(claimToken)),
+                new Update().unset("outboxClaimedBy").unset("outboxLeaseUntil"), Policy.class);
+    }
+
+    public static Query pendingOutboxQuery(Instant now, int limit) {
+        Query query = Query.query(Criteria.where("outbox.occurredAt").exists(true).and("outboxLeaseUntil").not().gte(now))
+                .with(Sort.by("outbox.occurredAt"))
+                .limit(limit);
+        query.fields().include("_id");
+        return query;
+    }
+}
@@ -0,0 +1,92 @@
+package com.zagdev.insurances.domain.repositories.implementation;
+
+import com.zagdev.insurances.domain.dto.PolicyCursor;
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.enums.PolicyField;
+import com.zagdev.insurances.domain.repositories.PolicyQueryRepository;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class PolicyQueryRepositoryImpl implements PolicyQueryRepository {
+
+    static final Sort KEYSET_ORDER = Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("_id"));
+
+    private final MongoTemplate mongoTemplate;
+
+    public PolicyQueryRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<Policy> findProjectedById(UUID id, Set<PolicyField> fields) {
+        Query query = project(Query.query(Criteria.where("_id").is(id)), fields);
+        return Optional.ofNullable(mongoTemplate.findOne(query, Policy.class));
+    }
+
+    @Override
+    public List<Policy> findProjectedByCustomerId(UUID customerId, Set<PolicyField> fields) {
+        return mongoTemplate.find(project(Query.query(Criteria.where("customerId").is(customerId)), fields), Policy.class);
+    }
+
+    @Override
+    public List<Policy> findSummariesByCustomerId(UUID customerId) {
+        Query query = keysetQuery(customerId, null);
+        query.fields().include(PolicyField.SUMMARY_FIELDS.toArray(new String[0]));
+        return mongoTemplate.find(query, Policy.class);
+    }
+
+    @Override
+    public List<Policy> findByCustomerIdAfter(UUID customerId, Set<PolicyField> fields, PolicyCursor after, int limit) {
+        return mongoTemplate.find(project(keysetQuery(customerId, after), fields).limit(limit), Policy.class);
+    }
+
+    @Override
+    public Stream<Policy> streamByCustomerId(UUID customerId, Set<PolicyField> fields) {
+        return mongoTemplate.stream(project(keysetQuery(customerId, null), fields), Policy.class);
+    }
+
+    @Override
+    public Optional<Policy> findVersionById(UUID id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("version");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Policy.class));
+    }
+
+    @Override
+    public List<Policy> findVersionsByCustomerId(UUID customerId) {
+        Query query = Query.query(Criteria.where("customerId").is(customerId));
+        query.fields().include("version");
+        return mongoTemplate.find(query, Policy.class);
+    }
+
+    public static Query keysetQuery(UUID customerId, PolicyCursor after) {
+        Criteria criteria = Criteria.where("customerId").is(customerId);
+        if (after != null && after.getCreatedAt() == null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").ne(null),
+                    Criteria.where("createdAt").is(null).and("_id").gt(after.getId()));
+        } else if (after != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").gt(after.getCreatedAt()),
+                    Criteria.where("createdAt").is(after.getCreatedAt()).and("_id").gt(after.getId()));
+        }
+        return Query.query(criteria).with(KEYSET_ORDER);
+    }
+
+    static Query project(Query query, Set<PolicyField> fields) {
+        if (fields == null) {
+            return query;
+        }
+        query.fields().include(PolicyField.CORE_FIELDS.toArray(new String[0]));
+        fields.forEach(field -> query.fields().include(field.getDocumentField()));
+        return query;
+    }
+}
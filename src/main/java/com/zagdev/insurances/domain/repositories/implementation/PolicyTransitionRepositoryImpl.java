@@ -0,0 +1,198 @@
+package com.zagdev.insurances.domain.repositories.implementation;
+
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.enums.HistoryMode;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.enums.PolicyTransition;
+import com.zagdev.insurances.domain.mapper.PolicyMapper;
+import com.zagdev.insurances.domain.repositories.PolicyTransitionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public class PolicyTransitionRepositoryImpl implements PolicyTransitionRepository {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+    private final int historyLimit;
+
+    public PolicyTransitionRepositoryImpl(MongoTemplate mongoTemplate) {
+        this(mongoTemplate, HistoryMode.EMBEDDED, 0);
+    }
+
+    @Autowired
+    public PolicyTransitionRepositoryImpl(MongoTemplate mongoTemplate,
+                                          @Value("${policy.history.mode:EMBEDDED}") HistoryMode mode,
+                                          @Value("${policy.history.embedded-limit:10}") int embeddedLimit) {
+        this.mongoTemplate = mongoTemplate;
+        this.historyLimit = mode == HistoryMode.BUCKETED ? embeddedLimit : 0;
+    }
+
+    @Override
+    public Optional<Policy> applyTransitions(UUID id, List<PolicyTransition> transitions, Instant occurredAt) {
+        return transition(Criteria.where("_id").is(id), transitions, occurredAt);
+    }
+
+    @Override
+    public int applyTransitionsInBulk(Map<UUID, List<PolicyTransition>> transitions, Instant occurredAt) {
+        if (transitions.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Policy.class);
+        transitions.forEach((id, steps) -> bulk.updateOne(
+                guarded(Criteria.where("_id").is(id), steps),
+                toUpdate(steps, occurredAt, historyLimit)));
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public int applyTransitionsIfUnchanged(Map<UUID, List<PolicyTransition>> transitions, Map<UUID, Policy> read,
+                                           Instant occurredAt) {
+        if (transitions.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Policy.class);
+        transitions.forEach((id, steps) -> bulk.updateOne(
+                unchanged(read.get(id)),
+                toUpdate(steps, occurredAt, historyLimit)));
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public Optional<Policy> approveWhenSettled(UUID id, Instant occurredAt) {
+        return transition(settled(id), List.of(PolicyTransition.APPROVE), occurredAt);
+    }
+
+    @Override
+    public int approveWhenSettledInBulk(Collection<UUID> ids, Instant occurredAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<PolicyTransition> approve = List.of(PolicyTransition.APPROVE);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Policy.class);
+        ids.forEach(id -> bulk.updateOne(guarded(settled(id), approve), toUpdate(approve, occurredAt, historyLimit)));
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public Optional<Policy> markPaymentConfirmed(UUID id) {
+        return setFlag(id, "paymentConfirmed");
+    }
+
+    @Override
+    public Optional<Policy> markSubscriptionAuthorized(UUID id) {
+        return setFlag(id, "subscriptionAuthorized");
+    }
+
+    @Override
+    public int markPaymentConfirmedInBulk(Collection<UUID> ids) {
+        return setFlagInBulk(ids, "paymentConfirmed");
+    }
+
+    @Override
+    public int markSubscriptionAuthorizedInBulk(Collection<UUID> ids) {
+        return setFlagInBulk(ids, "subscriptionAuthorized");
+    }
+
+    @Override
+    public boolean recordValidationFailure(UUID id, String error, Instant failedAt) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("status").is(PolicyStatus.RECEIVED));
+        Update update = new Update().set("validationError", error).set("validationFailedAt", failedAt).inc("version", 1);
+        return mongoTemplate.updateFirst(query, update, Policy.class).getModifiedCount() == 1;
+    }
+
+    private static Criteria settled(UUID id) {
+        return Criteria.where("_id").is(id)
+                .and("paymentConfirmed").is(true)
+                .and("subscriptionAuthorized").is(true);
+    }
+
+    private static Query unchanged(Policy policy) {
+        return Query.query(Criteria.where("_id").is(policy.getId())
+                .and("status").is(policy.getStatus())
+                .and("version").is(policy.getVersion()));
+    }
+
+    private Optional<Policy> transition(Criteria criteria, List<PolicyTransition> transitions, Instant occurredAt) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(guarded(criteria, transitions),
+                toUpdate(transitions, occurredAt, historyLimit), RETURN_NEW, Policy.class));
+    }
+
+    private static Query guarded(Criteria criteria, List<PolicyTransition> transitions) {
+        if (transitions.isEmpty()) {
+            throw new IllegalArgumentException("At least one transition is required");
+        }
+        return Query.query(criteria.and("status").in(transitions.get(0).getAllowedFrom()));
+    }
+
+    private Optional<Policy> setFlag(UUID id, String field) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        Update update = new Update().set(field, true).inc("version", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, RETURN_NEW, Policy.class));
+    }
+
+    private int setFlagInBulk(Collection<UUID> ids, String field) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Query query = Query.query(Criteria.where("_id").in(ids).and(field).ne(true));
+        Update update = new Update().set(field, true).inc("version", 1);
+        return (int) mongoTemplate.updateMulti(query, update, Policy.class).getModifiedCount();
+    }
+
+    static Update toUpdate(List<PolicyTransition> transitions, Instant occurredAt) {
+        return toUpdate(transitions, occurredAt, 0);
+    }
+
+    static Update toUpdate(List<PolicyTransition> transitions, Instant occurredAt, int historyLimit) {
+        Policy.StatusHistory[] entries = new Policy.StatusHistory[transitions.size()];
+        Policy.OutboxEvent[] events = new Policy.OutboxEvent[transitions.size()];
+        boolean finishing = false;
+
+        for (int i = 0; i < transitions.size(); i++) {
+            PolicyTransition transition = transitions.get(i);
+            if (i > 0 && !transition.isAllowedFrom(transitions.get(i - 1).getTarget())) {
+                throw new IllegalArgumentException("Transition " + transition + " cannot follow " + transitions.get(i - 1));
+            }
+
+            Policy.StatusHistory entry = new Policy.StatusHistory();
+            entry.setStatus(transition.getTarget());
+            entry.setTimestamp(occurredAt);
+            entries[i] = entry;
+            events[i] = PolicyMapper.toOutboxEvent(transition.getTarget(), occurredAt);
+            finishing |= transition.isFinishing();
+        }
+
+        Update update = new Update().set("status", transitions.get(transitions.size() - 1).getTarget())
+                .unset("validationError")
+                .unset("validationFailedAt")
+                .inc("version", 1);
+        if (finishing) {
+            update.set("finishedAt", occurredAt);
+        }
+        if (historyLimit > 0) {
+            update.push("history").slice(-historyLimit).each((Object[]) entries);
+        } else {
+            update.push("history").each((Object[]) entries);
+        }
+        update.push("outbox").each((Object[]) events);
+        return update;
+    }
+}
@@ -1,10 +1,14 @@
 package com.zagdev.insurances.domain.services.implementation;
 
+import com.zagdev.insurances.domain.dto.PolicyBatchItemResult;
+import com.zagdev.insurances.domain.dto.PolicyCursor;
 import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.dto.PolicyPage;
 import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.enums.PolicyField;
 import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.enums.PolicyTransition;
 import com.zagdev.insurances.domain.enums.RiskClassification;
-import com.zagdev.insurances.domain.event.PolicyEvent;
 import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
 import com.zagdev.insurances.domain.exceptions.ErrorCode;
 import com.zagdev.insurances.domain.exceptions.InvalidDataException;
@@ -12,15 +16,28 @@ import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
 import com.zagdev.insurances.domain.mapper.PolicyMapper;
 import com.zagdev.insurances.domain.repositories.PolicyMongoRepository;
 import com.zagdev.insurances.domain.services.PolicyService;
-import com.zagdev.insurances.infrastructure.EventPublisher;
 import com.zagdev.insurances.infrastructure.FraudApiClient;
+import com.zagdev.insurances.infrastructure.IdGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PolicyServiceImpl implements PolicyService {
@@ -29,51 +46,87 @@ public class PolicyServiceImpl implements PolicyService {
 
     private final PolicyMongoRepository repository;
     private final FraudApiClient fraudClient;
-    private final EventPublisher eventPublisher;
+    private final Executor fraudLookupExecutor;
+    private final IdGenerator idGenerator;
 
-    public PolicyServiceImpl(PolicyMongoRepository repository, FraudApiClient fraudClient, EventPublisher eventPublisher) {
+    public PolicyServiceImpl(PolicyMongoRepository repository, FraudApiClient fraudClient,
+                             @Qualifier("fraudLookupExecutor") Executor fraudLookupExecutor,
+                             IdGenerator idGenerator) {
         this.repository = repository;
         this.fraudClient = fraudClient;
-        this.eventPublisher = eventPublisher;
+        this.fraudLookupExecutor = fraudLookupExecutor;
+        this.idGenerator = idGenerator;
     }
 
     @Override
     public PolicyDTO approve(UUID requestId) throws InvalidDataException, DataNotFoundException, UnexpectedErrorException {
         logger.info("Starting approval for policy [{}]", requestId);
-        PolicyDTO request = getById(requestId);
-        PolicyStatus previousStatus = request.getStatus();
-        request.approve();
-
-        logStatusTransition(requestId, previousStatus, request.getStatus());
-
-        return saveAndPublish(request);
+        return transition(requestId, PolicyTransition.APPROVE);
     }
 
     @Override
     public PolicyDTO cancel(UUID requestId) throws InvalidDataException, DataNotFoundException, UnexpectedErrorException {
         logger.info("Starting cancellation for policy [{}]", requestId);
-        PolicyDTO request = getById(requestId);
-        PolicyStatus previousStatus = request.getStatus();
-
-        request.cancel();
-
-        logStatusTransition(requestId, previousStatus, request.getStatus());
-
-        return saveAndPublish(request);
+        return transition(requestId, PolicyTransition.CANCEL);
     }
 
     @Override
     public PolicyDTO create(PolicyDTO request) throws InvalidDataException, UnexpectedErrorException {
         logger.info("Service: Creating new policy for customer [{}]", request.getCustomerId());
-        PolicyDTO result = saveAndPublish(request);
+        PolicyDTO result = saveWithOutbox(request);
         logger.info("Service: Policy created with id [{}] for customer [{}] (status: [{}])",
                 result.getId(), result.getCustomerId(), result.getStatus());
         return result;
     }
 
+    @Override
+    public List<PolicyBatchItemResult> createAll(List<PolicyDTO> requests) {
+        logger.info("Service: Creating [{}] policies in bulk", requests.size());
+        Instant now = Instant.now();
+        List<Policy> documents = requests.stream()
+                .map(request -> toDocumentWithOutbox(request, now))
+                .collect(Collectors.toList());
+
+        Map<UUID, String> failures = repository.insertAll(documents);
+
+        List<PolicyBatchItemResult> results = documents.stream()
+                .map(document -> {
+                    PolicyDTO policy = PolicyMapper.toDomain(document);
+                    if (failures.containsKey(document.getId())) {
+                        logger.error("Service: Failed to insert policy [{}] for customer [{}]: [{}]",
+                                document.getId(), document.getCustomerId(), failures.get(document.getId()));
+                        return PolicyBatchItemResult.failed(policy, ErrorCode.UNEXPECTED_ERROR);
+                    }
+                    return PolicyBatchItemResult.succeeded(policy);
+                })
+                .collect(Collectors.toList());
+        logger.info("Service: Bulk insert finished, [{}] of [{}] policies created",
+                requests.size() - failures.size(), requests.size());
+        return results;
+    }
+
     @Override
     public PolicyDTO findById(UUID id) throws DataNotFoundException {
-        return getById(id);
+        logger.info("Service: Finding policy by id [{}]", id);
+        Policy policy = repository.findById(id)
+                .orElseThrow(() -> new DataNotFoundException(ErrorCode.POLICY_NOT_FOUND));
+        repository.loadArchivedHistory(policy);
+
+        logger.info("Service: Found policy with id [{}] (status: [{}])", policy.getId(), policy.getStatus());
+        return PolicyMapper.toDomain(policy);
+    }
+
+    @Override
+    public PolicyDTO findById(UUID id, Set<PolicyField> fields) throws DataNotFoundException {
+        logger.info("Service: Finding policy by id [{}] with fields [{}]", id, fields);
+        Policy policy = repository.findProjectedById(id, fields)
+                .orElseThrow(() -> new DataNotFoundException(ErrorCode.POLICY_NOT_FOUND));
+        if (fields.contains(PolicyField.HISTORY)) {
+            repository.loadArchivedHistory(policy);
+        }
+
+        logger.info("Service: Found policy with id [{}] (status: [{}])", policy.getId(), policy.getStatus());
+        return PolicyMapper.toDomain(policy);
     }
 
     @Override
@@ -86,60 +139,222 @@ public class PolicyServiceImpl implements PolicyService {
         return list;
     }
 
+    @Override
+    public List<PolicyDTO> findByCustomerId(UUID id, Set<PolicyField> fields) {
+        logger.info("Service: Finding policies for customer [{}] with fields [{}]", id, fields);
+        List<PolicyDTO> list = repository.findProjectedByCustomerId(id, fields).stream()
+                .map(PolicyMapper::toDomain)
+                .collect(Collectors.toList());
+        logger.info("Service: Found [{}] policies for customer [{}]", list.size(), id);
+        return list;
+    }
+
+    @Override
+    public List<PolicyDTO> findSummariesByCustomerId(UUID id) {
+        logger.info("Service: Finding policy summaries for customer [{}]", id);
+        List<PolicyDTO> list = repository.findSummariesByCustomerId(id).stream()
+                .map(PolicyMapper::toDomain)
+                .collect(Collectors.toList());
+        logger.info("Service: Found [{}] policy summaries for customer [{}]", list.size(), id);
+        return list;
+    }
+
+    @Override
+    public PolicyPage findPageByCustomerId(UUID id, Set<PolicyField> fields, PolicyCursor after, int limit) {
+        logger.info("Service: Finding page of [{}] policies for customer [{}]", limit, id);
+        List<PolicyDTO> items = repository.findByCustomerIdAfter(id, fields, after, limit + 1).stream()
+                .map(PolicyMapper::toDomain)
+                .collect(Collectors.toList());
+        PolicyCursor next = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            next = PolicyCursor.of(items.get(limit - 1));
+        }
+        logger.info("Service: Found [{}] policies for customer [{}] (has next: [{}])", items.size(), id, next != null);
+        return new PolicyPage(items, next);
+    }
+
+    @Override
+    public Stream<PolicyDTO> streamByCustomerId(UUID id, Set<PolicyField> fields) {
+        logger.info("Service: Streaming policies for customer [{}] with fields [{}]", id, fields);
+        return repository.streamByCustomerId(id, fields).map(PolicyMapper::toDomain);
+    }
+
     @Override
     public PolicyDTO validate(UUID requestId) throws InvalidDataException, DataNotFoundException, UnexpectedErrorException {
         logger.info("Service: Validating policy [{}]", requestId);
         PolicyDTO request = getById(requestId);
-        PolicyStatus previousStatus = request.getStatus();
 
-        RiskClassification classification = fraudClient.getRiskClassification(request.getId(), request.getCustomerId());
+        RiskClassification classification = fraudClient.getRiskClassification(request.getId(), request.getCustomerId(), request.getProductId());
 
-        request.validate(classification);
+        PolicyDTO result = transition(requestId, validationSteps(request, classification).toArray(new PolicyTransition[0]));
 
-        logStatusTransition(requestId, previousStatus, request.getStatus());
+        logger.info("Service: Policy [{}] validation process finished with status [{}]", requestId, result.getStatus());
 
-        if (request.getStatus() == PolicyStatus.VALIDATED) {
-            previousStatus = request.getStatus();
-            publishEvent(request);
-            request.markAsPending();
-            logStatusTransition(requestId, previousStatus, request.getStatus());
-        }
+        return result;
+    }
 
-        logger.info("Service: Policy [{}] validation process finished with status [{}]", requestId, request.getStatus());
+    @Override
+    public boolean recordValidationFailure(UUID requestId, ErrorCode error) {
+        logger.info("Service: Recording validation failure [{}] for policy [{}]", error, requestId);
+        return repository.recordValidationFailure(requestId, error.name(), Instant.now());
+    }
+
+    @Override
+    public List<PolicyBatchItemResult> validateAll(List<UUID> requestIds) {
+        List<UUID> ids = requestIds.stream().distinct().collect(Collectors.toList());
+        logger.info("Service: Validating [{}] policies in bulk", ids.size());
+
+        Map<UUID, Policy> read = new HashMap<>();
+        Map<UUID, PolicyDTO> policies = new HashMap<>();
+        repository.findAllById(ids).forEach(policy -> {
+            read.put(policy.getId(), policy);
+            policies.put(policy.getId(), PolicyMapper.toDomain(policy));
+        });
+
+        Map<UUID, PolicyBatchItemResult> results = new HashMap<>();
+        Map<UUID, CompletableFuture<RiskClassification>> lookups = new LinkedHashMap<>();
+        for (UUID id : ids) {
+            PolicyDTO policy = policies.get(id);
+            if (policy == null) {
+                results.put(id, PolicyBatchItemResult.failed(id, ErrorCode.POLICY_NOT_FOUND));
+            } else if (!PolicyTransition.VALIDATE.isAllowedFrom(policy.getStatus())) {
+                results.put(id, PolicyBatchItemResult.failed(policy, ErrorCode.INVALID_STATUS));
+            } else {
+                lookups.put(id, CompletableFuture.supplyAsync(() -> classify(policy), fraudLookupExecutor));
+            }
+        }
 
-        return saveAndPublish(request);
+        Map<UUID, List<PolicyTransition>> transitions = new LinkedHashMap<>();
+        lookups.forEach((id, lookup) -> {
+            PolicyDTO policy = policies.get(id);
+            try {
+                transitions.put(id, validationSteps(policy, lookup.join()));
+            } catch (CompletionException e) {
+                logger.error("Service: Fraud lookup failed for policy [{}]", id, e.getCause());
+                ErrorCode error = e.getCause() instanceof InvalidDataException invalid
+                        ? invalid.getErrorCode()
+                        : ErrorCode.UNEXPECTED_ERROR;
+                results.put(id, PolicyBatchItemResult.failed(policy, error));
+            } catch (InvalidDataException e) {
+                results.put(id, PolicyBatchItemResult.failed(policy, e.getErrorCode()));
+            }
+        });
+
+        int modified = repository.applyTransitionsIfUnchanged(transitions, read, Instant.now());
+
+        Map<UUID, Policy> written = new HashMap<>();
+        repository.findAllById(transitions.keySet()).forEach(policy -> written.put(policy.getId(), policy));
+        transitions.forEach((id, steps) -> {
+            Policy policy = written.get(id);
+            PolicyStatus expected = steps.get(steps.size() - 1).getTarget();
+            if (policy != null && policy.getStatus() == expected && nextVersion(read.get(id)).equals(policy.getVersion())) {
+                results.put(id, PolicyBatchItemResult.succeeded(PolicyMapper.toDomain(policy)));
+            } else {
+                results.put(id, PolicyBatchItemResult.failed(policies.get(id), ErrorCode.INVALID_STATUS));
+            }
+        });
+
+        logger.info("Service: Bulk validation finished, [{}] of [{}] policies updated", modified, ids.size());
+        return ids.stream().map(results::get).collect(Collectors.toList());
     }
 
     @Override
     public PolicyDTO reject(UUID requestId) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException {
         logger.info("Rejecting policy [{}]", requestId);
-        PolicyDTO request = getById(requestId);
-        PolicyStatus previousStatus = request.getStatus();
+        return transition(requestId, PolicyTransition.REJECT);
+    }
 
-        request.reject();
+    @Override
+    public PolicyDTO confirmPayment(UUID requestId) throws InvalidDataException, DataNotFoundException, UnexpectedErrorException {
+        logger.info("Service: Joining payment confirmation for policy [{}]", requestId);
+        Policy flagged = repository.markPaymentConfirmed(requestId)
+                .orElseThrow(() -> new DataNotFoundException(ErrorCode.POLICY_NOT_FOUND));
+        return approveWhenSettled(flagged);
+    }
 
-        logStatusTransition(requestId, previousStatus, request.getStatus());
-        return saveAndPublish(request);
+    @Override
+    public PolicyDTO authorizeSubscription(UUID requestId) throws InvalidDataException, DataNotFoundException, UnexpectedErrorException {
+        logger.info("Service: Joining subscription authorization for policy [{}]", requestId);
+        Policy flagged = repository.markSubscriptionAuthorized(requestId)
+                .orElseThrow(() -> new DataNotFoundException(ErrorCode.POLICY_NOT_FOUND));
+        return approveWhenSettled(flagged);
     }
 
     @Override
-    public PolicyDTO setPaymentConfirmed(UUID requestId) throws DataNotFoundException {
-        logger.info("Service: Confirming payment for policy [{}]", requestId);
-        PolicyDTO policyDTO = getById(requestId);
-        policyDTO.setPaymentConfirmed(true);
-        PolicyDTO updatedDTO = save(policyDTO);
-        logger.info("Service: Payment confirmed for policy [{}]", requestId);
-        return updatedDTO;
+    public List<PolicyBatchItemResult> confirmPaymentsInBulk(Set<UUID> confirmedIds, Set<UUID> failedIds) {
+        logger.info("Service: Joining [{}] payment confirmations and [{}] payment failures in bulk", confirmedIds.size(), failedIds.size());
+        int flagged = repository.markPaymentConfirmedInBulk(confirmedIds);
+        return settleInBulk(confirmedIds, failedIds, flagged);
     }
 
     @Override
-    public PolicyDTO setSubscriptionAuthorized(UUID requestId) throws DataNotFoundException {
-        logger.info("Service: Setting subscription authorized for policy [{}]", requestId);
-        PolicyDTO policyDTO = getById(requestId);
-        policyDTO.setSubscriptionAuthorized(true);
-        PolicyDTO updatedDTO = save(policyDTO);
-        logger.info("Service: Subscription authorized for policy [{}]", requestId);
-        return updatedDTO;
+    public List<PolicyBatchItemResult> authorizeSubscriptionsInBulk(Set<UUID> authorizedIds, Set<UUID> failedIds) {
+        logger.info("Service: Joining [{}] subscription authorizations and [{}] subscription failures in bulk", authorizedIds.size(), failedIds.size());
+        int flagged = repository.markSubscriptionAuthorizedInBulk(authorizedIds);
+        return settleInBulk(authorizedIds, failedIds, flagged);
+    }
+
+    private List<PolicyBatchItemResult> settleInBulk(Set<UUID> settledIds, Set<UUID> failedIds, int flagged) {
+        Instant now = Instant.now();
+
+        Map<UUID, List<PolicyTransition>> rejections = new LinkedHashMap<>();
+        failedIds.forEach(id -> rejections.put(id, List.of(PolicyTransition.REJECT)));
+        int rejected = repository.applyTransitionsInBulk(rejections, now);
+
+        List<UUID> approvable = settledIds.stream().filter(id -> !failedIds.contains(id)).collect(Collectors.toList());
+        int approved = repository.approveWhenSettledInBulk(approvable, now);
+
+        Set<UUID> ids = new LinkedHashSet<>(settledIds);
+        ids.addAll(failedIds);
+        Map<UUID, Policy> written = new HashMap<>();
+        repository.findAllById(ids).forEach(policy -> written.put(policy.getId(), policy));
+
+        List<PolicyBatchItemResult> results = ids.stream().map(id -> {
+            Policy policy = written.get(id);
+            if (policy == null) {
+                return PolicyBatchItemResult.failed(id, ErrorCode.POLICY_NOT_FOUND);
+            }
+            PolicyDTO dto = PolicyMapper.toDomain(policy);
+            boolean expected = failedIds.contains(id)
+                    ? policy.getStatus() == PolicyStatus.REJECTED
+                    : !isSettled(policy) || policy.getStatus() == PolicyStatus.APPROVED;
+            return expected ? PolicyBatchItemResult.succeeded(dto) : PolicyBatchItemResult.failed(dto, ErrorCode.INVALID_STATUS);
+        }).collect(Collectors.toList());
+
+        logger.info("Service: Bulk settlement finished, [{}] flagged, [{}] approved and [{}] rejected of [{}] policies",
+                flagged, approved, rejected, ids.size());
+        return results;
+    }
+
+    private static boolean isSettled(Policy policy) {
+        return Boolean.TRUE.equals(policy.getPaymentConfirmed()) && Boolean.TRUE.equals(policy.getSubscriptionAuthorized());
+    }
+
+    private PolicyDTO approveWhenSettled(Policy flagged) throws InvalidDataException, DataNotFoundException {
+        if (!Boolean.TRUE.equals(flagged.getPaymentConfirmed()) || !Boolean.TRUE.equals(flagged.getSubscriptionAuthorized())) {
+            logger.info("Service: Policy [{}] still waiting for payment/subscription results", flagged.getId());
+            return PolicyMapper.toDomain(flagged);
+        }
+
+        Optional<Policy> approved = repository.approveWhenSettled(flagged.getId(), Instant.now());
+        if (approved.isPresent()) {
+            PolicyDTO policy = PolicyMapper.toDomain(approved.get());
+            logger.info("Service: Policy [{}] status changed to [{}] (payment + subscription)", policy.getId(), policy.getStatus());
+            return policy;
+        }
+
+        if (flagged.getStatus() == PolicyStatus.APPROVED) {
+            logger.info("Service: Policy [{}] was already approved", flagged.getId());
+            return PolicyMapper.toDomain(flagged);
+        }
+        if (flagged.getStatus() == PolicyStatus.PENDING) {
+            logger.info("Service: Policy [{}] was settled concurrently by another result", flagged.getId());
+            return getById(flagged.getId());
+        }
+
+        logger.info("Service: Policy [{}] cannot be approved from status [{}]", flagged.getId(), flagged.getStatus());
+        throw new InvalidDataException(ErrorCode.INVALID_STATUS);
     }
 
     private PolicyDTO getById(UUID id) throws DataNotFoundException {
@@ -151,28 +366,78 @@ public class PolicyServiceImpl implements PolicyService {
         return PolicyMapper.toDomain(policy);
     }
 
-    private PolicyDTO saveAndPublish(PolicyDTO request) throws InvalidDataException, UnexpectedErrorException {
-        publishEvent(request);
-        Policy policy = repository.save(PolicyMapper.toDocument(request));
-        return PolicyMapper.toDomain(policy);
+    private RiskClassification classify(PolicyDTO policy) {
+        try {
+            return fraudClient.getRiskClassification(policy.getId(), policy.getCustomerId(), policy.getProductId());
+        } catch (InvalidDataException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    @Override
+    public long findVersionById(UUID id) throws DataNotFoundException {
+        logger.info("Service: Finding version of policy [{}]", id);
+        Policy policy = repository.findVersionById(id)
+                .orElseThrow(() -> new DataNotFoundException(ErrorCode.POLICY_NOT_FOUND));
+        return PolicyMapper.toDomain(policy).getVersion();
+    }
+
+    @Override
+    public List<PolicyDTO> findVersionsByCustomerId(UUID id) {
+        logger.info("Service: Finding policy versions for customer [{}]", id);
+        return repository.findVersionsByCustomerId(id).stream()
+                .map(PolicyMapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    private static Long nextVersion(Policy policy) {
+        return policy.getVersion() == null ? 1L : policy.getVersion() + 1;
     }
 
-    private PolicyDTO save(PolicyDTO request) {
-        Policy policy = repository.save(PolicyMapper.toDocument(request));
+    private static List<PolicyTransition> validationSteps(PolicyDTO policy, RiskClassification classification) throws InvalidDataException {
+        PolicyTransition outcome = policy.validationOutcome(classification);
+        return outcome == PolicyTransition.VALIDATE
+                ? List.of(PolicyTransition.VALIDATE, PolicyTransition.MARK_AS_PENDING)
+                : List.of(outcome);
+    }
+
+    private PolicyDTO saveWithOutbox(PolicyDTO request) {
+        Policy policy = repository.insert(toDocumentWithOutbox(request, Instant.now()));
         return PolicyMapper.toDomain(policy);
     }
 
-    private void logStatusTransition(UUID policyId, PolicyStatus from, PolicyStatus to) {
-        if (from != to) {
-            logger.info("Service: Policy [{}] status changed from [{}] to [{}]", policyId, from, to);
+    private Policy toDocumentWithOutbox(PolicyDTO request, Instant occurredAt) {
+        if (request.getId() == null) {
+            request.setId(idGenerator.next());
+        }
+        Policy document = PolicyMapper.toDocument(request);
+        document.setOutbox(List.of(PolicyMapper.toOutboxEvent(request.getStatus(), embeddedTimestamp(document, occurredAt))));
+        return document;
+    }
+
+    private static Instant embeddedTimestamp(Policy document, Instant fallback) {
+        List<Policy.StatusHistory> history = document.getHistory();
+        if (history == null || history.isEmpty()) {
+            return fallback;
         }
+        Policy.StatusHistory last = history.get(history.size() - 1);
+        return last.getStatus() == document.getStatus() && last.getTimestamp() != null ? last.getTimestamp() : fallback;
     }
 
-    private void publishEvent(PolicyDTO policy) throws InvalidDataException, UnexpectedErrorException {
-        eventPublisher.publish(new PolicyEvent(
-                policy.getId(),
-                policy.getCustomerId(),
-                policy.getStatus()
-        ));
+    private PolicyDTO transition(UUID requestId, PolicyTransition... transitions) throws InvalidDataException, DataNotFoundException {
+        Optional<Policy> updated = repository.applyTransitions(requestId, List.of(transitions), Instant.now());
+
+        if (updated.isEmpty()) {
+            if (!repository.existsById(requestId)) {
+                throw new DataNotFoundException(ErrorCode.POLICY_NOT_FOUND);
+            }
+            logger.info("Service: Policy [{}] is not allowed to transition via {}", requestId, Arrays.toString(transitions));
+            throw new InvalidDataException(ErrorCode.INVALID_STATUS);
+        }
+
+        for (PolicyTransition transition : transitions) {
+            logger.info("Service: Policy [{}] status changed to [{}]", requestId, transition.getTarget());
+        }
+        return PolicyMapper.toDomain(updated.get());
     }
 }
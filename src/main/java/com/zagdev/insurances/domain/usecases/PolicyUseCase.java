@@ -1,22 +1,43 @@
 package com.zagdev.insurances.domain.usecases;
 
+import com.zagdev.insurances.domain.dto.PolicyBatchItemResult;
+import com.zagdev.insurances.domain.dto.PolicyCursor;
 import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.dto.PolicyPage;
+import com.zagdev.insurances.domain.enums.PolicyField;
+import com.zagdev.insurances.domain.exceptions.ConflictException;
 import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
 import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.domain.exceptions.ServiceUnavailableException;
 import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface PolicyUseCase {
 
     PolicyDTO approve(UUID requestId) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException;
     PolicyDTO cancel(UUID requestId) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException;
     PolicyDTO create(PolicyDTO request) throws InvalidDataException, UnexpectedErrorException;
+    PolicyDTO create(PolicyDTO request, String idempotencyKey) throws InvalidDataException, UnexpectedErrorException, ConflictException;
+    List<PolicyBatchItemResult> createAll(List<PolicyDTO> requests);
     PolicyDTO findById(UUID id) throws DataNotFoundException;
+    PolicyDTO findById(UUID id, Set<PolicyField> fields) throws DataNotFoundException;
     List<PolicyDTO> findByCustomerId(UUID id);
+    List<PolicyDTO> findByCustomerId(UUID id, Set<PolicyField> fields);
+    List<PolicyDTO> findSummariesByCustomerId(UUID id);
+    PolicyPage findPageByCustomerId(UUID id, Set<PolicyField> fields, PolicyCursor after, int limit);
+    Stream<PolicyDTO> streamByCustomerId(UUID id, Set<PolicyField> fields);
+    long findVersionById(UUID id) throws DataNotFoundException;
+    List<PolicyDTO> findVersionsByCustomerId(UUID id);
     PolicyDTO validate(UUID requestId) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException;
+    PolicyDTO submitValidation(UUID requestId) throws DataNotFoundException, InvalidDataException, ServiceUnavailableException;
+    List<PolicyBatchItemResult> validateAll(List<UUID> requestIds);
     PolicyDTO reject(UUID requestId) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException;
-    PolicyDTO setPaymentConfirmed(UUID requestId) throws DataNotFoundException;
-    PolicyDTO setSubscriptionAuthorized(UUID requestId) throws DataNotFoundException;
+    PolicyDTO confirmPayment(UUID requestId) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException;
+    PolicyDTO authorizeSubscription(UUID requestId) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException;
+    List<PolicyBatchItemResult> confirmPaymentsInBulk(Set<UUID> confirmedIds, Set<UUID> failedIds);
+    List<PolicyBatchItemResult> authorizeSubscriptionsInBulk(Set<UUID> authorizedIds, Set<UUID> failedIds);
 }
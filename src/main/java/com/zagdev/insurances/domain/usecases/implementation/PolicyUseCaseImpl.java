@@ -1,17 +1,39 @@
 package com.zagdev.insurances.domain.usecases.implementation;
 
+import com.zagdev.insurances.domain.dto.PolicyBatchItemResult;
+import com.zagdev.insurances.domain.dto.PolicyCursor;
 import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.dto.PolicyPage;
+import com.zagdev.insurances.domain.enums.PolicyField;
+import com.zagdev.insurances.domain.enums.PolicyTransition;
+import com.zagdev.insurances.domain.exceptions.ConflictException;
 import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.exceptions.GenericException;
 import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.domain.exceptions.ServiceUnavailableException;
 import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
+import com.zagdev.insurances.domain.mapper.PolicyMapper;
 import com.zagdev.insurances.domain.services.PolicyService;
 import com.zagdev.insurances.domain.usecases.PolicyUseCase;
+import com.zagdev.insurances.infrastructure.IdGenerator;
+import com.zagdev.insurances.infrastructure.IdempotencyStore;
+import com.zagdev.insurances.infrastructure.PolicyCache;
+import com.zagdev.insurances.infrastructure.dto.IdempotencyClaim;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
 
 @Service
 public class PolicyUseCaseImpl implements PolicyUseCase {
@@ -20,14 +42,35 @@ public class PolicyUseCaseImpl implements PolicyUseCase {
 
     private final PolicyService policyService;
 
-    public PolicyUseCaseImpl(PolicyService policyService) {
+    private final Executor validationExecutor;
+
+    private final PolicyCache policyCache;
+
+    private final IdempotencyStore idempotencyStore;
+
+    private final IdGenerator idGenerator;
+
+    private final MeterRegistry meterRegistry;
+
+    public PolicyUseCaseImpl(PolicyService policyService,
+                             @Qualifier("policyValidationExecutor") Executor validationExecutor,
+                             PolicyCache policyCache,
+                             IdempotencyStore idempotencyStore,
+                             IdGenerator idGenerator,
+                             MeterRegistry meterRegistry) {
         this.policyService = policyService;
+        this.validationExecutor = validationExecutor;
+        this.policyCache = policyCache;
+        this.idempotencyStore = idempotencyStore;
+        this.idGenerator = idGenerator;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
     public PolicyDTO approve(UUID requestId) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException {
         logger.info("UseCase: Requested to approve policy [{}]", requestId);
         PolicyDTO dto = policyService.approve(requestId);
+        policyCache.invalidate(requestId);
         logger.info("UseCase: Policy [{}] approved successfully (status: [{}])", dto.getId(), dto.getStatus());
         return dto;
     }
@@ -36,6 +79,7 @@ public class PolicyUseCaseImpl implements PolicyUseCase {
     public PolicyDTO cancel(UUID requestId) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException {
         logger.info("UseCase: Requested to cancel policy [{}]", requestId);
         PolicyDTO dto = policyService.cancel(requestId);
+        policyCache.invalidate(requestId);
         logger.info("UseCase: Policy [{}] cancelled successfully (status: [{}])", dto.getId(), dto.getStatus());
         return dto;
     }
@@ -49,10 +93,74 @@ public class PolicyUseCaseImpl implements PolicyUseCase {
         return dto;
     }
 
+    @Override
+    public PolicyDTO create(PolicyDTO request, String idempotencyKey) throws InvalidDataException, UnexpectedErrorException, ConflictException {
+        logger.info("UseCase: Requested to create new policy for customer [{}] with idempotency key [{}]",
+                request.getCustomerId(), idempotencyKey);
+        IdempotencyClaim claim = idempotencyStore.claim(idempotencyKey, PolicyMapper.toFingerprint(request));
+        Optional<PolicyDTO> replay = claim.getReplay();
+        if (replay.isPresent()) {
+            logger.info("UseCase: Policy [{}] already created for idempotency key [{}]", replay.get().getId(), idempotencyKey);
+            return replay.get();
+        }
+
+        UUID candidateId = idGenerator.next();
+        UUID policyId = idempotencyStore.reserve(claim, candidateId);
+        if (!policyId.equals(candidateId)) {
+            Optional<PolicyDTO> created = findCreated(policyId);
+            if (created.isPresent()) {
+                logger.warn("UseCase: Policy [{}] was already created for idempotency key [{}], completing it",
+                        policyId, idempotencyKey);
+                idempotencyStore.complete(claim, created.get());
+                return created.get();
+            }
+        }
+
+        PolicyDTO dto;
+        try {
+            request.setId(policyId);
+            dto = create(request);
+        } catch (DuplicateKeyException e) {
+            dto = findCreated(policyId).orElseThrow(() -> new ConflictException(ErrorCode.IDEMPOTENCY_KEY_IN_USE));
+            logger.warn("UseCase: Policy [{}] was created concurrently for idempotency key [{}], completing it",
+                    policyId, idempotencyKey);
+        } catch (InvalidDataException | UnexpectedErrorException | RuntimeException e) {
+            idempotencyStore.release(claim);
+            throw e;
+        }
+        idempotencyStore.complete(claim, dto);
+        return dto;
+    }
+
+    private Optional<PolicyDTO> findCreated(UUID policyId) {
+        try {
+            return Optional.of(policyService.findById(policyId));
+        } catch (DataNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<PolicyBatchItemResult> createAll(List<PolicyDTO> requests) {
+        logger.info("UseCase: Requested to create [{}] policies in batch", requests.size());
+        List<PolicyBatchItemResult> results = policyService.createAll(requests);
+        logger.info("UseCase: Batch of [{}] policies processed ([{}] created)", results.size(),
+                results.stream().filter(PolicyBatchItemResult::isSucceeded).count());
+        return results;
+    }
+
     @Override
     public PolicyDTO findById(UUID id) throws DataNotFoundException {
         logger.info("UseCase: Requested to find policy by id [{}]", id);
-        PolicyDTO dto = policyService.findById(id);
+        PolicyDTO dto = policyCache.get(id, policyService::findById);
+        logger.info("UseCase: Policy found with id [{}] (status: [{}])", dto.getId(), dto.getStatus());
+        return dto;
+    }
+
+    @Override
+    public PolicyDTO findById(UUID id, Set<PolicyField> fields) throws DataNotFoundException {
+        logger.info("UseCase: Requested to find policy by id [{}] with fields [{}]", id, fields);
+        PolicyDTO dto = policyService.findById(id, fields);
         logger.info("UseCase: Policy found with id [{}] (status: [{}])", dto.getId(), dto.getStatus());
         return dto;
     }
@@ -65,35 +173,152 @@ public class PolicyUseCaseImpl implements PolicyUseCase {
         return list;
     }
 
+    @Override
+    public List<PolicyDTO> findByCustomerId(UUID id, Set<PolicyField> fields) {
+        logger.info("UseCase: Requested to find policies by customer id [{}] with fields [{}]", id, fields);
+        List<PolicyDTO> list = policyService.findByCustomerId(id, fields);
+        logger.info("UseCase: Found [{}] policies for customer [{}]", list.size(), id);
+        return list;
+    }
+
+    @Override
+    public List<PolicyDTO> findSummariesByCustomerId(UUID id) {
+        logger.info("UseCase: Requested policy summaries by customer id [{}]", id);
+        return policyService.findSummariesByCustomerId(id);
+    }
+
+    @Override
+    public PolicyPage findPageByCustomerId(UUID id, Set<PolicyField> fields, PolicyCursor after, int limit) {
+        logger.info("UseCase: Requested page of [{}] policies by customer id [{}]", limit, id);
+        return policyService.findPageByCustomerId(id, fields, after, limit);
+    }
+
+    @Override
+    public Stream<PolicyDTO> streamByCustomerId(UUID id, Set<PolicyField> fields) {
+        logger.info("UseCase: Requested to stream policies by customer id [{}]", id);
+        return policyService.streamByCustomerId(id, fields);
+    }
+
+    @Override
+    public long findVersionById(UUID id) throws DataNotFoundException {
+        PolicyDTO cached = policyCache.getIfPresent(id);
+        if (cached != null) {
+            return cached.getVersion();
+        }
+        return policyService.findVersionById(id);
+    }
+
+    @Override
+    public List<PolicyDTO> findVersionsByCustomerId(UUID id) {
+        return policyService.findVersionsByCustomerId(id);
+    }
+
     @Override
     public PolicyDTO validate(UUID requestId) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException {
         logger.info("UseCase: Requested to validate policy [{}]", requestId);
         PolicyDTO dto = policyService.validate(requestId);
+        policyCache.invalidate(requestId);
         logger.info("UseCase: Policy [{}] validated successfully (status: [{}])", dto.getId(), dto.getStatus());
         return dto;
     }
 
+    @Override
+    public PolicyDTO submitValidation(UUID requestId) throws DataNotFoundException, InvalidDataException, ServiceUnavailableException {
+        logger.info("UseCase: Requested to validate policy [{}] asynchronously", requestId);
+        PolicyDTO dto = policyService.findById(requestId);
+        if (!PolicyTransition.VALIDATE.isAllowedFrom(dto.getStatus())) {
+            throw new InvalidDataException(ErrorCode.INVALID_STATUS);
+        }
+
+        try {
+            validationExecutor.execute(() -> validateInBackground(requestId));
+        } catch (RejectedExecutionException e) {
+            logger.warn("UseCase: Validation queue is full, rejecting policy [{}]", requestId);
+            throw new ServiceUnavailableException(ErrorCode.SERVICE_UNAVAILABLE, e);
+        }
+
+        logger.info("UseCase: Policy [{}] queued for validation (status: [{}])", dto.getId(), dto.getStatus());
+        return dto;
+    }
+
+    private void validateInBackground(UUID requestId) {
+        try {
+            validate(requestId);
+        } catch (GenericException e) {
+            recordValidationFailure(requestId, e.getErrorCode(), e);
+        } catch (RuntimeException e) {
+            recordValidationFailure(requestId, ErrorCode.UNEXPECTED_ERROR, e);
+        }
+    }
+
+    private void recordValidationFailure(UUID requestId, ErrorCode error, Exception cause) {
+        logger.error("UseCase: Asynchronous validation of policy [{}] failed with [{}]", requestId, error, cause);
+        meterRegistry.counter("policy.validation.async.failures", "error", error.name()).increment();
+        try {
+            if (policyService.recordValidationFailure(requestId, error)) {
+                policyCache.invalidate(requestId);
+            } else {
+                logger.warn("UseCase: Policy [{}] can no longer be validated, validation failure not recorded", requestId);
+            }
+        } catch (RuntimeException e) {
+            logger.error("UseCase: Could not record validation failure of policy [{}]", requestId, e);
+        }
+    }
+
+    @Override
+    public List<PolicyBatchItemResult> validateAll(List<UUID> requestIds) {
+        logger.info("UseCase: Requested to validate [{}] policies in batch", requestIds.size());
+        List<PolicyBatchItemResult> results = policyService.validateAll(requestIds);
+        requestIds.forEach(policyCache::invalidate);
+        logger.info("UseCase: Batch validation of [{}] policies processed ([{}] validated)", results.size(),
+                results.stream().filter(PolicyBatchItemResult::isSucceeded).count());
+        return results;
+    }
+
     @Override
     public PolicyDTO reject(UUID requestId) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException {
         logger.info("UseCase: Requested to reject policy [{}]", requestId);
         PolicyDTO dto = policyService.reject(requestId);
+        policyCache.invalidate(requestId);
         logger.info("UseCase: Policy [{}] rejected successfully (status: [{}])", dto.getId(), dto.getStatus());
         return dto;
     }
 
     @Override
-    public PolicyDTO setPaymentConfirmed(UUID requestId) throws DataNotFoundException {
-        logger.info("UseCase: Requested to confirm payment policy [{}]", requestId);
-        PolicyDTO dto = policyService.setPaymentConfirmed(requestId);
-        logger.info("UseCase: Policy [{}] confirmed payment successfully", dto.getId());
+    public PolicyDTO confirmPayment(UUID requestId) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException {
+        logger.info("UseCase: Requested to join payment confirmation for policy [{}]", requestId);
+        PolicyDTO dto = policyService.confirmPayment(requestId);
+        policyCache.invalidate(requestId);
+        logger.info("UseCase: Policy [{}] payment confirmation joined (status: [{}])", dto.getId(), dto.getStatus());
         return dto;
     }
 
     @Override
-    public PolicyDTO setSubscriptionAuthorized(UUID requestId) throws DataNotFoundException {
-        logger.info("UseCase: Requested to authorize subscription policy [{}]", requestId);
-        PolicyDTO dto = policyService.setSubscriptionAuthorized(requestId);
-        logger.info("UseCase: Policy [{}] subscription authorized successfully", dto.getId());
+    public PolicyDTO authorizeSubscription(UUID requestId) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException {
+        logger.info("UseCase: Requested to join subscription authorization for policy [{}]", requestId);
+        PolicyDTO dto = policyService.authorizeSubscription(requestId);
+        policyCache.invalidate(requestId);
+        logger.info("UseCase: Policy [{}] subscription authorization joined (status: [{}])", dto.getId(), dto.getStatus());
         return dto;
     }
+
+    @Override
+    public List<PolicyBatchItemResult> confirmPaymentsInBulk(Set<UUID> confirmedIds, Set<UUID> failedIds) {
+        logger.info("UseCase: Requested to join [{}] payment results in bulk", confirmedIds.size() + failedIds.size());
+        List<PolicyBatchItemResult> results = policyService.confirmPaymentsInBulk(confirmedIds, failedIds);
+        results.forEach(result -> policyCache.invalidate(result.getId()));
+        logger.info("UseCase: Bulk payment join of [{}] policies processed ([{}] succeeded)", results.size(),
+                results.stream().filter(PolicyBatchItemResult::isSucceeded).count());
+        return results;
+    }
+
+    @Override
+    public List<PolicyBatchItemResult> authorizeSubscriptionsInBulk(Set<UUID> authorizedIds, Set<UUID> failedIds) {
+        logger.info("UseCase: Requested to join [{}] subscription results in bulk", authorizedIds.size() + failedIds.size());
+        List<PolicyBatchItemResult> results = policyService.authorizeSubscriptionsInBulk(authorizedIds, failedIds);
+        results.forEach(result -> policyCache.invalidate(result.getId()));
+        logger.info("UseCase: Bulk subscription join of [{}] policies processed ([{}] succeeded)", results.size(),
+                results.stream().filter(PolicyBatchItemResult::isSucceeded).count());
+        return results;
+    }
 }
@@ -4,6 +4,9 @@ import com.zagdev.insurances.domain.event.PolicyEvent;
 import com.zagdev.insurances.domain.exceptions.InvalidDataException;
 import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
 
+import java.util.List;
+
 public interface EventPublisher {
     void publish(PolicyEvent event) throws InvalidDataException, UnexpectedErrorException;
+    void publishAll(List<PolicyEvent> events) throws InvalidDataException, UnexpectedErrorException;
 }
@@ -8,4 +8,8 @@ import java.util.UUID;
 public interface FraudApiClient {
 
     RiskClassification getRiskClassification(UUID orderId, UUID customerId) throws InvalidDataException;
+
+    default RiskClassification getRiskClassification(UUID orderId, UUID customerId, UUID productId) throws InvalidDataException {
+        return getRiskClassification(orderId, customerId);
+    }
 }
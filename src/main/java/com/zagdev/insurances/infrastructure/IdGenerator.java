@@ -0,0 +1,7 @@
+package com.zagdev.insurances.infrastructure;
+
+import java.util.UUID;
+
+public interface IdGenerator {
+    UUID next();
+}
@@ -0,0 +1,15 @@
+package com.zagdev.insurances.infrastructure;
+
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.exceptions.ConflictException;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.infrastructure.dto.IdempotencyClaim;
+
+import java.util.UUID;
+
+public interface IdempotencyStore {
+    IdempotencyClaim claim(String key, String fingerprint) throws InvalidDataException, ConflictException;
+    UUID reserve(IdempotencyClaim claim, UUID policyId) throws ConflictException;
+    void complete(IdempotencyClaim claim, PolicyDTO result);
+    void release(IdempotencyClaim claim);
+}
@@ -0,0 +1,19 @@
+package com.zagdev.insurances.infrastructure;
+
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
+
+import java.util.UUID;
+
+public interface PolicyCache {
+    PolicyDTO get(UUID id, Loader loader) throws DataNotFoundException;
+    PolicyDTO getIfPresent(UUID id);
+    void invalidate(UUID id);
+    void invalidateAll();
+    void setCoherent(boolean coherent);
+
+    @FunctionalInterface
+    interface Loader {
+        PolicyDTO load(UUID id) throws DataNotFoundException;
+    }
+}
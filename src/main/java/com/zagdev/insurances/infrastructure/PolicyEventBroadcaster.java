@@ -0,0 +1,13 @@
+package com.zagdev.insurances.infrastructure;
+
+import com.zagdev.insurances.domain.event.PolicyEvent;
+import com.zagdev.insurances.domain.exceptions.ServiceUnavailableException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+public interface PolicyEventBroadcaster {
+    SseEmitter subscribeToPolicy(UUID policyId) throws ServiceUnavailableException;
+    SseEmitter subscribeToCustomer(UUID customerId) throws ServiceUnavailableException;
+    void broadcast(PolicyEvent event);
+}
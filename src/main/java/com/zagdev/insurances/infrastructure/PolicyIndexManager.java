@@ -0,0 +1,11 @@
+package com.zagdev.insurances.infrastructure;
+
+import java.util.List;
+import java.util.Map;
+
+public interface PolicyIndexManager {
+    List<String> declaredIndexes();
+    List<String> ensureIndexes();
+    List<String> findMissingIndexes();
+    Map<String, Map<String, Object>> explainQueries();
+}
@@ -0,0 +1,6 @@
+package com.zagdev.insurances.infrastructure;
+
+public interface ProcessedMessageStore {
+    boolean isProcessed(String key);
+    void markProcessed(String key);
+}
@@ -0,0 +1,8 @@
+package com.zagdev.insurances.infrastructure;
+
+public interface ResultRetryScheduler {
+    String ATTEMPT_HEADER = "x-retry-attempt";
+    String TICKET_HEADER = "x-retry-ticket";
+
+    boolean schedule(String queue, String payload, int attempt, int tier, String ticket);
+}
@@ -0,0 +1,39 @@
+package com.zagdev.insurances.infrastructure.dto;
+
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public class IdempotencyClaim {
+
+    private final String key;
+    private final Instant claimedAt;
+    private final PolicyDTO replay;
+
+    private IdempotencyClaim(String key, Instant claimedAt, PolicyDTO replay) {
+        this.key = key;
+        this.claimedAt = claimedAt;
+        this.replay = replay;
+    }
+
+    public static IdempotencyClaim claimed(String key, Instant claimedAt) {
+        return new IdempotencyClaim(key, claimedAt, null);
+    }
+
+    public static IdempotencyClaim replay(String key, PolicyDTO policy) {
+        return new IdempotencyClaim(key, null, policy);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Instant getClaimedAt() {
+        return claimedAt;
+    }
+
+    public Optional<PolicyDTO> getReplay() {
+        return Optional.ofNullable(replay);
+    }
+}
@@ -0,0 +1,138 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.zagdev.insurances.config.FraudApiProperties;
+import com.zagdev.insurances.domain.enums.RiskClassification;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.infrastructure.FraudApiClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+public class CachingFraudApiClient implements FraudApiClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingFraudApiClient.class);
+
+    static final String CACHE_NAME = "fraud-risk-classification";
+
+    private final FraudApiClient delegate;
+
+    private final boolean keyByProduct;
+
+    private final long refreshAfterNanos;
+
+    private final Ticker ticker;
+
+    private final Executor refreshExecutor;
+
+    private final Cache<CacheKey, CachedClassification> cache;
+
+    private final Set<CacheKey> refreshing = ConcurrentHashMap.newKeySet();
+
+    public CachingFraudApiClient(FraudApiClient delegate, FraudApiProperties.Cache properties, MeterRegistry meterRegistry,
+                                 Executor refreshExecutor) {
+        this(delegate, properties, meterRegistry, Ticker.systemTicker(), refreshExecutor);
+    }
+
+    CachingFraudApiClient(FraudApiClient delegate, FraudApiProperties.Cache properties, MeterRegistry meterRegistry,
+                          Ticker ticker, Executor refreshExecutor) {
+        this.delegate = delegate;
+        this.keyByProduct = properties.isKeyByProduct();
+        this.refreshAfterNanos = properties.getRefreshAfter().toNanos();
+        this.ticker = ticker;
+        this.refreshExecutor = refreshExecutor;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public RiskClassification getRiskClassification(UUID orderId, UUID customerId) throws InvalidDataException {
+        return lookup(orderId, new CacheKey(customerId, null));
+    }
+
+    @Override
+    public RiskClassification getRiskClassification(UUID orderId, UUID customerId, UUID productId) throws InvalidDataException {
+        return lookup(orderId, new CacheKey(customerId, keyByProduct ? productId : null));
+    }
+
+    private RiskClassification lookup(UUID orderId, CacheKey key) throws InvalidDataException {
+        CachedClassification cached;
+        try {
+            cached = cache.get(key, k -> load(orderId, k));
+        } catch (LookupFailedException e) {
+            throw e.getCause();
+        }
+
+        if (ticker.read() - cached.loadedAtNanos() >= refreshAfterNanos) {
+            refreshInBackground(orderId, key);
+        }
+        return cached.classification();
+    }
+
+    private CachedClassification load(UUID orderId, CacheKey key) {
+        logger.info("Fraud cache miss for customerId [{}], productId [{}]", key.customerId(), key.productId());
+        try {
+            return new CachedClassification(delegate.getRiskClassification(orderId, key.customerId()), ticker.read());
+        } catch (InvalidDataException e) {
+            throw new LookupFailedException(e);
+        }
+    }
+
+    private void refreshInBackground(UUID orderId, CacheKey key) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refresh(orderId, key));
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            logger.warn("Fraud cache refresh queue is full, serving stale classification for customerId [{}]", key.customerId());
+        }
+    }
+
+    private void refresh(UUID orderId, CacheKey key) {
+        logger.info("Refreshing cached fraud classification for customerId [{}], productId [{}] with orderId [{}]",
+                key.customerId(), key.productId(), orderId);
+        try {
+            cache.put(key, new CachedClassification(delegate.getRiskClassification(orderId, key.customerId()), ticker.read()));
+        } catch (InvalidDataException | RuntimeException e) {
+            logger.warn("Could not refresh fraud classification for customerId [{}], keeping cached value: {}",
+                    key.customerId(), e.getMessage());
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    private record CacheKey(UUID customerId, UUID productId) {
+    }
+
+    private record CachedClassification(RiskClassification classification, long loadedAtNanos) {
+    }
+
+    private static class LookupFailedException extends RuntimeException {
+
+        LookupFailedException(InvalidDataException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized InvalidDataException getCause() {
+            return (InvalidDataException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
+import com.zagdev.insurances.infrastructure.PolicyCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class CaffeinePolicyCache implements PolicyCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaffeinePolicyCache.class);
+
+    static final String CACHE_NAME = "policy-by-id";
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration fallbackTtl;
+    private final Cache<UUID, PolicyDTO> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private volatile boolean coherent;
+
+    @Autowired
+    public CaffeinePolicyCache(@Value("${policy.cache.enabled:true}") boolean enabled,
+                               @Value("${policy.cache.maximum-size:10000}") long maximumSize,
+                               @Value("${policy.cache.ttl:5m}") Duration ttl,
+                               @Value("${policy.cache.fallback-ttl:2s}") Duration fallbackTtl,
+                               MeterRegistry meterRegistry) {
+        this(enabled, maximumSize, ttl, fallbackTtl, Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    CaffeinePolicyCache(boolean enabled, long maximumSize, Duration ttl, Duration fallbackTtl, Ticker ticker) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.fallbackTtl = fallbackTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new CoherenceAwareExpiry())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public PolicyDTO get(UUID id, Loader loader) throws DataNotFoundException {
+        if (!enabled) {
+            return loader.load(id);
+        }
+
+        PolicyDTO cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long seen = invalidations.get();
+        PolicyDTO loaded = loader.load(id);
+        cache.put(id, loaded);
+        if (invalidations.get() != seen) {
+            cache.invalidate(id);
+        }
+        return loaded;
+    }
+
+    @Override
+    public PolicyDTO getIfPresent(UUID id) {
+        return enabled ? cache.getIfPresent(id) : null;
+    }
+
+    @Override
+    public void invalidate(UUID id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void setCoherent(boolean coherent) {
+        if (this.coherent == coherent) {
+            return;
+        }
+        this.coherent = coherent;
+        invalidateAll();
+        logger.info("Policy cache: Change stream {}, entries expire after [{}]",
+                coherent ? "active" : "unavailable", coherent ? ttl : fallbackTtl);
+    }
+
+    private class CoherenceAwareExpiry implements Expiry<UUID, PolicyDTO> {
+
+        @Override
+        public long expireAfterCreate(UUID key, PolicyDTO value, long currentTime) {
+            return (coherent ? ttl : fallbackTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID key, PolicyDTO value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID key, PolicyDTO value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.domain.enums.RiskClassification;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.infrastructure.FraudApiClient;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.UUID;
+
+public class FallbackFraudApiClient implements FraudApiClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(FallbackFraudApiClient.class);
+
+    private final FraudApiClient delegate;
+
+    private final RiskClassification fallbackClassification;
+
+    public FallbackFraudApiClient(FraudApiClient delegate, RiskClassification fallbackClassification) {
+        this.delegate = delegate;
+        this.fallbackClassification = fallbackClassification;
+    }
+
+    @Override
+    public RiskClassification getRiskClassification(UUID orderId, UUID customerId) throws InvalidDataException {
+        try {
+            return delegate.getRiskClassification(orderId, customerId);
+        } catch (CallNotPermittedException | BulkheadFullException | HttpServerErrorException | ResourceAccessException e) {
+            return fallback(orderId, customerId, e);
+        }
+    }
+
+    @Override
+    public RiskClassification getRiskClassification(UUID orderId, UUID customerId, UUID productId) throws InvalidDataException {
+        try {
+            return delegate.getRiskClassification(orderId, customerId, productId);
+        } catch (CallNotPermittedException | BulkheadFullException | HttpServerErrorException | ResourceAccessException e) {
+            return fallback(orderId, customerId, e);
+        }
+    }
+
+    private RiskClassification fallback(UUID orderId, UUID customerId, RuntimeException e) {
+        logger.warn("Fraud API unavailable for orderId [{}], customerId [{}], falling back to [{}]: {}",
+                orderId, customerId, fallbackClassification, e.getMessage());
+        return fallbackClassification;
+    }
+}
@@ -7,6 +7,7 @@ import com.zagdev.insurances.infrastructure.FraudApiClient;
 import com.zagdev.insurances.infrastructure.dto.FraudAnalysisResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -22,7 +23,7 @@ public class FraudApiClientImpl implements FraudApiClient {
 
     private final RestTemplate restTemplate;
 
-    public FraudApiClientImpl(RestTemplate restTemplate, @Value("${fraud-api.url}") String fraudApiUrl) {
+    public FraudApiClientImpl(@Qualifier("fraudApiRestTemplate") RestTemplate restTemplate, @Value("${fraud-api.url}") String fraudApiUrl) {
         this.restTemplate = restTemplate;
         this.fraudApiUrl = fraudApiUrl;
     }
@@ -0,0 +1,13 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.infrastructure.PolicyLanes;
+
+import java.util.UUID;
+
+public class InlinePolicyLanes implements PolicyLanes {
+
+    @Override
+    public void execute(UUID policyId, Runnable task) {
+        task.run();
+    }
+}
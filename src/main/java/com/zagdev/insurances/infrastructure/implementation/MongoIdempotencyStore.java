@@ -0,0 +1,181 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.entity.IdempotencyRecord;
+import com.zagdev.insurances.domain.exceptions.ConflictException;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.domain.mapper.PolicyMapper;
+import com.zagdev.insurances.infrastructure.IdempotencyStore;
+import com.zagdev.insurances.infrastructure.dto.IdempotencyClaim;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+@Component
+public class MongoIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIdempotencyStore.class);
+
+    static final String CACHE_NAME = "policy-idempotency-keys";
+
+    private static final int CLAIM_ATTEMPTS = 2;
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Clock clock;
+    private final Cache<String, IdempotencyRecord> completed;
+
+    @Autowired
+    public MongoIdempotencyStore(MongoTemplate mongoTemplate,
+                                 @Value("${policy.idempotency.ttl:24h}") Duration ttl,
+                                 @Value("${policy.idempotency.lock-timeout:30s}") Duration lockTimeout,
+                                 @Value("${policy.idempotency.cache-size:10000}") long cacheSize,
+                                 MeterRegistry meterRegistry) {
+        this(mongoTemplate, ttl, lockTimeout, cacheSize, Clock.systemUTC());
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, CACHE_NAME);
+    }
+
+    MongoIdempotencyStore(MongoTemplate mongoTemplate, Duration ttl, Duration lockTimeout, long cacheSize, Clock clock) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.clock = clock;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public IdempotencyClaim claim(String key, String fingerprint) throws InvalidDataException, ConflictException {
+        IdempotencyRecord cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return replay(cached, fingerprint);
+        }
+
+        for (int attempt = 0; attempt < CLAIM_ATTEMPTS; attempt++) {
+            Instant now = clock.instant().truncatedTo(ChronoUnit.MILLIS);
+            try {
+                mongoTemplate.insert(newRecord(key, fingerprint, now));
+                logger.info("Idempotency: Key [{}] claimed", key);
+                return IdempotencyClaim.claimed(key, now);
+            } catch (DuplicateKeyException e) {
+                logger.info("Idempotency: Key [{}] already used, checking previous request", key);
+            }
+
+            IdempotencyRecord existing = mongoTemplate.findById(key, IdempotencyRecord.class);
+            if (existing == null) {
+                continue;
+            }
+            if (existing.isCompleted()) {
+                completed.put(key, existing);
+                return replay(existing, fingerprint);
+            }
+            if (!fingerprint.equals(existing.getFingerprint())) {
+                throw new InvalidDataException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+            }
+            if (existing.getCreatedAt().isBefore(now.minus(lockTimeout)) && takeOver(existing, now)) {
+                logger.warn("Idempotency: Key [{}] was abandoned since [{}], taking it over", key, existing.getCreatedAt());
+                return IdempotencyClaim.claimed(key, now);
+            }
+            throw new ConflictException(ErrorCode.IDEMPOTENCY_KEY_IN_USE);
+        }
+        throw new ConflictException(ErrorCode.IDEMPOTENCY_KEY_IN_USE);
+    }
+
+    @Override
+    public UUID reserve(IdempotencyClaim claim, UUID policyId) throws ConflictException {
+        String key = claim.getKey();
+        mongoTemplate.updateFirst(
+                Query.query(held(claim).and("policyId").exists(false)),
+                new Update().set("policyId", policyId),
+                IdempotencyRecord.class);
+        IdempotencyRecord record = mongoTemplate.findById(key, IdempotencyRecord.class);
+        if (record == null || record.isCompleted() || !claim.getClaimedAt().equals(record.getCreatedAt())
+                || record.getPolicyId() == null) {
+            throw new ConflictException(ErrorCode.IDEMPOTENCY_KEY_IN_USE);
+        }
+        if (!policyId.equals(record.getPolicyId())) {
+            logger.warn("Idempotency: Key [{}] already reserved policy [{}], reusing it", key, record.getPolicyId());
+        }
+        return record.getPolicyId();
+    }
+
+    @Override
+    public void complete(IdempotencyClaim claim, PolicyDTO result) {
+        String key = claim.getKey();
+        IdempotencyRecord record = mongoTemplate.findAndModify(
+                Query.query(held(claim)),
+                new Update().set("completed", true).set("policy", PolicyMapper.toDocument(result)),
+                IdempotencyRecord.class);
+        if (record == null) {
+            logger.warn("Idempotency: Key [{}] was no longer held by this request when completing policy [{}]", key, result.getId());
+            return;
+        }
+        record.setCompleted(true);
+        record.setPolicy(PolicyMapper.toDocument(result));
+        completed.put(key, record);
+        logger.info("Idempotency: Key [{}] completed with policy [{}]", key, result.getId());
+    }
+
+    @Override
+    public void release(IdempotencyClaim claim) {
+        long removed = mongoTemplate.remove(Query.query(held(claim)), IdempotencyRecord.class).getDeletedCount();
+        if (removed == 0) {
+            logger.warn("Idempotency: Key [{}] was no longer held by this request, leaving it in place", claim.getKey());
+            return;
+        }
+        logger.info("Idempotency: Key [{}] released", claim.getKey());
+    }
+
+    private static Criteria held(IdempotencyClaim claim) {
+        return Criteria.where("_id").is(claim.getKey())
+                .and("completed").is(false)
+                .and("createdAt").is(claim.getClaimedAt());
+    }
+
+    private boolean takeOver(IdempotencyRecord existing, Instant now) {
+        Query abandoned = Query.query(Criteria.where("_id").is(existing.getId())
+                .and("completed").is(false)
+                .and("createdAt").is(existing.getCreatedAt()));
+        Update update = new Update().set("createdAt", now).set("expiresAt", now.plus(ttl));
+        return mongoTemplate.updateFirst(abandoned, update, IdempotencyRecord.class).getModifiedCount() == 1;
+    }
+
+    private IdempotencyRecord newRecord(String key, String fingerprint, Instant now) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(key);
+        record.setFingerprint(fingerprint);
+        record.setCreatedAt(now);
+        record.setExpiresAt(now.plus(ttl));
+        return record;
+    }
+
+    private static IdempotencyClaim replay(IdempotencyRecord record, String fingerprint) throws InvalidDataException {
+        if (!fingerprint.equals(record.getFingerprint())) {
+            throw new InvalidDataException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+        }
+        logger.info("Idempotency: Replaying policy [{}] for key [{}]", record.getPolicy().getId(), record.getId());
+        return IdempotencyClaim.replay(record.getId(), PolicyMapper.toDomain(record.getPolicy()));
+    }
+}
@@ -0,0 +1,180 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.mongodb.ExplainVerbosity;
+import com.zagdev.insurances.domain.dto.PolicyCursor;
+import com.zagdev.insurances.domain.entity.IdempotencyRecord;
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.entity.PolicyHistoryBucket;
+import com.zagdev.insurances.domain.entity.ProcessedMessage;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.repositories.implementation.PolicyOutboxRepositoryImpl;
+import com.zagdev.insurances.domain.repositories.implementation.PolicyQueryRepositoryImpl;
+import com.zagdev.insurances.infrastructure.PolicyIndexManager;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Component
+public class MongoPolicyIndexManager implements PolicyIndexManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoPolicyIndexManager.class);
+
+    static final Map<Class<?>, List<Index>> INDEXES = Map.of(
+            Policy.class, List.of(
+                    new Index().on("customerId", Sort.Direction.ASC).on("createdAt", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                            .named("customerId_createdAt_id"),
+                    new Index().on("status", Sort.Direction.ASC).on("createdAt", Sort.Direction.ASC)
+                            .named("status_createdAt"),
+                    new Index().on("outbox.occurredAt", Sort.Direction.ASC).sparse()
+                            .named("outbox_occurredAt"),
+                    new Index().on("outboxClaimedBy", Sort.Direction.ASC).sparse()
+                            .named("outboxClaimedBy")),
+            PolicyHistoryBucket.class, List.of(
+                    new Index().on("policyId", Sort.Direction.ASC).on("firstAt", Sort.Direction.ASC)
+                            .named("policyId_firstAt")),
+            IdempotencyRecord.class, List.of(
+                    new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO)
+                            .named("expiresAt_ttl")),
+            ProcessedMessage.class, List.of(
+                    new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO)
+                            .named("processed_expiresAt_ttl")));
+
+    private static final List<Class<?>> COLLECTIONS = List.of(Policy.class, PolicyHistoryBucket.class, IdempotencyRecord.class,
+            ProcessedMessage.class);
+
+    private static final int SAMPLE_LIMIT = 100;
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoPolicyIndexManager(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<String> declaredIndexes() {
+        return COLLECTIONS.stream()
+                .flatMap(entity -> INDEXES.get(entity).stream())
+                .map(MongoPolicyIndexManager::nameOf)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> ensureIndexes() {
+        List<String> created = new ArrayList<>();
+        for (Class<?> entity : COLLECTIONS) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            for (Index index : INDEXES.get(entity)) {
+                logger.info("Index manager: Ensuring index [{}] on [{}]", nameOf(index), index.getIndexKeys().toJson());
+                created.add(indexOps.createIndex(index));
+            }
+        }
+        return created;
+    }
+
+    @Override
+    public List<String> findMissingIndexes() {
+        List<String> missing = new ArrayList<>();
+        for (Class<?> entity : COLLECTIONS) {
+            List<List<String>> existing = mongoTemplate.indexOps(entity).getIndexInfo().stream()
+                    .map(MongoPolicyIndexManager::keysOf)
+                    .collect(Collectors.toList());
+            INDEXES.get(entity).stream()
+                    .filter(index -> !existing.contains(keysOf(index)))
+                    .map(MongoPolicyIndexManager::nameOf)
+                    .forEach(missing::add);
+        }
+        return missing;
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> explainQueries() {
+        UUID sample = UUID.randomUUID();
+        Map<String, Query> queries = new LinkedHashMap<>();
+        queries.put("findByCustomerId", Query.query(Criteria.where("customerId").is(sample)));
+        queries.put("findByCustomerIdAfter", PolicyQueryRepositoryImpl.keysetQuery(sample, new PolicyCursor(Instant.now(), sample))
+                .limit(SAMPLE_LIMIT));
+        queries.put("claimPendingOutbox", PolicyOutboxRepositoryImpl.pendingOutboxQuery(Instant.now(), SAMPLE_LIMIT));
+        queries.put("findByStatusOrderByCreatedAt", Query.query(Criteria.where("status").is(PolicyStatus.PENDING))
+                .with(Sort.by("createdAt")).limit(SAMPLE_LIMIT));
+
+        Map<String, Map<String, Object>> plans = new LinkedHashMap<>();
+        queries.forEach((name, query) -> plans.put(name, summarize(explain(query))));
+        return plans;
+    }
+
+    private Document explain(Query query) {
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getPersistentEntity(Policy.class);
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Policy.class))
+                .find(mapper.getMappedObject(query.getQueryObject(), entity))
+                .projection(mapper.getMappedFields(query.getFieldsObject(), entity))
+                .sort(mapper.getMappedSort(query.getSortObject(), entity))
+                .limit(query.getLimit())
+                .explain(ExplainVerbosity.QUERY_PLANNER);
+    }
+
+    static Map<String, Object> summarize(Document explain) {
+        Document plan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        if (plan.containsKey("queryPlan")) {
+            plan = plan.get("queryPlan", Document.class);
+        }
+
+        List<String> stages = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        collectStages(plan, stages, indexes);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("stages", stages);
+        summary.put("indexes", indexes);
+        summary.put("collectionScan", stages.contains("COLLSCAN"));
+        return summary;
+    }
+
+    private static void collectStages(Document stage, List<String> stages, List<String> indexes) {
+        stages.add(stage.getString("stage"));
+        if (stage.containsKey("indexName")) {
+            indexes.add(stage.getString("indexName"));
+        }
+        if (stage.containsKey("inputStage")) {
+            collectStages(stage.get("inputStage", Document.class), stages, indexes);
+        }
+        for (Document input : stage.getList("inputStages", Document.class, List.of())) {
+            collectStages(input, stages, indexes);
+        }
+    }
+
+    private static String nameOf(Index index) {
+        return index.getIndexOptions().getString("name");
+    }
+
+    private static List<String> keysOf(Index index) {
+        return index.getIndexKeys().entrySet().stream()
+                .map(key -> key.getKey() + ":" + (((Number) key.getValue()).intValue() < 0 ? Sort.Direction.DESC : Sort.Direction.ASC))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> keysOf(IndexInfo info) {
+        return info.getIndexFields().stream()
+                .map(field -> field.getKey() + ":" + field.getDirection())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,104 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zagdev.insurances.config.ListenerProperties;
+import com.zagdev.insurances.domain.entity.ProcessedMessage;
+import com.zagdev.insurances.infrastructure.ProcessedMessageStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+public class MongoProcessedMessageStore implements ProcessedMessageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoProcessedMessageStore.class);
+
+    static final String CACHE_NAME = "policy-processed-messages";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Cache<String, Boolean> recent;
+    private final Counter duplicates;
+
+    public MongoProcessedMessageStore(MongoTemplate mongoTemplate, ListenerProperties.Dedupe properties, MeterRegistry meterRegistry) {
+        this(mongoTemplate, properties.isEnabled(), properties.getTtl(), properties.getCacheSize(), Clock.systemUTC(), meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, recent, CACHE_NAME);
+    }
+
+    MongoProcessedMessageStore(MongoTemplate mongoTemplate, boolean enabled, Duration ttl, long cacheSize, Clock clock,
+                               MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.duplicates = Counter.builder("policy.processed-messages.duplicates")
+                .description("Redelivered or republished results dropped before reaching the domain")
+                .register(meterRegistry);
+    }
+
+    boolean isRecentlyProcessed(String key) {
+        if (!enabled || recent.getIfPresent(key) == null) {
+            return false;
+        }
+        duplicates.increment();
+        return true;
+    }
+
+    @Override
+    public boolean isProcessed(String key) {
+        if (!enabled) {
+            return false;
+        }
+        if (isRecentlyProcessed(key)) {
+            return true;
+        }
+
+        try {
+            if (!mongoTemplate.exists(Query.query(Criteria.where("_id").is(key)), ProcessedMessage.class)) {
+                return false;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Dedupe: Could not check processed message [{}], processing it again: {}", key, e.getMessage());
+            return false;
+        }
+
+        recent.put(key, Boolean.TRUE);
+        duplicates.increment();
+        return true;
+    }
+
+    @Override
+    public void markProcessed(String key) {
+        if (!enabled) {
+            return;
+        }
+
+        recent.put(key, Boolean.TRUE);
+        Instant now = clock.instant();
+        ProcessedMessage message = new ProcessedMessage();
+        message.setId(key);
+        message.setProcessedAt(now);
+        message.setExpiresAt(now.plus(ttl));
+        try {
+            mongoTemplate.save(message);
+        } catch (RuntimeException e) {
+            logger.warn("Dedupe: Could not record processed message [{}]: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.infrastructure.PolicyCache;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.UUID;
+
+@Component
+public class PolicyChangeStreamInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolicyChangeStreamInvalidator.class);
+
+    private final MessageListenerContainer container;
+    private final PolicyCache policyCache;
+    private final String collectionName;
+    private final boolean enabled;
+
+    private volatile Subscription subscription;
+
+    @Autowired
+    public PolicyChangeStreamInvalidator(MongoTemplate mongoTemplate, PolicyCache policyCache,
+                                         @Value("${policy.cache.change-stream.enabled:true}") boolean enabled) {
+        this(new DefaultMessageListenerContainer(mongoTemplate), policyCache, mongoTemplate.getCollectionName(Policy.class), enabled);
+    }
+
+    PolicyChangeStreamInvalidator(MessageListenerContainer container, PolicyCache policyCache, String collectionName, boolean enabled) {
+        this.container = container;
+        this.policyCache = policyCache;
+        this.collectionName = collectionName;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Policy cache: Change stream disabled, using fallback TTL");
+            return;
+        }
+        container.start();
+        subscribe();
+    }
+
+    @Scheduled(fixedDelayString = "${policy.cache.change-stream.check-interval-ms:10000}")
+    public void checkSubscription() {
+        Subscription current = subscription;
+        if (current == null) {
+            return;
+        }
+        boolean active = current.isActive();
+        policyCache.setCoherent(active);
+        if (!active) {
+            logger.warn("Policy cache: Change stream on [{}] is not active, resubscribing", collectionName);
+            container.remove(current);
+            subscribe();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        policyCache.setCoherent(false);
+        if (container.isRunning()) {
+            container.stop();
+        }
+    }
+
+    private void subscribe() {
+        ChangeStreamRequest<Document> request = ChangeStreamRequest.builder(this::onChange)
+                .collection(collectionName)
+                .filter(Aggregation.newAggregation(Aggregation.match(
+                        Criteria.where("operationType").in("update", "replace", "delete"))))
+                .build();
+        subscription = container.register(request, Document.class, this::onError);
+    }
+
+    void onChange(Message<ChangeStreamDocument<Document>, Document> message) {
+        BsonDocument key = message.getRaw().getDocumentKey();
+        UUID id = key == null ? null : toUuid(key.get("_id"));
+        if (id == null) {
+            policyCache.invalidateAll();
+            return;
+        }
+        policyCache.invalidate(id);
+    }
+
+    void onError(Throwable error) {
+        logger.warn("Policy cache: Change stream on [{}] failed, falling back to short TTL: {}", collectionName, error.getMessage());
+        policyCache.setCoherent(false);
+    }
+
+    static UUID toUuid(BsonValue value) {
+        if (value == null || !value.isBinary()) {
+            return null;
+        }
+        BsonBinary binary = value.asBinary();
+        if (binary.getType() == BsonBinarySubType.UUID_STANDARD.getValue()) {
+            return binary.asUuid(UuidRepresentation.STANDARD);
+        }
+        if (binary.getType() == BsonBinarySubType.UUID_LEGACY.getValue()) {
+            return binary.asUuid(UuidRepresentation.JAVA_LEGACY);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.infrastructure.PolicyIndexManager;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@JmxEndpoint(id = "policyindexes")
+public class PolicyIndexEndpoint {
+
+    private final PolicyIndexManager indexManager;
+
+    public PolicyIndexEndpoint(PolicyIndexManager indexManager) {
+        this.indexManager = indexManager;
+    }
+
+    @ReadOperation
+    public Map<String, Object> indexes() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("declared", indexManager.declaredIndexes());
+        report.put("missing", indexManager.findMissingIndexes());
+        report.put("plans", indexManager.explainQueries());
+        return report;
+    }
+}
@@ -0,0 +1,67 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.infrastructure.PolicyIndexManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class PolicyIndexInitializer implements ApplicationRunner {
+
+    public enum Mode {
+        CREATE,
+        VERIFY,
+        NONE
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(PolicyIndexInitializer.class);
+
+    private final PolicyIndexManager indexManager;
+    private final Mode mode;
+    private final boolean failOnMissing;
+
+    public PolicyIndexInitializer(PolicyIndexManager indexManager,
+                                  @Value("${policy.indexes.mode:CREATE}") Mode mode,
+                                  @Value("${policy.indexes.fail-on-missing:false}") boolean failOnMissing) {
+        this.indexManager = indexManager;
+        this.mode = mode;
+        this.failOnMissing = failOnMissing;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (mode == Mode.NONE) {
+            logger.info("Index manager: Startup index check disabled");
+            return;
+        }
+
+        List<String> missing;
+        try {
+            if (mode == Mode.CREATE) {
+                indexManager.ensureIndexes();
+            }
+            missing = indexManager.findMissingIndexes();
+        } catch (DataAccessException e) {
+            logger.error("Index manager: Could not check policy indexes: {}", e.getMessage());
+            if (failOnMissing) {
+                throw e;
+            }
+            return;
+        }
+
+        if (missing.isEmpty()) {
+            logger.info("Index manager: All declared policy indexes present {}", indexManager.declaredIndexes());
+            return;
+        }
+        logger.error("Index manager: Missing policy indexes {}", missing);
+        if (failOnMissing) {
+            throw new IllegalStateException("Missing policy indexes " + missing);
+        }
+    }
+}
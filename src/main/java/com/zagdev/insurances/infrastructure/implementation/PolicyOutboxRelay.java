@@ -0,0 +1,107 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.event.PolicyEvent;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
+import com.zagdev.insurances.domain.mapper.PolicyMapper;
+import com.zagdev.insurances.domain.repositories.PolicyMongoRepository;
+import com.zagdev.insurances.infrastructure.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class PolicyOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolicyOutboxRelay.class);
+
+    private final PolicyMongoRepository repository;
+    private final EventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration lease;
+    private final String nodeId;
+
+    public PolicyOutboxRelay(PolicyMongoRepository repository, EventPublisher eventPublisher,
+                             @Value("${outbox.relay.batch-size:500}") int batchSize,
+                             @Value("${outbox.relay.max-batches-per-run:10}") int maxBatchesPerRun,
+                             @Value("${outbox.relay.lease:30s}") Duration lease,
+                             @Value("${outbox.relay.node-id:${HOSTNAME:}}") String nodeId) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.lease = lease;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (relayBatch() < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Outbox relay: Failed to drain outbox, will retry on next run: {}", e.getMessage());
+        }
+    }
+
+    int relayBatch() throws InvalidDataException, UnexpectedErrorException {
+        Instant now = Instant.now();
+        String claimToken = nodeId + ":" + UUID.randomUUID();
+        List<Policy> claimed = repository.claimPendingOutbox(claimToken, now, now.plus(lease), batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<PolicyEvent> events = new ArrayList<>();
+        Map<UUID, List<UUID>> published = new LinkedHashMap<>();
+        Map<UUID, List<Policy.StatusHistory>> history = new LinkedHashMap<>();
+        Instant oldest = now;
+
+        for (Policy policy : claimed) {
+            for (Policy.OutboxEvent outboxEvent : policy.getOutbox()) {
+                events.add(PolicyMapper.toEvent(policy, outboxEvent));
+                published.computeIfAbsent(policy.getId(), id -> new ArrayList<>()).add(outboxEvent.getEventId());
+                history.computeIfAbsent(policy.getId(), id -> new ArrayList<>()).add(PolicyMapper.toStatusHistory(outboxEvent));
+                if (outboxEvent.getOccurredAt() != null && outboxEvent.getOccurredAt().isBefore(oldest)) {
+                    oldest = outboxEvent.getOccurredAt();
+                }
+            }
+        }
+
+        try {
+            eventPublisher.publishAll(events);
+        } catch (InvalidDataException | UnexpectedErrorException | RuntimeException e) {
+            release(claimToken);
+            throw e;
+        }
+        repository.archiveHistory(history);
+        repository.acknowledgeOutbox(claimToken, published);
+
+        logger.info("Outbox relay: Published [{}] events from [{}] claimed policies (oldest lag [{}] ms)",
+                events.size(), claimed.size(), Duration.between(oldest, now).toMillis());
+        return claimed.size();
+    }
+
+    private void release(String claimToken) {
+        try {
+            repository.releaseOutboxClaim(claimToken);
+        } catch (RuntimeException e) {
+            logger.warn("Outbox relay: Could not release claim [{}], it will expire after [{}]: {}", claimToken, lease, e.getMessage());
+        }
+    }
+}
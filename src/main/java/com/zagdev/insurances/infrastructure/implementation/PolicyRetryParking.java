@@ -0,0 +1,63 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+class PolicyRetryParking {
+
+    private final Map<UUID, Parked> parked = new ConcurrentHashMap<>();
+
+    boolean mustWait(UUID policyId, String ticket) {
+        Parked entry = parked.get(policyId);
+        String head = entry == null ? null : entry.waiting.peekFirst();
+        return head != null && !head.equals(ticket);
+    }
+
+    String enqueue(UUID policyId, String ticket) {
+        String assigned = ticket == null ? UUID.randomUUID().toString() : ticket;
+        parked.compute(policyId, (id, entry) -> {
+            Parked current = entry == null ? new Parked() : entry;
+            if (!current.waiting.contains(assigned)) {
+                current.waiting.addLast(assigned);
+            }
+            return current;
+        });
+        return assigned;
+    }
+
+    String hold(UUID policyId, String ticket, int tier) {
+        String assigned = ticket == null ? UUID.randomUUID().toString() : ticket;
+        parked.compute(policyId, (id, entry) -> {
+            Parked current = entry == null ? new Parked() : entry;
+            if (!current.waiting.contains(assigned)) {
+                current.waiting.addFirst(assigned);
+            }
+            current.tier = tier;
+            return current;
+        });
+        return assigned;
+    }
+
+    int tierOf(UUID policyId) {
+        Parked entry = parked.get(policyId);
+        return entry == null ? 1 : Math.max(1, entry.tier);
+    }
+
+    void release(UUID policyId, String ticket) {
+        if (ticket == null) {
+            return;
+        }
+        parked.computeIfPresent(policyId, (id, entry) -> {
+            entry.waiting.remove(ticket);
+            return entry.waiting.isEmpty() ? null : entry;
+        });
+    }
+
+    private static class Parked {
+        private final Deque<String> waiting = new ConcurrentLinkedDeque<>();
+        private volatile int tier;
+    }
+}
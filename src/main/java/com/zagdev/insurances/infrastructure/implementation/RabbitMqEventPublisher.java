@@ -10,8 +10,12 @@ import com.zagdev.insurances.infrastructure.EventPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class RabbitMqEventPublisher implements EventPublisher {
 
@@ -19,10 +23,13 @@ public class RabbitMqEventPublisher implements EventPublisher {
 
     private final RabbitTemplate rabbitTemplate;
     private final ObjectMapper objectMapper;
+    private final long confirmTimeoutMillis;
 
-    public RabbitMqEventPublisher(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper) {
+    public RabbitMqEventPublisher(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper,
+                                  @Value("${outbox.relay.confirm-timeout-ms:5000}") long confirmTimeoutMillis) {
         this.rabbitTemplate = rabbitTemplate;
         this.objectMapper = objectMapper;
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
     }
 
     @Override
@@ -42,4 +49,31 @@ public class RabbitMqEventPublisher implements EventPublisher {
             throw new UnexpectedErrorException(ErrorCode.UNEXPECTED_ERROR, e);
         }
     }
+
+    @Override
+    public void publishAll(List<PolicyEvent> events) throws InvalidDataException, UnexpectedErrorException {
+        List<String> payloads = new ArrayList<>(events.size());
+        for (PolicyEvent event : events) {
+            try {
+                payloads.add(objectMapper.writeValueAsString(event));
+            } catch (JsonProcessingException e) {
+                logger.error("Publisher: Error serializing event for policy [{}]: {}", event.getPolicyId(), e.getMessage(), e);
+                throw new InvalidDataException(ErrorCode.INVALID_DATA, e);
+            }
+        }
+
+        try {
+            logger.info("Publisher: Publishing batch of [{}] events to exchange [{}] with routingKey [{}]",
+                    payloads.size(), "policy-exchange", "policy.status.changed");
+            rabbitTemplate.invoke(operations -> {
+                payloads.forEach(payload -> operations.convertAndSend("policy-exchange", "policy.status.changed", payload));
+                operations.waitForConfirmsOrDie(confirmTimeoutMillis);
+                return null;
+            });
+            logger.info("Publisher: Batch of [{}] events confirmed by broker", payloads.size());
+        } catch (Exception e) {
+            logger.error("Publisher: Error publishing batch of [{}] events: {}", payloads.size(), e.getMessage(), e);
+            throw new UnexpectedErrorException(ErrorCode.UNEXPECTED_ERROR, e);
+        }
+    }
 }
@@ -0,0 +1,148 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import com.zagdev.insurances.domain.dto.PolicyBatchItemResult;
+import com.zagdev.insurances.domain.usecases.PolicyUseCase;
+import com.zagdev.insurances.infrastructure.ProcessedMessageStore;
+import com.zagdev.insurances.infrastructure.ResultRetryScheduler;
+import com.zagdev.insurances.infrastructure.dto.MessageResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+@Component
+@ConditionalOnProperty(name = "policy.listeners.batch.enabled", havingValue = "true")
+public class RabbitMqPaymentBatchListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RabbitMqPaymentBatchListener.class);
+
+    private final PolicyUseCase policyUseCase;
+    private final ObjectMapper objectMapper;
+    private final ProcessedMessageStore processedMessageStore;
+    private final ResultRetryScheduler resultRetryScheduler;
+
+    public RabbitMqPaymentBatchListener(PolicyUseCase policyUseCase, ObjectMapper objectMapper,
+                                        ProcessedMessageStore processedMessageStore, ResultRetryScheduler resultRetryScheduler) {
+        this.policyUseCase = policyUseCase;
+        this.objectMapper = objectMapper;
+        this.processedMessageStore = processedMessageStore;
+        this.resultRetryScheduler = resultRetryScheduler;
+    }
+
+    @RabbitListener(queues = "payment-result-queue", containerFactory = "paymentResultContainerFactory")
+    public void handlePaymentResults(List<Message> messages, Channel channel) throws IOException {
+        consume("payment-result-queue", messages, channel, policyUseCase::confirmPaymentsInBulk);
+    }
+
+    @RabbitListener(queues = "subscription-result-queue", containerFactory = "subscriptionResultContainerFactory")
+    public void handleSubscriptionResults(List<Message> messages, Channel channel) throws IOException {
+        consume("subscription-result-queue", messages, channel, policyUseCase::authorizeSubscriptionsInBulk);
+    }
+
+    private void consume(String queue, List<Message> messages, Channel channel,
+                         BiFunction<Set<UUID>, Set<UUID>, List<PolicyBatchItemResult>> settle) throws IOException {
+        logger.info("RabbitMQ Listener: Received batch of [{}] messages from '{}'", messages.size(), queue);
+
+        Set<UUID> succeeded = new LinkedHashSet<>();
+        Set<UUID> failed = new LinkedHashSet<>();
+        Map<UUID, List<Message>> deliveries = new HashMap<>();
+        Map<UUID, Set<String>> dedupeKeys = new HashMap<>();
+        Set<Long> rejected = new HashSet<>();
+        int duplicates = 0;
+
+        for (Message message : messages) {
+            long deliveryTag = message.getMessageProperties().getDeliveryTag();
+            try {
+                MessageResult result = objectMapper.readValue(payloadOf(message), MessageResult.class);
+                String dedupeKey = RabbitMqPaymentListener.dedupeKey(queue, result);
+                if (processedMessageStore.isProcessed(dedupeKey)) {
+                    logger.info("RabbitMQ Listener: Dropping duplicate result for policy [{}] from '{}'.", result.getPolicyId(), queue);
+                    duplicates++;
+                    continue;
+                }
+                (result.isSuccess() ? succeeded : failed).add(result.getPolicyId());
+                deliveries.computeIfAbsent(result.getPolicyId(), id -> new ArrayList<>()).add(message);
+                dedupeKeys.computeIfAbsent(result.getPolicyId(), id -> new LinkedHashSet<>()).add(dedupeKey);
+            } catch (JsonProcessingException e) {
+                logger.error("RabbitMQ Listener: Rejecting unreadable message [{}] from '{}': {}", deliveryTag, queue, e.getMessage());
+                rejected.add(deliveryTag);
+            }
+        }
+
+        Set<UUID> retried = new LinkedHashSet<>();
+        if (!deliveries.isEmpty()) {
+            try {
+                for (PolicyBatchItemResult result : settle.apply(succeeded, failed)) {
+                    if (!result.isSucceeded()) {
+                        logger.warn("RabbitMQ Listener: Settling result for policy [{}] from '{}' failed, scheduling a retry: {}",
+                                result.getId(), queue, result.getError());
+                        retried.add(result.getId());
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.warn("RabbitMQ Listener: Settling batch of [{}] policies from '{}' failed, scheduling retries: {}",
+                        deliveries.size(), queue, e.getMessage());
+                retried.addAll(deliveries.keySet());
+            }
+        }
+
+        for (UUID policyId : retried) {
+            for (Message message : deliveries.get(policyId)) {
+                if (!retry(queue, message)) {
+                    logger.error("RabbitMQ Listener: Retries exhausted for policy [{}] from '{}', rejecting to the dead letter queue",
+                            policyId, queue);
+                    rejected.add(message.getMessageProperties().getDeliveryTag());
+                }
+            }
+        }
+
+        dedupeKeys.forEach((policyId, keys) -> {
+            if (!retried.contains(policyId)) {
+                keys.forEach(processedMessageStore::markProcessed);
+            }
+        });
+
+        long lastAcked = -1;
+        for (Message message : messages) {
+            long deliveryTag = message.getMessageProperties().getDeliveryTag();
+            if (rejected.contains(deliveryTag)) {
+                channel.basicReject(deliveryTag, false);
+            } else {
+                lastAcked = Math.max(lastAcked, deliveryTag);
+            }
+        }
+        if (lastAcked >= 0) {
+            channel.basicAck(lastAcked, true);
+        }
+
+        logger.info("RabbitMQ Listener: Batch from '{}' processed, [{}] policies settled, [{}] retried, [{}] duplicates dropped and [{}] messages rejected",
+                queue, deliveries.size() - retried.size(), retried.size(), duplicates, rejected.size());
+    }
+
+    private boolean retry(String queue, Message message) {
+        Integer attempt = message.getMessageProperties().getHeader(ResultRetryScheduler.ATTEMPT_HEADER);
+        int next = (attempt == null ? 0 : attempt) + 1;
+        return resultRetryScheduler.schedule(queue, payloadOf(message), next, next, null);
+    }
+
+    private static String payloadOf(Message message) {
+        return new String(message.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -2,71 +2,194 @@ package com.zagdev.insurances.infrastructure.implementation;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
 import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
 import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
 import com.zagdev.insurances.domain.exceptions.InvalidDataException;
 import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
 import com.zagdev.insurances.domain.usecases.PolicyUseCase;
+import com.zagdev.insurances.infrastructure.PolicyLanes;
+import com.zagdev.insurances.infrastructure.ProcessedMessageStore;
+import com.zagdev.insurances.infrastructure.ResultRetryScheduler;
 import com.zagdev.insurances.infrastructure.dto.MessageResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.UUID;
+
 @Component
+@ConditionalOnProperty(name = "policy.listeners.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class RabbitMqPaymentListener {
 
     private static final Logger logger = LoggerFactory.getLogger(RabbitMqPaymentListener.class);
 
     private final PolicyUseCase policyUseCase;
     private final ObjectMapper objectMapper;
+    private final PolicyLanes policyLanes;
+    private final ProcessedMessageStore processedMessageStore;
+    private final ResultRetryScheduler resultRetryScheduler;
+    private final PolicyRetryParking parking = new PolicyRetryParking();
 
-    public RabbitMqPaymentListener(PolicyUseCase policyUseCase, ObjectMapper objectMapper) {
+    public RabbitMqPaymentListener(PolicyUseCase policyUseCase, ObjectMapper objectMapper, PolicyLanes policyLanes,
+                                   ProcessedMessageStore processedMessageStore, ResultRetryScheduler resultRetryScheduler) {
         this.policyUseCase = policyUseCase;
         this.objectMapper = objectMapper;
+        this.policyLanes = policyLanes;
+        this.processedMessageStore = processedMessageStore;
+        this.resultRetryScheduler = resultRetryScheduler;
     }
 
-    @RabbitListener(queues = "payment-result-queue")
-    public void handlePaymentResult(String payload) throws JsonProcessingException, DataNotFoundException, InvalidDataException, UnexpectedErrorException {
-        logger.info("RabbitMQ Listener: Received message from 'payment-result-queue': [{}]", payload);
+    @RabbitListener(queues = "payment-result-queue", containerFactory = "paymentResultContainerFactory")
+    public void handlePaymentResult(String payload, Channel channel, @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
+                                    @Header(name = ResultRetryScheduler.ATTEMPT_HEADER, required = false) Integer attempt,
+                                    @Header(name = ResultRetryScheduler.TICKET_HEADER, required = false) String ticket)
+            throws IOException {
+        consume("payment-result-queue", payload, channel, new Delivery(deliveryTag, attempt, ticket), result -> {
+            if (result.isSuccess()) {
+                logger.info("RabbitMQ Listener: Payment success for policy [{}]. Approving policy.", result.getPolicyId());
+                PolicyDTO policy = policyUseCase.confirmPayment(result.getPolicyId());
+                logJoinResult(policy);
+            } else {
+                logger.info("RabbitMQ Listener: Payment failed for policy [{}]. Rejecting policy.", result.getPolicyId());
+                policyUseCase.reject(result.getPolicyId());
+            }
+        });
+    }
 
-        MessageResult result = objectMapper.readValue(payload, MessageResult.class);
+    @RabbitListener(queues = "subscription-result-queue", containerFactory = "subscriptionResultContainerFactory")
+    public void handleSubscriptionResult(String payload, Channel channel, @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
+                                              @Header(name = ResultRetryScheduler.ATTEMPT_HEADER, required = false) Integer attempt,
+                                         @Header(name = ResultRetryScheduler.TICKET_HEADER, required = false) String ticket)
+            throws IOException {
+        consume("subscription-result-queue", payload, channel, new Delivery(deliveryTag, attempt, ticket), result -> {
+            if (result.isSuccess()) {
+                logger.info("RabbitMQ Listener: Subscription approved for policy [{}].", result.getPolicyId());
+                PolicyDTO policy = policyUseCase.authorizeSubscription(result.getPolicyId());
+                logJoinResult(policy);
+            } else {
+                logger.info("RabbitMQ Listener: Subscription failed for policy [{}]. Rejecting policy.", result.getPolicyId());
+                policyUseCase.reject(result.getPolicyId());
+            }
+        });
+    }
 
-        if (result.isSuccess()) {
-            logger.info("RabbitMQ Listener: Payment success for policy [{}]. Approving policy.", result.getPolicyId());
-            PolicyDTO policy = policyUseCase.setPaymentConfirmed(result.getPolicyId());
+    private void consume(String queue, String payload, Channel channel, Delivery delivery, ResultHandler handler)
+            throws IOException {
+        logger.info("RabbitMQ Listener: Received message from '{}': [{}]", queue, payload);
 
-            if (policy.getSubscriptionAuthorized()) {
-                policyUseCase.approve(result.getPolicyId());
-                logger.info("RabbitMQ Listener: Policy [{}] approved (payment + subscription).", result.getPolicyId());
-            }
-        } else {
-            logger.info("RabbitMQ Listener: Payment failed for policy [{}]. Rejecting policy.", result.getPolicyId());
-            policyUseCase.reject(result.getPolicyId());
+        MessageResult result;
+        try {
+            result = objectMapper.readValue(payload, MessageResult.class);
+        } catch (JsonProcessingException e) {
+            logger.error("RabbitMQ Listener: Rejecting unreadable message [{}] from '{}': {}", delivery.tag(), queue, e.getMessage());
+            channel.basicReject(delivery.tag(), false);
+            return;
         }
 
-        logger.info("RabbitMQ Listener: Policy [{}] processed successfully.", result.getPolicyId());
+        policyLanes.execute(result.getPolicyId(), () -> settle(queue, payload, result, channel, delivery, handler));
     }
 
-    @RabbitListener(queues = "subscription-result-queue")
-    public void handleSubscriptionResult(String payload) throws JsonProcessingException, DataNotFoundException, InvalidDataException, UnexpectedErrorException {
-        logger.info("RabbitMQ Listener: Received message from 'subscription-result-queue': [{}]", payload);
+    private void settle(String queue, String payload, MessageResult result, Channel channel, Delivery delivery,
+                        ResultHandler handler) {
+        UUID policyId = result.getPolicyId();
+        boolean ack;
+        if (parking.mustWait(policyId, delivery.ticket())) {
+            ack = park(queue, payload, policyId, delivery);
+        } else if (processedMessageStore.isProcessed(dedupeKey(queue, result))) {
+            logger.info("RabbitMQ Listener: Dropping duplicate result for policy [{}] from '{}'.", policyId, queue);
+            parking.release(policyId, delivery.ticket());
+            ack = true;
+        } else {
+            ack = apply(queue, payload, result, delivery, handler);
+        }
 
-        MessageResult result = objectMapper.readValue(payload, MessageResult.class);
+        try {
+            if (ack) {
+                channel.basicAck(delivery.tag(), false);
+            } else {
+                channel.basicReject(delivery.tag(), false);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("RabbitMQ Listener: Could not settle message [{}] from '{}', it will be redelivered", delivery.tag(), queue, e);
+        }
+    }
 
-        if (result.isSuccess()) {
-            logger.info("RabbitMQ Listener: Subscription approved for policy [{}].", result.getPolicyId());
-            PolicyDTO policy = policyUseCase.setSubscriptionAuthorized(result.getPolicyId());
+    private boolean park(String queue, String payload, UUID policyId, Delivery delivery) {
+        String ticket = parking.enqueue(policyId, delivery.ticket());
+        logger.info("RabbitMQ Listener: Parking result for policy [{}] from '{}' behind an earlier result waiting to be retried.",
+                policyId, queue);
+        boolean scheduled = resultRetryScheduler.schedule(queue, payload, delivery.attempt(), parking.tierOf(policyId), ticket);
+        if (!scheduled) {
+            parking.release(policyId, ticket);
+        }
+        return scheduled;
+    }
 
-            if (policy.getPaymentConfirmed()) {
-                policyUseCase.approve(result.getPolicyId());
-                logger.info("RabbitMQ Listener: Policy [{}] approved (payment + subscription).", result.getPolicyId());
+    private boolean apply(String queue, String payload, MessageResult result, Delivery delivery, ResultHandler handler) {
+        UUID policyId = result.getPolicyId();
+        Outcome outcome = process(queue, result, handler);
+        if (outcome == Outcome.RETRY) {
+            int next = delivery.attempt() + 1;
+            String ticket = parking.hold(policyId, delivery.ticket(), next);
+            boolean scheduled = resultRetryScheduler.schedule(queue, payload, next, next, ticket);
+            if (!scheduled) {
+                parking.release(policyId, ticket);
             }
-        } else {
-            logger.info("RabbitMQ Listener: Subscription failed for policy [{}]. Rejecting policy.", result.getPolicyId());
-            policyUseCase.reject(result.getPolicyId());
+            return scheduled;
         }
 
-        logger.info("RabbitMQ Listener: Policy [{}] processed successfully.", result.getPolicyId());
+        parking.release(policyId, delivery.ticket());
+        if (outcome == Outcome.PROCESSED) {
+            processedMessageStore.markProcessed(dedupeKey(queue, result));
+            return true;
+        }
+        return false;
+    }
+
+    private Outcome process(String queue, MessageResult result, ResultHandler handler) {
+        try {
+            handler.handle(result);
+            logger.info("RabbitMQ Listener: Policy [{}] processed successfully.", result.getPolicyId());
+            return Outcome.PROCESSED;
+        } catch (DataNotFoundException | InvalidDataException e) {
+            logger.error("RabbitMQ Listener: Rejecting result for policy [{}] from '{}' without requeue: {}",
+                    result.getPolicyId(), queue, e.getMessage());
+            return Outcome.REJECTED;
+        } catch (UnexpectedErrorException | RuntimeException e) {
+            logger.warn("RabbitMQ Listener: Processing result for policy [{}] from '{}' failed, scheduling a retry: {}",
+                    result.getPolicyId(), queue, e.getMessage());
+            return Outcome.RETRY;
+        }
+    }
+
+    static String dedupeKey(String queue, MessageResult result) {
+        return queue + ":" + result.getPolicyId() + ":" + (result.isSuccess() ? "success" : "failure");
+    }
+
+    private void logJoinResult(PolicyDTO policy) {
+        if (policy.getStatus() == PolicyStatus.APPROVED) {
+            logger.info("RabbitMQ Listener: Policy [{}] approved (payment + subscription).", policy.getId());
+        }
+    }
+
+    private enum Outcome {
+        PROCESSED, REJECTED, RETRY
+    }
+
+    private record Delivery(long tag, int attempt, String ticket) {
+        private Delivery(long tag, Integer attempt, String ticket) {
+            this(tag, attempt == null ? 0 : attempt, ticket);
+        }
+    }
+
+    private interface ResultHandler {
+        void handle(MessageResult result) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException;
     }
 }
@@ -0,0 +1,31 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zagdev.insurances.domain.event.PolicyEvent;
+import com.zagdev.insurances.infrastructure.PolicyEventBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RabbitMqPolicyEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RabbitMqPolicyEventListener.class);
+
+    private final PolicyEventBroadcaster broadcaster;
+    private final ObjectMapper objectMapper;
+
+    public RabbitMqPolicyEventListener(PolicyEventBroadcaster broadcaster, ObjectMapper objectMapper) {
+        this.broadcaster = broadcaster;
+        this.objectMapper = objectMapper;
+    }
+
+    @RabbitListener(queues = "#{policyEventsBroadcastQueue.name}")
+    public void handlePolicyEvent(String payload) throws JsonProcessingException {
+        PolicyEvent event = objectMapper.readValue(payload, PolicyEvent.class);
+        logger.debug("RabbitMQ Listener: Broadcasting status [{}] of policy [{}]", event.getNewStatus(), event.getPolicyId());
+        broadcaster.broadcast(event);
+    }
+}
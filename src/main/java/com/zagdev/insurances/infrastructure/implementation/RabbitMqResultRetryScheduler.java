@@ -0,0 +1,57 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.config.ListenerProperties;
+import com.zagdev.insurances.infrastructure.ResultRetryScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+
+public class RabbitMqResultRetryScheduler implements ResultRetryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RabbitMqResultRetryScheduler.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ListenerProperties.Retry retry;
+
+    public RabbitMqResultRetryScheduler(RabbitTemplate rabbitTemplate, ListenerProperties.Retry retry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.retry = retry;
+    }
+
+    public static String tierQueue(String queue, Duration delay) {
+        return queue + ".retry." + delay.toMillis();
+    }
+
+    @Override
+    public boolean schedule(String queue, String payload, int attempt, int tier, String ticket) {
+        if (!retry.isEnabled() || tier > retry.getTiers()) {
+            logger.error("RabbitMQ Listener: Retries exhausted after [{}] attempts for message from '{}', dead-lettering it",
+                    tier, queue);
+            return false;
+        }
+
+        Duration delay = retry.delayOf(tier);
+        String tierQueue = tierQueue(queue, delay);
+        try {
+            rabbitTemplate.invoke(operations -> {
+                operations.convertAndSend("", tierQueue, payload, message -> {
+                    message.getMessageProperties().setHeader(ATTEMPT_HEADER, attempt);
+                    message.getMessageProperties().setHeader(TICKET_HEADER, ticket);
+                    return message;
+                });
+                operations.waitForConfirmsOrDie(retry.getConfirmTimeout().toMillis());
+                return null;
+            });
+        } catch (RuntimeException e) {
+            logger.error("RabbitMQ Listener: Could not schedule retry [{}] for message from '{}', dead-lettering it: {}",
+                    attempt, queue, e.getMessage());
+            return false;
+        }
+
+        logger.warn("RabbitMQ Listener: Scheduled message from '{}' (attempt [{}]) in [{}] via '{}'",
+                queue, attempt, delay, tierQueue);
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.infrastructure.IdGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "policy.ids.generator", havingValue = "random")
+public class RandomUuidGenerator implements IdGenerator {
+
+    @Override
+    public UUID next() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,47 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.domain.enums.RiskClassification;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.infrastructure.FraudApiClient;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+public class ResilientFraudApiClient implements FraudApiClient {
+
+    private final FraudApiClient delegate;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Bulkhead bulkhead;
+
+    public ResilientFraudApiClient(FraudApiClient delegate, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public RiskClassification getRiskClassification(UUID orderId, UUID customerId) throws InvalidDataException {
+        circuitBreaker.acquirePermission();
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            throw BulkheadFullException.createBulkheadFullException(bulkhead);
+        }
+
+        long start = System.nanoTime();
+        try {
+            RiskClassification classification = delegate.getRiskClassification(orderId, customerId);
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return classification;
+        } catch (InvalidDataException | RuntimeException e) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+}
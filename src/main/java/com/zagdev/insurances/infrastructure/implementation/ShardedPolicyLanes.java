@@ -0,0 +1,75 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.infrastructure.PolicyLanes;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class ShardedPolicyLanes implements PolicyLanes {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedPolicyLanes.class);
+
+    private final ThreadPoolExecutor[] lanes;
+
+    public ShardedPolicyLanes(int count, int capacity, MeterRegistry meterRegistry) {
+        if (count < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Lane count and capacity must be positive");
+        }
+
+        this.lanes = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            ThreadPoolExecutor lane = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(capacity), new CustomizableThreadFactory("policy-lane-" + i + "-"),
+                    ShardedPolicyLanes::waitForRoom);
+            lanes[i] = lane;
+            Gauge.builder("policy.lanes.depth", lane, executor -> executor.getQueue().size())
+                    .tag("lane", String.valueOf(i))
+                    .description("Results waiting in a policy lane")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void execute(UUID policyId, Runnable task) {
+        lanes[laneOf(policyId)].execute(task);
+    }
+
+    int laneOf(UUID policyId) {
+        return Math.floorMod(policyId.hashCode(), lanes.length);
+    }
+
+    int depth(int lane) {
+        return lanes[lane].getQueue().size();
+    }
+
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (int i = 0; i < lanes.length; i++) {
+            if (!lanes[i].awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Lanes: Lane [{}] did not drain [{}] pending results in time", i, lanes[i].getQueue().size());
+            }
+        }
+    }
+
+    private static void waitForRoom(Runnable task, ThreadPoolExecutor lane) {
+        if (lane.isShutdown()) {
+            throw new RejectedExecutionException("Policy lane is shut down");
+        }
+        try {
+            lane.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for room in policy lane", e);
+        }
+    }
+}
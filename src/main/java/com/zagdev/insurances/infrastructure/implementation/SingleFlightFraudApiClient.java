@@ -0,0 +1,67 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.domain.enums.RiskClassification;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.infrastructure.FraudApiClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class SingleFlightFraudApiClient implements FraudApiClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlightFraudApiClient.class);
+
+    private final FraudApiClient delegate;
+
+    private final ConcurrentMap<UUID, CompletableFuture<RiskClassification>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightFraudApiClient(FraudApiClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public RiskClassification getRiskClassification(UUID orderId, UUID customerId) throws InvalidDataException {
+        CompletableFuture<RiskClassification> call = new CompletableFuture<>();
+        CompletableFuture<RiskClassification> existing = inFlight.putIfAbsent(customerId, call);
+        if (existing != null) {
+            logger.info("Joining in-flight fraud lookup for customerId [{}], orderId [{}]", customerId, orderId);
+            return await(existing);
+        }
+
+        try {
+            call.complete(delegate.getRiskClassification(orderId, customerId));
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+        } finally {
+            inFlight.remove(customerId, call);
+        }
+        return await(call);
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static RiskClassification await(CompletableFuture<RiskClassification> call) throws InvalidDataException {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof InvalidDataException invalidData) {
+                throw invalidData;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
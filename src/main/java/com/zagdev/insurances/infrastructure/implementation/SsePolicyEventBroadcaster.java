@@ -0,0 +1,214 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zagdev.insurances.domain.event.PolicyEvent;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.exceptions.ServiceUnavailableException;
+import com.zagdev.insurances.infrastructure.PolicyEventBroadcaster;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Component
+public class SsePolicyEventBroadcaster implements PolicyEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(SsePolicyEventBroadcaster.class);
+
+    static final String EVENT_NAME = "policy-status";
+
+    private final Executor dispatcher;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Function<Long, SseEmitter> emitterFactory;
+
+    private final Map<UUID, Set<Subscriber>> policySubscribers = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Subscriber>> customerSubscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    @Autowired
+    public SsePolicyEventBroadcaster(@Qualifier("policyEventsExecutor") Executor dispatcher, ObjectMapper objectMapper,
+                                     @Value("${policy.events.buffer-size:16}") int bufferSize,
+                                     @Value("${policy.events.max-subscribers:10000}") int maxSubscribers,
+                                     @Value("${policy.events.timeout:30m}") Duration timeout,
+                                     MeterRegistry meterRegistry) {
+        this(dispatcher, objectMapper, bufferSize, maxSubscribers, timeout, SseEmitter::new);
+        Gauge.builder("policy.events.subscribers", subscribers, AtomicInteger::get)
+                .description("Open policy event stream connections")
+                .register(meterRegistry);
+    }
+
+    SsePolicyEventBroadcaster(Executor dispatcher, ObjectMapper objectMapper, int bufferSize, int maxSubscribers,
+                              Duration timeout, Function<Long, SseEmitter> emitterFactory) {
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        this.emitterFactory = emitterFactory;
+    }
+
+    @Override
+    public SseEmitter subscribeToPolicy(UUID policyId) throws ServiceUnavailableException {
+        return subscribe(policySubscribers, policyId);
+    }
+
+    @Override
+    public SseEmitter subscribeToCustomer(UUID customerId) throws ServiceUnavailableException {
+        return subscribe(customerSubscribers, customerId);
+    }
+
+    @Override
+    public void broadcast(PolicyEvent event) {
+        Set<Subscriber> byPolicy = policySubscribers.get(event.getPolicyId());
+        Set<Subscriber> byCustomer = customerSubscribers.get(event.getCustomerId());
+        if (byPolicy == null && byCustomer == null) {
+            return;
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            logger.error("Event stream: Error serializing event for policy [{}]: {}", event.getPolicyId(), e.getMessage(), e);
+            return;
+        }
+
+        if (byPolicy != null) {
+            byPolicy.forEach(subscriber -> subscriber.offer(SseEmitter.event().name(EVENT_NAME).data(payload)));
+        }
+        if (byCustomer != null) {
+            byCustomer.forEach(subscriber -> subscriber.offer(SseEmitter.event().name(EVENT_NAME).data(payload)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${policy.events.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        policySubscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("heartbeat"))));
+        customerSubscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    int subscriberCount() {
+        return subscribers.get();
+    }
+
+    private SseEmitter subscribe(Map<UUID, Set<Subscriber>> index, UUID key) throws ServiceUnavailableException {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            logger.warn("Event stream: Subscriber limit [{}] reached, refusing subscription for [{}]", maxSubscribers, key);
+            throw new ServiceUnavailableException(ErrorCode.SERVICE_UNAVAILABLE);
+        }
+
+        SseEmitter emitter = emitterFactory.apply(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, index, key);
+        index.compute(key, (id, set) -> {
+            Set<Subscriber> current = set == null ? ConcurrentHashMap.newKeySet() : set;
+            current.add(subscriber);
+            return current;
+        });
+        emitter.onCompletion(subscriber::unregister);
+        emitter.onTimeout(subscriber::unregister);
+        emitter.onError(error -> subscriber.unregister());
+        return emitter;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Map<UUID, Set<Subscriber>> index;
+        private final UUID key;
+        private final Queue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Map<UUID, Set<Subscriber>> index, UUID key) {
+            this.emitter = emitter;
+            this.index = index;
+            this.key = key;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                logger.warn("Event stream: Subscriber for [{}] is not keeping up, closing connection", key);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Event stream: Dispatch queue is full, closing connection for [{}]", key);
+                close();
+            }
+        }
+
+        private void drain() {
+            SseEmitter.SseEventBuilder event;
+            while (!closed.get() && (event = buffer.poll()) != null) {
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    logger.info("Event stream: Connection for [{}] is gone: {}", key, e.getMessage());
+                    unregister();
+                    return;
+                }
+            }
+            draining.set(false);
+            if (!closed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void close() {
+            if (unregister()) {
+                emitter.complete();
+            }
+        }
+
+        private boolean unregister() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            index.computeIfPresent(key, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            buffer.clear();
+            subscribers.decrementAndGet();
+            return true;
+        }
+    }
+}
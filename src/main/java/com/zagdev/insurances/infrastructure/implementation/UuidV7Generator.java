@@ -0,0 +1,57 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.infrastructure.IdGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+@Component
+@ConditionalOnProperty(name = "policy.ids.generator", havingValue = "uuid-v7", matchIfMissing = true)
+public class UuidV7Generator implements IdGenerator {
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+    private static final int COUNTER_BITS = 42;
+    private static final int COUNTER_LOW_BITS = 30;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long COUNTER_SEED_MASK = COUNTER_MASK >>> 1;
+    private static final long COUNTER_LOW_MASK = (1L << COUNTER_LOW_BITS) - 1;
+
+    private final LongSupplier clock;
+    private final ThreadLocal<State> states = ThreadLocal.withInitial(State::new);
+
+    public UuidV7Generator() {
+        this(System::currentTimeMillis);
+    }
+
+    UuidV7Generator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID next() {
+        State state = states.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = clock.getAsLong();
+
+        if (now > state.millis) {
+            state.millis = now;
+            state.counter = random.nextLong() & COUNTER_SEED_MASK;
+        } else if (++state.counter > COUNTER_MASK) {
+            state.millis++;
+            state.counter = random.nextLong() & COUNTER_SEED_MASK;
+        }
+
+        long msb = (state.millis << 16) | VERSION_7 | (state.counter >>> COUNTER_LOW_BITS);
+        long lsb = VARIANT_RFC_4122 | ((state.counter & COUNTER_LOW_MASK) << 32) | (random.nextInt() & 0xFFFFFFFFL);
+        return new UUID(msb, lsb);
+    }
+
+    private static final class State {
+        private long millis = -1;
+        private long counter;
+    }
+}
@@ -3,6 +3,7 @@ package com.zagdev.insurances.application.adapters.config;
 import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
 import com.zagdev.insurances.domain.exceptions.ErrorCode;
 import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.domain.exceptions.ServiceUnavailableException;
 import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -87,6 +88,20 @@ class CustomResponseExceptionHandlerTest {
         assertTrue(responseErrorMessage.fieldErrors().isEmpty());
     }
 
+    @Test
+    void testServiceUnavailableException() {
+        ServiceUnavailableException serviceUnavailableException = new ServiceUnavailableException(ErrorCode.SERVICE_UNAVAILABLE);
+        ResponseEntity<ResponseError.ResponseErrorMessage> responseError = customResponseExceptionHandler
+                .serviceUnavailableException(serviceUnavailableException);
+
+        ResponseError.ResponseErrorMessage responseErrorMessage = responseError.getBody();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseError.getStatusCode());
+        assertEquals("1", responseError.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(ErrorCode.SERVICE_UNAVAILABLE.getCode(), responseErrorMessage.code());
+        assertTrue(responseErrorMessage.fieldErrors().isEmpty());
+    }
+
     @Test
     void testUnexpectedErrorException() {
         UnexpectedErrorException unexpectedErrorException = new UnexpectedErrorException(ErrorCode.UNEXPECTED_ERROR, precedingException);
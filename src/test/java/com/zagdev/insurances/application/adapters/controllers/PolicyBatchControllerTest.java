@@ -0,0 +1,183 @@
+package com.zagdev.insurances.application.adapters.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zagdev.insurances.application.adapters.config.CustomResponseExceptionHandler;
+import com.zagdev.insurances.application.adapters.dto.PolicyRequest;
+import com.zagdev.insurances.domain.dto.PolicyBatchItemResult;
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.usecases.PolicyUseCase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PolicyBatchControllerTest {
+
+    @Mock
+    private PolicyUseCase policyUseCase;
+
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        objectMapper = new ObjectMapper();
+        PolicyBatchController controller = new PolicyBatchController(policyUseCase, objectMapper, 3, 2);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new CustomResponseExceptionHandler())
+                .build();
+        when(policyUseCase.createAll(anyList())).thenAnswer(inv -> {
+            List<PolicyDTO> requests = inv.getArgument(0);
+            requests.forEach(request -> request.setId(UUID.randomUUID()));
+            return requests.stream().map(PolicyBatchItemResult::succeeded).collect(Collectors.toList());
+        });
+    }
+
+    private PolicyRequest validRequest() {
+        PolicyRequest req = new PolicyRequest();
+        req.setCustomerId(UUID.randomUUID());
+        req.setCategory("LIFE");
+        req.setInsuredAmount(BigDecimal.valueOf(9999));
+        return req;
+    }
+
+    private PolicyRequest invalidRequest() {
+        PolicyRequest req = validRequest();
+        req.setCategory("SPACESHIP");
+        return req;
+    }
+
+    @Test
+    void shouldCreateValidItemsAndReportInvalidOnes() throws Exception {
+        List<PolicyRequest> requests = List.of(validRequest(), invalidRequest(), validRequest());
+
+        mockMvc.perform(post("/api/v1/policies/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].index").value(0))
+                .andExpect(jsonPath("$.items[0].status").value("RECEIVED"))
+                .andExpect(jsonPath("$.items[1].index").value(1))
+                .andExpect(jsonPath("$.items[1].error.code").value(ErrorCode.INVALID_DATA.getCode()))
+                .andExpect(jsonPath("$.items[1].error.fieldErrors[0].name").value("category"))
+                .andExpect(jsonPath("$.items[2].index").value(2))
+                .andExpect(jsonPath("$.items[2].id").exists());
+
+        verify(policyUseCase, times(2)).createAll(anyList());
+    }
+
+    @Test
+    void shouldReportInsertFailuresPerItem() throws Exception {
+        when(policyUseCase.createAll(anyList())).thenAnswer(inv -> {
+            List<PolicyDTO> requests = inv.getArgument(0);
+            return List.of(PolicyBatchItemResult.failed(requests.get(0), ErrorCode.UNEXPECTED_ERROR));
+        });
+
+        mockMvc.perform(post("/api/v1/policies/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(validRequest()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].error.code").value(ErrorCode.UNEXPECTED_ERROR.getCode()));
+    }
+
+    @Test
+    void shouldRejectBatchAboveMaximumSize() throws Exception {
+        List<PolicyRequest> requests = List.of(validRequest(), validRequest(), validRequest(), validRequest());
+
+        mockMvc.perform(post("/api/v1/policies/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isBadRequest());
+
+        verify(policyUseCase, never()).createAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamNdjsonResultsInChunks() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            lines.add(objectMapper.writeValueAsString(validRequest()));
+        }
+        lines.add("{ not json");
+        String body = String.join("\n", lines) + "\n";
+
+        String response = mockMvc.perform(post("/api/v1/policies/batch")
+                        .contentType(PolicyBatchController.APPLICATION_NDJSON_VALUE)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PolicyBatchController.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] results = response.trim().split("\n");
+        assertEquals(5, results.length);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, objectMapper.readTree(results[i]).get("index").asInt());
+            assertEquals("RECEIVED", objectMapper.readTree(results[i]).get("status").asText());
+        }
+        assertEquals(4, objectMapper.readTree(results[4]).get("index").asInt());
+        assertTrue(objectMapper.readTree(results[4]).has("error"));
+
+        ArgumentCaptor<List<PolicyDTO>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(policyUseCase, times(2)).createAll(chunks.capture());
+        assertEquals(2, chunks.getAllValues().get(0).size());
+        assertEquals(2, chunks.getAllValues().get(1).size());
+    }
+
+    @Test
+    void shouldValidateBatchAndMapResultsToInputIndexes() throws Exception {
+        UUID validated = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        PolicyDTO policy = new PolicyDTO();
+        policy.setId(validated);
+        policy.setStatus(PolicyStatus.PENDING);
+        when(policyUseCase.validateAll(List.of(validated, missing))).thenReturn(List.of(
+                PolicyBatchItemResult.succeeded(policy),
+                PolicyBatchItemResult.failed(missing, ErrorCode.POLICY_NOT_FOUND)));
+
+        mockMvc.perform(post("/api/v1/policies/validate-batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [\"" + validated + "\", \"" + missing + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(validated.toString()))
+                .andExpect(jsonPath("$.items[0].status").value("PENDING"))
+                .andExpect(jsonPath("$.items[1].id").value(missing.toString()))
+                .andExpect(jsonPath("$.items[1].error.code").value(ErrorCode.POLICY_NOT_FOUND.getCode()));
+    }
+
+    @Test
+    void shouldRejectEmptyValidateBatch() throws Exception {
+        mockMvc.perform(post("/api/v1/policies/validate-batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest());
+
+        verify(policyUseCase, never()).validateAll(anyList());
+    }
+}
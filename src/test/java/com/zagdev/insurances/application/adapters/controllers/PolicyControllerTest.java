@@ -1,15 +1,21 @@
 package com.zagdev.insurances.application.adapters.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zagdev.insurances.application.adapters.config.CustomResponseExceptionHandler;
 import com.zagdev.insurances.application.adapters.dto.PolicyRequest;
 import com.zagdev.insurances.application.adapters.mapper.PolicyMapper;
+import com.zagdev.insurances.domain.dto.PolicyCursor;
 import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.dto.PolicyPage;
 import com.zagdev.insurances.domain.enums.InsuranceCategory;
+import com.zagdev.insurances.domain.enums.PolicyField;
 import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.exceptions.ConflictException;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
 import com.zagdev.insurances.domain.usecases.PolicyUseCase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
@@ -18,12 +24,29 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -35,14 +58,14 @@ class PolicyControllerTest {
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
-    @InjectMocks
-    private PolicyController controller;
-
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
         objectMapper = new ObjectMapper();
+        PolicyController controller = new PolicyController(policyUseCase, new ObjectMapper().findAndRegisterModules(), 50);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new CustomResponseExceptionHandler())
+                .build();
     }
 
     private PolicyRequest buildPolicyRequest() {
@@ -82,6 +105,22 @@ class PolicyControllerTest {
                 .andExpect(jsonPath("$.status").value("PENDING"));
     }
 
+    @Test
+    void shouldRejectInvalidPolicyWithSameFieldErrorsAsBatch() throws Exception {
+        PolicyRequest request = buildPolicyRequest();
+        request.setCategory("BOAT");
+        request.setInsuredAmount(BigDecimal.ZERO);
+
+        mockMvc.perform(post("/api/v1/policies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors[0].name").value("category"))
+                .andExpect(jsonPath("$.fieldErrors[1].name").value("insured_amount"));
+        verify(policyUseCase, never()).create(any(PolicyDTO.class));
+        verify(policyUseCase, never()).create(any(PolicyDTO.class), any());
+    }
+
     @Test
     void shouldValidatePolicy() throws Exception {
         UUID id = UUID.randomUUID();
@@ -95,6 +134,20 @@ class PolicyControllerTest {
                 .andExpect(jsonPath("$.status").value("VALIDATED"));
     }
 
+    @Test
+    void shouldAcceptAsyncValidation() throws Exception {
+        UUID id = UUID.randomUUID();
+        PolicyDTO dto = buildPolicyDTO(id, PolicyStatus.RECEIVED);
+
+        when(policyUseCase.submitValidation(id)).thenReturn(dto);
+
+        mockMvc.perform(patch("/api/v1/policies/" + id + "/validate").param("mode", "async"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/v1/policies/" + id))
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.status").value("RECEIVED"));
+    }
+
     @Test
     void shouldCancelPolicy() throws Exception {
         UUID id = UUID.randomUUID();
@@ -135,4 +188,310 @@ class PolicyControllerTest {
                 .andExpect(jsonPath("$[0].id").value(dto1.getId().toString()))
                 .andExpect(jsonPath("$[1].id").value(dto2.getId().toString()));
     }
+
+    @Test
+    void shouldReturnPageOfPoliciesWithOpaqueNextCursor() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        PolicyDTO dto1 = buildPolicyDTO(UUID.randomUUID(), PolicyStatus.APPROVED);
+        PolicyDTO dto2 = buildPolicyDTO(UUID.randomUUID(), PolicyStatus.PENDING);
+        PolicyCursor after = PolicyCursor.of(dto1);
+        PolicyCursor next = PolicyCursor.of(dto2);
+
+        when(policyUseCase.findPageByCustomerId(eq(customerId), isNull(), any(PolicyCursor.class), eq(1)))
+                .thenReturn(new PolicyPage(List.of(dto2), next));
+
+        mockMvc.perform(get("/api/v1/policies/customer/" + customerId)
+                        .param("limit", "1")
+                        .param("cursor", after.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(dto2.getId().toString()))
+                .andExpect(jsonPath("$.next_cursor").value(next.encode()));
+
+        ArgumentCaptor<PolicyCursor> cursor = ArgumentCaptor.forClass(PolicyCursor.class);
+        verify(policyUseCase).findPageByCustomerId(eq(customerId), isNull(), cursor.capture(), eq(1));
+        assertEquals(dto1.getId(), cursor.getValue().getId());
+        assertEquals(dto1.getCreatedAt().toEpochMilli(), cursor.getValue().getCreatedAt().toEpochMilli());
+    }
+
+    @Test
+    void shouldOmitNextCursorOnLastPage() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        PolicyDTO dto = buildPolicyDTO(UUID.randomUUID(), PolicyStatus.APPROVED);
+
+        when(policyUseCase.findPageByCustomerId(customerId, null, null, 10)).thenReturn(new PolicyPage(List.of(dto), null));
+
+        mockMvc.perform(get("/api/v1/policies/customer/" + customerId).param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.next_cursor").doesNotExist());
+    }
+
+    @Test
+    void shouldRejectPageSizeOutOfBounds() throws Exception {
+        UUID customerId = UUID.randomUUID();
+
+        mockMvc.perform(get("/api/v1/policies/customer/" + customerId).param("limit", "51"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/policies/customer/" + customerId).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(policyUseCase, never()).findPageByCustomerId(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/policies/customer/" + UUID.randomUUID())
+                        .param("limit", "10")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verify(policyUseCase, never()).findPageByCustomerId(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldStreamPoliciesAsNdjsonAndCloseCursor() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        PolicyDTO dto1 = buildPolicyDTO(UUID.randomUUID(), PolicyStatus.APPROVED);
+        PolicyDTO dto2 = buildPolicyDTO(UUID.randomUUID(), PolicyStatus.PENDING);
+        AtomicBoolean closed = new AtomicBoolean();
+
+        when(policyUseCase.streamByCustomerId(customerId, null))
+                .thenReturn(Stream.of(dto1, dto2).onClose(() -> closed.set(true)));
+
+        String body = mockMvc.perform(get("/api/v1/policies/customer/" + customerId)
+                        .accept(PolicyBatchController.APPLICATION_NDJSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", PolicyBatchController.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(dto1.getId().toString(), objectMapper.readTree(lines[0]).get("id").asText());
+        assertEquals(dto2.getId().toString(), objectMapper.readTree(lines[1]).get("id").asText());
+        assertTrue(closed.get());
+        verify(policyUseCase, never()).findByCustomerId(any());
+    }
+
+    @Test
+    void shouldProjectOnlyRequestedFieldsWhenGettingById() throws Exception {
+        UUID id = UUID.randomUUID();
+        PolicyDTO dto = buildPolicyDTO(id, PolicyStatus.APPROVED);
+        dto.setCoverages(Map.of("death", BigDecimal.TEN));
+
+        when(policyUseCase.findById(id, EnumSet.of(PolicyField.HISTORY))).thenReturn(dto);
+
+        mockMvc.perform(get("/api/v1/policies/" + id).param("fields", "history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.history").isArray())
+                .andExpect(jsonPath("$.coverages").doesNotExist())
+                .andExpect(jsonPath("$.assistances").doesNotExist());
+
+        verify(policyUseCase, never()).findById(id);
+    }
+
+    @Test
+    void shouldKeepNullHeavyFieldsInFullResponseAndOmitThemOnlyWhenProjected() throws Exception {
+        UUID id = UUID.randomUUID();
+        PolicyDTO dto = buildPolicyDTO(id, PolicyStatus.APPROVED);
+
+        when(policyUseCase.findById(id)).thenReturn(dto);
+        when(policyUseCase.findById(id, EnumSet.of(PolicyField.HISTORY))).thenReturn(dto);
+
+        mockMvc.perform(get("/api/v1/policies/" + id))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"coverages\":null")))
+                .andExpect(content().string(containsString("\"assistances\":null")));
+
+        mockMvc.perform(get("/api/v1/policies/" + id).param("fields", "history"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("\"coverages\""))))
+                .andExpect(content().string(not(containsString("\"assistances\""))));
+    }
+
+    @Test
+    void shouldRejectUnknownProjectionField() throws Exception {
+        mockMvc.perform(get("/api/v1/policies/" + UUID.randomUUID()).param("fields", "history,outbox"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnCoreFieldsOnlyForEmptyProjection() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        PolicyDTO dto = buildPolicyDTO(UUID.randomUUID(), PolicyStatus.PENDING);
+
+        when(policyUseCase.findByCustomerId(customerId, EnumSet.noneOf(PolicyField.class))).thenReturn(List.of(dto));
+
+        mockMvc.perform(get("/api/v1/policies/customer/" + customerId).param("fields", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(dto.getId().toString()))
+                .andExpect(jsonPath("$[0].category").value("LIFE"))
+                .andExpect(jsonPath("$[0].history").doesNotExist());
+    }
+
+    @Test
+    void shouldReturnPolicySummariesByCustomer() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        PolicyDTO dto = buildPolicyDTO(UUID.randomUUID(), PolicyStatus.APPROVED);
+        dto.setTotalMonthlyPremium(BigDecimal.valueOf(75));
+
+        when(policyUseCase.findSummariesByCustomerId(customerId)).thenReturn(List.of(dto));
+
+        mockMvc.perform(get("/api/v1/policies/customer/" + customerId + "/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(dto.getId().toString()))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[0].category").value("LIFE"))
+                .andExpect(jsonPath("$[0].total_monthly_premium_amount").value(75))
+                .andExpect(jsonPath("$[0].customer_id").doesNotExist());
+    }
+
+    @Test
+    void shouldTagPolicyWithItsVersion() throws Exception {
+        UUID id = UUID.randomUUID();
+        PolicyDTO dto = buildPolicyDTO(id, PolicyStatus.PENDING);
+        dto.setVersion(2);
+
+        when(policyUseCase.findById(id)).thenReturn(dto);
+
+        mockMvc.perform(get("/api/v1/policies/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""));
+        verify(policyUseCase, never()).findVersionById(any());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWithoutLoadingPolicy() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        when(policyUseCase.findVersionById(id)).thenReturn(2L);
+
+        mockMvc.perform(get("/api/v1/policies/" + id).header("If-None-Match", "\"1\", \"2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"2\""));
+        verify(policyUseCase, never()).findById(any());
+    }
+
+    @Test
+    void shouldReturnPolicyWhenETagIsStale() throws Exception {
+        UUID id = UUID.randomUUID();
+        PolicyDTO dto = buildPolicyDTO(id, PolicyStatus.APPROVED);
+        dto.setVersion(3);
+
+        when(policyUseCase.findVersionById(id)).thenReturn(3L);
+        when(policyUseCase.findById(id)).thenReturn(dto);
+
+        mockMvc.perform(get("/api/v1/policies/" + id).header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+    }
+
+    @Test
+    void shouldTagEachFieldsProjectionDifferently() throws Exception {
+        UUID id = UUID.randomUUID();
+        PolicyDTO dto = buildPolicyDTO(id, PolicyStatus.PENDING);
+        dto.setVersion(2);
+
+        when(policyUseCase.findById(id)).thenReturn(dto);
+        when(policyUseCase.findById(eq(id), any())).thenReturn(dto);
+        when(policyUseCase.findVersionById(id)).thenReturn(2L);
+
+        String full = mockMvc.perform(get("/api/v1/policies/" + id))
+                .andReturn().getResponse().getHeader("ETag");
+        String history = mockMvc.perform(get("/api/v1/policies/" + id).param("fields", "history"))
+                .andReturn().getResponse().getHeader("ETag");
+        String reordered = mockMvc.perform(get("/api/v1/policies/" + id).param("fields", "coverages,history"))
+                .andReturn().getResponse().getHeader("ETag");
+        String normalized = mockMvc.perform(get("/api/v1/policies/" + id).param("fields", "HISTORY, coverages"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertNotEquals(full, history);
+        assertNotEquals(history, reordered);
+        assertEquals(reordered, normalized);
+
+        mockMvc.perform(get("/api/v1/policies/" + id).param("fields", "history").header("If-None-Match", full))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/policies/" + id).param("fields", "history").header("If-None-Match", history))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldTagCustomerPoliciesPerFieldsProjection() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        PolicyDTO dto = buildPolicyDTO(UUID.randomUUID(), PolicyStatus.APPROVED);
+
+        when(policyUseCase.findByCustomerId(customerId)).thenReturn(List.of(dto));
+        when(policyUseCase.findByCustomerId(eq(customerId), any())).thenReturn(List.of(dto));
+
+        String full = mockMvc.perform(get("/api/v1/policies/customer/" + customerId))
+                .andReturn().getResponse().getHeader("ETag");
+        String projected = mockMvc.perform(get("/api/v1/policies/customer/" + customerId).param("fields", "history"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertNotEquals(full, projected);
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForUnchangedCustomerPolicies() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        PolicyDTO dto1 = buildPolicyDTO(UUID.randomUUID(), PolicyStatus.APPROVED);
+        PolicyDTO dto2 = buildPolicyDTO(UUID.randomUUID(), PolicyStatus.PENDING);
+        dto2.setVersion(4);
+
+        when(policyUseCase.findByCustomerId(customerId)).thenReturn(List.of(dto1, dto2));
+        when(policyUseCase.findVersionsByCustomerId(customerId)).thenReturn(List.of(dto2, dto1));
+
+        String etag = mockMvc.perform(get("/api/v1/policies/customer/" + customerId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/policies/customer/" + customerId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        dto2.setVersion(5);
+        mockMvc.perform(get("/api/v1/policies/customer/" + customerId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].id").value(dto2.getId().toString()));
+        verify(policyUseCase, times(2)).findByCustomerId(customerId);
+    }
+
+    @Test
+    void shouldCreatePolicyIdempotentlyWhenKeyIsGiven() throws Exception {
+        PolicyRequest request = buildPolicyRequest();
+        PolicyDTO dto = PolicyMapper.toDomain(request);
+        dto.setId(UUID.randomUUID());
+        dto.setStatus(PolicyStatus.RECEIVED);
+
+        when(policyUseCase.create(any(PolicyDTO.class), eq("order-42"))).thenReturn(dto);
+
+        mockMvc.perform(post("/api/v1/policies")
+                        .header("Idempotency-Key", "order-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(dto.getId().toString()));
+        verify(policyUseCase, never()).create(any(PolicyDTO.class));
+    }
+
+    @Test
+    void shouldReturnConflictWhileSameIdempotencyKeyIsInProgress() throws Exception {
+        when(policyUseCase.create(any(PolicyDTO.class), eq("order-42")))
+                .thenThrow(new ConflictException(ErrorCode.IDEMPOTENCY_KEY_IN_USE));
+
+        mockMvc.perform(post("/api/v1/policies")
+                        .header("Idempotency-Key", "order-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(buildPolicyRequest())))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldRejectBlankIdempotencyKey() throws Exception {
+        mockMvc.perform(post("/api/v1/policies")
+                        .header("Idempotency-Key", " ")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(buildPolicyRequest())))
+                .andExpect(status().isBadRequest());
+    }
 }
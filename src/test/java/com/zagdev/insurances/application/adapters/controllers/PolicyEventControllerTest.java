@@ -0,0 +1,76 @@
+package com.zagdev.insurances.application.adapters.controllers;
+
+import com.zagdev.insurances.application.adapters.config.CustomResponseExceptionHandler;
+import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.exceptions.ServiceUnavailableException;
+import com.zagdev.insurances.domain.usecases.PolicyUseCase;
+import com.zagdev.insurances.infrastructure.PolicyEventBroadcaster;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PolicyEventControllerTest {
+
+    @Mock
+    private PolicyUseCase policyUseCase;
+
+    @Mock
+    private PolicyEventBroadcaster broadcaster;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PolicyEventController(policyUseCase, broadcaster))
+                .setControllerAdvice(new CustomResponseExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void shouldOpenEventStreamForExistingPolicy() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(policyUseCase.findVersionById(id)).thenReturn(1L);
+        when(broadcaster.subscribeToPolicy(id)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/v1/policies/" + id + "/events"))
+                .andExpect(request().asyncStarted());
+
+        verify(broadcaster).subscribeToPolicy(id);
+    }
+
+    @Test
+    void shouldNotSubscribeToUnknownPolicy() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(policyUseCase.findVersionById(id)).thenThrow(new DataNotFoundException(ErrorCode.POLICY_NOT_FOUND));
+
+        mockMvc.perform(get("/api/v1/policies/" + id + "/events"))
+                .andExpect(status().isNotFound());
+
+        verify(broadcaster, never()).subscribeToPolicy(any());
+    }
+
+    @Test
+    void shouldRefuseCustomerStreamWhenSubscriberLimitIsReached() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        when(broadcaster.subscribeToCustomer(customerId)).thenThrow(new ServiceUnavailableException(ErrorCode.SERVICE_UNAVAILABLE));
+
+        mockMvc.perform(get("/api/v1/policies/customer/" + customerId + "/events"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
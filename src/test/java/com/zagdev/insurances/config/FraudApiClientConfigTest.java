@@ -0,0 +1,112 @@
+package com.zagdev.insurances.config;
+
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.zagdev.insurances.domain.enums.RiskClassification;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.infrastructure.FraudApiClient;
+import com.zagdev.insurances.infrastructure.implementation.FraudApiClientImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FraudApiClientConfigTest {
+
+    @RegisterExtension
+    static WireMockExtension fraudApi = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().usingFilesUnderDirectory("wiremock"))
+            .build();
+
+    private final RestClientConfig restClientConfig = new RestClientConfig();
+
+    private final FraudApiClientConfig fraudApiClientConfig = new FraudApiClientConfig();
+
+    private FraudApiProperties properties;
+
+    @BeforeEach
+    void setup() {
+        properties = new FraudApiProperties();
+        properties.setUrl(fraudApi.baseUrl());
+        properties.getHttp().setResponseTimeout(Duration.ofMillis(300));
+        properties.getHttp().setReadTimeout(Duration.ofMillis(300));
+        properties.getCache().setEnabled(false);
+        properties.getResilience().setSlidingWindowSize(4);
+        properties.getResilience().setMinimumNumberOfCalls(4);
+        properties.getResilience().setWaitDurationInOpenState(Duration.ofMinutes(1));
+    }
+
+    private FraudApiClient client() {
+        FraudApiClientImpl impl = new FraudApiClientImpl(
+                restClientConfig.fraudApiRestTemplate(restClientConfig.fraudApiRequestFactory(properties)),
+                properties.getUrl());
+        return fraudApiClientConfig.fraudApiClient(impl, properties, new SimpleMeterRegistry(), Runnable::run);
+    }
+
+    @Test
+    void shouldReturnClassificationFromStubbedFraudApi() throws InvalidDataException {
+        assertEquals(RiskClassification.HIGH_RISK, client().getRiskClassification(UUID.randomUUID(), UUID.randomUUID()));
+    }
+
+    @Test
+    void shouldFallBackWhenFraudApiIsSlow() throws InvalidDataException {
+        fraudApi.stubFor(get(urlPathMatching("/frauds/.*/customers/.*"))
+                .willReturn(okJson("{ \"classification\": \"REGULAR\" }").withFixedDelay(1000)));
+
+        assertEquals(RiskClassification.NO_INFORMATION,
+                client().getRiskClassification(UUID.randomUUID(), UUID.randomUUID()));
+    }
+
+    @Test
+    void shouldOpenCircuitAndStopCallingFraudApiAfterFaults() throws InvalidDataException {
+        fraudApi.stubFor(get(urlPathMatching("/frauds/.*/customers/.*"))
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        FraudApiClient client = client();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(RiskClassification.NO_INFORMATION,
+                    client.getRiskClassification(UUID.randomUUID(), UUID.randomUUID()));
+        }
+
+        fraudApi.verify(4, getRequestedFor(urlPathMatching("/frauds/.*/customers/.*")));
+    }
+
+    @Test
+    void shouldFallBackOnServerErrors() throws InvalidDataException {
+        fraudApi.stubFor(get(urlPathMatching("/frauds/.*/customers/.*")).willReturn(serverError()));
+
+        assertEquals(RiskClassification.NO_INFORMATION,
+                client().getRiskClassification(UUID.randomUUID(), UUID.randomUUID()));
+    }
+
+    @Test
+    void shouldPropagateClientErrorsInsteadOfFallingBack() throws InvalidDataException {
+        fraudApi.stubFor(get(urlPathMatching("/frauds/.*/customers/.*")).willReturn(badRequest()));
+        FraudApiClient client = client();
+
+        for (int i = 0; i < 6; i++) {
+            assertThrows(HttpClientErrorException.BadRequest.class,
+                    () -> client.getRiskClassification(UUID.randomUUID(), UUID.randomUUID()));
+        }
+
+        fraudApi.verify(6, getRequestedFor(urlPathMatching("/frauds/.*/customers/.*")));
+    }
+
+    @Test
+    void shouldPropagateFailuresWhenFallbackIsDisabled() {
+        fraudApi.stubFor(get(urlPathMatching("/frauds/.*/customers/.*")).willReturn(serverError()));
+        properties.getResilience().setFallbackClassification(null);
+
+        FraudApiClient client = client();
+
+        assertThrows(RuntimeException.class, () -> client.getRiskClassification(UUID.randomUUID(), UUID.randomUUID()));
+    }
+}
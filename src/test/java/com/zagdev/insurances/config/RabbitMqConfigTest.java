@@ -0,0 +1,54 @@
+package com.zagdev.insurances.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RabbitMqConfigTest {
+
+    private final RabbitMqConfig config = new RabbitMqConfig();
+
+    private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+
+    private ListenerProperties properties;
+
+    @BeforeEach
+    void setup() {
+        properties = new ListenerProperties();
+    }
+
+    @Test
+    void shouldUseSingleConsumerPerQueueWhenLanesAreEnabled() {
+        assertDoesNotThrow(() -> config.paymentResultContainerFactory(connectionFactory, properties));
+        assertDoesNotThrow(() -> config.subscriptionResultContainerFactory(connectionFactory, properties));
+    }
+
+    @Test
+    void shouldFailFastWhenConcurrencyIsCombinedWithLanes() {
+        properties.getSubscriptionResult().setConcurrency(4);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> config.subscriptionResultContainerFactory(connectionFactory, properties));
+
+        assertTrue(e.getMessage().contains("policy.listeners.subscription-result.concurrency"));
+    }
+
+    @Test
+    void shouldFailFastWhenMaxConcurrencyIsCombinedWithLanes() {
+        properties.getPaymentResult().setMaxConcurrency(8);
+
+        assertThrows(IllegalStateException.class, () -> config.paymentResultContainerFactory(connectionFactory, properties));
+    }
+
+    @Test
+    void shouldAcceptConcurrencyWhenLanesAreDisabled() {
+        properties.getLanes().setEnabled(false);
+        properties.getPaymentResult().setConcurrency(4);
+        properties.getPaymentResult().setMaxConcurrency(8);
+
+        assertDoesNotThrow(() -> config.paymentResultContainerFactory(connectionFactory, properties));
+    }
+}
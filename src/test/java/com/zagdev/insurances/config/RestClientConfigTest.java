@@ -0,0 +1,65 @@
+package com.zagdev.insurances.config;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@WireMockTest
+class RestClientConfigTest {
+
+    private final RestClientConfig config = new RestClientConfig();
+
+    @Test
+    void shouldUsePooledHttpComponentsFactoryByDefault() {
+        ClientHttpRequestFactory factory = config.fraudApiRequestFactory(new FraudApiProperties());
+
+        assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, factory);
+    }
+
+    @Test
+    void shouldUseJdkFactoryWhenHttp2IsEnabled() {
+        FraudApiProperties properties = new FraudApiProperties();
+        properties.getHttp().setVersion(FraudApiProperties.Version.HTTP_2);
+
+        ClientHttpRequestFactory factory = config.fraudApiRequestFactory(properties);
+
+        assertInstanceOf(JdkClientHttpRequestFactory.class, factory);
+    }
+
+    @Test
+    void shouldReuseConnectionsAcrossRequests(WireMockRuntimeInfo wireMock) {
+        stubFor(get("/ping").willReturn(ok("pong")));
+        RestTemplate restTemplate = config.fraudApiRestTemplate(config.fraudApiRequestFactory(new FraudApiProperties()));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("pong", restTemplate.getForObject(wireMock.getHttpBaseUrl() + "/ping", String.class));
+        }
+
+        verify(5, getRequestedFor(urlEqualTo("/ping")));
+    }
+
+    @Test
+    void shouldFailFastWhenResponseExceedsTimeout(WireMockRuntimeInfo wireMock) {
+        stubFor(get("/slow").willReturn(ok("late").withFixedDelay(2000)));
+        FraudApiProperties properties = new FraudApiProperties();
+        properties.getHttp().setResponseTimeout(Duration.ofMillis(200));
+        properties.getHttp().setReadTimeout(Duration.ofMillis(200));
+        RestTemplate restTemplate = config.fraudApiRestTemplate(config.fraudApiRequestFactory(properties));
+
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class,
+                () -> restTemplate.getForObject(wireMock.getHttpBaseUrl() + "/slow", String.class));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1500);
+    }
+}
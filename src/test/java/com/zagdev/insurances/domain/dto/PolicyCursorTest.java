@@ -0,0 +1,38 @@
+package com.zagdev.insurances.domain.dto;
+
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolicyCursorTest {
+
+    @Test
+    void shouldRoundTripCreationDateAndId() throws InvalidDataException {
+        PolicyCursor cursor = new PolicyCursor(Instant.ofEpochMilli(1_700_000_000_123L), UUID.randomUUID());
+
+        PolicyCursor decoded = PolicyCursor.decode(cursor.encode());
+
+        assertEquals(cursor.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(cursor.getId(), decoded.getId());
+    }
+
+    @Test
+    void shouldFallBackToIdOnlyCursorWhenCreationDateIsMissing() throws InvalidDataException {
+        PolicyDTO policy = new PolicyDTO();
+        policy.setId(UUID.randomUUID());
+
+        PolicyCursor decoded = PolicyCursor.decode(assertDoesNotThrow(() -> PolicyCursor.of(policy).encode()));
+
+        assertNull(decoded.getCreatedAt());
+        assertEquals(policy.getId(), decoded.getId());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(InvalidDataException.class, () -> PolicyCursor.decode("not-a-cursor"));
+    }
+}
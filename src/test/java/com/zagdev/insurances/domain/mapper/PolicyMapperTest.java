@@ -0,0 +1,90 @@
+package com.zagdev.insurances.domain.mapper;
+
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.dto.StatusChange;
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.enums.InsuranceCategory;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolicyMapperTest {
+
+    @Test
+    void shouldRehydrateThePersistedStateAsIs() {
+        Instant createdAt = Instant.parse("2025-01-01T10:00:00Z");
+        Instant finishedAt = Instant.parse("2025-01-01T10:05:00Z");
+        Policy doc = new Policy();
+        doc.setId(UUID.randomUUID());
+        doc.setCustomerId(UUID.randomUUID());
+        doc.setProductId(UUID.randomUUID());
+        doc.setCategory(InsuranceCategory.AUTO);
+        doc.setSalesChannel("MOBILE");
+        doc.setPaymentMethod("PIX");
+        doc.setPaymentConfirmed(true);
+        doc.setSubscriptionAuthorized(false);
+        doc.setTotalMonthlyPremium(BigDecimal.TEN);
+        doc.setInsuredAmount(BigDecimal.valueOf(50_000));
+        doc.setCoverages(Map.of("Roubo", BigDecimal.ONE));
+        doc.setAssistances(List.of("Guincho"));
+        doc.setStatus(PolicyStatus.REJECTED);
+        doc.setCreatedAt(createdAt);
+        doc.setFinishedAt(finishedAt);
+        doc.setValidationError("UNEXPECTED_ERROR");
+        doc.setValidationFailedAt(createdAt);
+        doc.setVersion(4L);
+        doc.setHistory(List.of(history(PolicyStatus.RECEIVED, createdAt), history(PolicyStatus.REJECTED, finishedAt)));
+
+        PolicyDTO domain = PolicyMapper.toDomain(doc);
+
+        assertEquals(doc.getId(), domain.getId());
+        assertEquals(doc.getCustomerId(), domain.getCustomerId());
+        assertEquals(doc.getProductId(), domain.getProductId());
+        assertEquals(InsuranceCategory.AUTO, domain.getCategory());
+        assertEquals("MOBILE", domain.getSalesChannel());
+        assertEquals("PIX", domain.getPaymentMethod());
+        assertTrue(domain.getPaymentConfirmed());
+        assertFalse(domain.getSubscriptionAuthorized());
+        assertEquals(BigDecimal.TEN, domain.getTotalMonthlyPremium());
+        assertEquals(BigDecimal.valueOf(50_000), domain.getInsuredAmount());
+        assertEquals(doc.getCoverages(), domain.getCoverages());
+        assertEquals(doc.getAssistances(), domain.getAssistances());
+        assertEquals(PolicyStatus.REJECTED, domain.getStatus());
+        assertEquals(createdAt, domain.getCreatedAt());
+        assertEquals(finishedAt, domain.getFinishedAt());
+        assertEquals("UNEXPECTED_ERROR", domain.getValidationError());
+        assertEquals(createdAt, domain.getValidationFailedAt());
+        assertEquals(4L, domain.getVersion());
+        assertEquals(List.of(PolicyStatus.RECEIVED, PolicyStatus.REJECTED),
+                domain.getHistory().stream().map(StatusChange::getStatus).toList());
+        assertEquals(List.of(createdAt, finishedAt),
+                domain.getHistory().stream().map(StatusChange::getTimestamp).toList());
+    }
+
+    @Test
+    void shouldRehydrateLegacyDocumentsWithoutVersionOrHistory() {
+        Policy doc = new Policy();
+        doc.setId(UUID.randomUUID());
+        doc.setStatus(PolicyStatus.RECEIVED);
+
+        PolicyDTO domain = PolicyMapper.toDomain(doc);
+
+        assertEquals(0L, domain.getVersion());
+        assertTrue(domain.getHistory().isEmpty());
+        assertNull(domain.getCreatedAt());
+    }
+
+    private static Policy.StatusHistory history(PolicyStatus status, Instant timestamp) {
+        var entry = new Policy.StatusHistory();
+        entry.setStatus(status);
+        entry.setTimestamp(timestamp);
+        return entry;
+    }
+}
@@ -0,0 +1,120 @@
+package com.zagdev.insurances.domain.repositories.implementation;
+
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.entity.PolicyHistoryBucket;
+import com.zagdev.insurances.domain.enums.HistoryMode;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PolicyHistoryRepositoryImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulk;
+
+    private PolicyHistoryRepositoryImpl repository;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PolicyHistoryBucket.class)).thenReturn(bulk);
+        repository = new PolicyHistoryRepositoryImpl(mongoTemplate, HistoryMode.BUCKETED, 50);
+    }
+
+    private static Policy.StatusHistory entry(PolicyStatus status, Instant timestamp) {
+        Policy.StatusHistory entry = new Policy.StatusHistory();
+        entry.setStatus(status);
+        entry.setTimestamp(timestamp);
+        return entry;
+    }
+
+    @Test
+    void shouldNotTouchBucketsInEmbeddedMode() {
+        PolicyHistoryRepositoryImpl embedded = new PolicyHistoryRepositoryImpl(mongoTemplate);
+        Policy policy = new Policy();
+        policy.setHistory(List.of(entry(PolicyStatus.RECEIVED, Instant.now())));
+
+        embedded.archiveHistory(Map.of(UUID.randomUUID(), List.of(entry(PolicyStatus.RECEIVED, Instant.now()))));
+        embedded.loadArchivedHistory(policy);
+
+        verifyNoInteractions(mongoTemplate);
+        assertEquals(1, policy.getHistory().size());
+    }
+
+    @Test
+    void shouldUpsertEntriesIntoOpenBucketPerPolicy() {
+        UUID policyId = UUID.randomUUID();
+        Instant now = Instant.now();
+
+        repository.archiveHistory(Map.of(policyId, List.of(entry(PolicyStatus.VALIDATED, now), entry(PolicyStatus.PENDING, now))));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk).upsert(query.capture(), update.capture());
+        verify(bulk).execute();
+        assertEquals(policyId, query.getValue().getQueryObject().get("policyId"));
+        assertEquals(new Document("$lte", 48), query.getValue().getQueryObject().get("count"));
+        assertEquals(new Document("count", 2), update.getValue().getUpdateObject().get("$inc"));
+        assertEquals(new Document("firstAt", now), update.getValue().getUpdateObject().get("$min"));
+        assertEquals(new Document("lastAt", now), update.getValue().getUpdateObject().get("$max"));
+    }
+
+    @Test
+    void shouldMergeBucketsWithEmbeddedTailWithoutDuplicates() {
+        Instant t0 = Instant.ofEpochMilli(1_000);
+        Instant t1 = Instant.ofEpochMilli(2_000);
+        Instant t2 = Instant.ofEpochMilli(3_000);
+        PolicyHistoryBucket bucket = new PolicyHistoryBucket();
+        bucket.setEntries(List.of(entry(PolicyStatus.RECEIVED, t0), entry(PolicyStatus.VALIDATED, t1), entry(PolicyStatus.PENDING, t1)));
+        when(mongoTemplate.find(any(Query.class), eq(PolicyHistoryBucket.class))).thenReturn(List.of(bucket));
+
+        Policy policy = new Policy();
+        policy.setId(UUID.randomUUID());
+        policy.setHistory(List.of(entry(PolicyStatus.VALIDATED, t1), entry(PolicyStatus.PENDING, t1), entry(PolicyStatus.APPROVED, t2)));
+
+        repository.loadArchivedHistory(policy);
+
+        assertEquals(List.of(PolicyStatus.RECEIVED, PolicyStatus.VALIDATED, PolicyStatus.PENDING, PolicyStatus.APPROVED),
+                policy.getHistory().stream().map(Policy.StatusHistory::getStatus).toList());
+    }
+
+    @Test
+    void shouldSplitLargeBatchesSoNoBucketExceedsItsSize() {
+        repository = new PolicyHistoryRepositoryImpl(mongoTemplate, HistoryMode.BUCKETED, 3);
+        UUID policyId = UUID.randomUUID();
+        Instant now = Instant.now();
+        List<Policy.StatusHistory> history = List.of(entry(PolicyStatus.RECEIVED, now), entry(PolicyStatus.VALIDATED, now),
+                entry(PolicyStatus.PENDING, now), entry(PolicyStatus.APPROVED, now));
+
+        repository.archiveHistory(Map.of(policyId, history));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).upsert(query.capture(), update.capture());
+        assertEquals(new Document("$lte", 0), query.getAllValues().get(0).getQueryObject().get("count"));
+        assertEquals(new Document("count", 3), update.getAllValues().get(0).getUpdateObject().get("$inc"));
+        assertEquals(new Document("$lte", 2), query.getAllValues().get(1).getQueryObject().get("count"));
+        assertEquals(new Document("count", 1), update.getAllValues().get(1).getUpdateObject().get("$inc"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.zagdev.insurances.domain.repositories.implementation;
+
+import com.zagdev.insurances.domain.entity.Policy;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PolicyOutboxRepositoryImplTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private PolicyOutboxRepositoryImpl repository;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        repository = new PolicyOutboxRepositoryImpl(mongoTemplate);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Policy.class)).thenReturn(bulkOperations);
+    }
+
+    private Policy policy(UUID id) {
+        Policy policy = new Policy();
+        policy.setId(id);
+        return policy;
+    }
+
+    @Test
+    void shouldClaimOnlyUnleasedCandidatesAndReadBackByToken() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(mongoTemplate.find(any(Query.class), eq(Policy.class)))
+                .thenReturn(List.of(policy(first), policy(second)))
+                .thenReturn(List.of(policy(first)));
+
+        List<Policy> claimed = repository.claimPendingOutbox("node-1:abc", NOW, NOW.plusSeconds(30), 10);
+
+        assertEquals(1, claimed.size());
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(queries.capture(), eq(Policy.class));
+        Query candidates = queries.getAllValues().get(0);
+        assertEquals(new Document("$not", new Document("$gte", NOW)), candidates.getQueryObject().get("outboxLeaseUntil"));
+        assertEquals(10, candidates.getLimit());
+        assertEquals("node-1:abc", queries.getAllValues().get(1).getQueryObject().get("outboxClaimedBy"));
+
+        ArgumentCaptor<Query> claim = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(claim.capture(), update.capture(), eq(Policy.class));
+        assertEquals(new Document("$in", List.of(first, second)), claim.getValue().getQueryObject().get("_id"));
+        assertEquals(new Document("$not", new Document("$gte", NOW)), claim.getValue().getQueryObject().get("outboxLeaseUntil"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals("node-1:abc", set.get("outboxClaimedBy"));
+        assertEquals(NOW.plusSeconds(30), set.get("outboxLeaseUntil"));
+    }
+
+    @Test
+    void shouldNotClaimWhenNothingIsPending() {
+        when(mongoTemplate.find(any(Query.class), eq(Policy.class))).thenReturn(List.of());
+
+        assertTrue(repository.claimPendingOutbox("node-1:abc", NOW, NOW.plusSeconds(30), 10).isEmpty());
+
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(Policy.class));
+    }
+
+    @Test
+    void shouldAcknowledgeOnlyEntriesStillHeldByTheClaim() {
+        UUID policyId = UUID.randomUUID();
+        UUID eventId = UUID.randomUUID();
+
+        repository.acknowledgeOutbox("node-1:abc", Map.of(policyId, List.of(eventId)));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations).updateOne(query.capture(), update.capture());
+        assertEquals(policyId, query.getValue().getQueryObject().get("_id"));
+        assertEquals("node-1:abc", query.getValue().getQueryObject().get("outboxClaimedBy"));
+        Document unset = update.getValue().getUpdateObject().get("$unset", Document.class);
+        assertTrue(unset.containsKey("outboxClaimedBy"));
+        assertTrue(unset.containsKey("outboxLeaseUntil"));
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    void shouldReleaseClaimByToken() {
+        repository.releaseOutboxClaim("node-1:abc");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(query.capture(), any(Update.class), eq(Policy.class));
+        assertEquals("node-1:abc", query.getValue().getQueryObject().get("outboxClaimedBy"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.zagdev.insurances.domain.repositories.implementation;
+
+import com.zagdev.insurances.domain.dto.PolicyCursor;
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.enums.PolicyField;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PolicyQueryRepositoryImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private PolicyQueryRepositoryImpl repository;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        repository = new PolicyQueryRepositoryImpl(mongoTemplate);
+    }
+
+    @Test
+    void shouldProjectCoreAndRequestedFieldsOnly() {
+        UUID id = UUID.randomUUID();
+
+        repository.findProjectedById(id, EnumSet.of(PolicyField.HISTORY));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(query.capture(), eq(Policy.class));
+        Document fields = query.getValue().getFieldsObject();
+        assertTrue(fields.keySet().containsAll(PolicyField.CORE_FIELDS));
+        assertTrue(fields.containsKey("history"));
+        assertFalse(fields.containsKey("coverages"));
+        assertFalse(fields.containsKey("assistances"));
+        assertFalse(fields.containsKey("outbox"));
+        assertEquals(id, query.getValue().getQueryObject().get("_id"));
+    }
+
+    @Test
+    void shouldLoadWholeDocumentWithoutProjection() {
+        repository.findByCustomerIdAfter(UUID.randomUUID(), null, null, 10);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Policy.class));
+        assertTrue(query.getValue().getFieldsObject().isEmpty());
+        assertEquals(10, query.getValue().getLimit());
+    }
+
+    @Test
+    void shouldContinueAfterCursorInKeysetOrder() {
+        UUID customerId = UUID.randomUUID();
+        PolicyCursor after = new PolicyCursor(Instant.ofEpochMilli(1_000), UUID.randomUUID());
+
+        Query query = PolicyQueryRepositoryImpl.keysetQuery(customerId, after);
+
+        assertEquals(new Document("createdAt", 1).append("_id", 1), query.getSortObject());
+        assertEquals(customerId, query.getQueryObject().get("customerId"));
+        List<?> or = query.getQueryObject().getList("$or", Document.class);
+        assertEquals(2, or.size());
+    }
+
+    @Test
+    void shouldContinueAfterIdOnlyCursorPastPoliciesWithoutCreationDate() {
+        UUID customerId = UUID.randomUUID();
+        PolicyCursor after = new PolicyCursor(null, UUID.randomUUID());
+
+        Query query = PolicyQueryRepositoryImpl.keysetQuery(customerId, after);
+
+        List<Document> or = query.getQueryObject().getList("$or", Document.class);
+        assertEquals(new Document("createdAt", new Document("$ne", null)), or.get(0));
+        assertEquals(after.getId(), or.get(1).get("_id", Document.class).get("$gt"));
+        assertTrue(or.get(1).containsKey("createdAt"));
+        assertNull(or.get(1).get("createdAt"));
+    }
+
+    @Test
+    void shouldFetchSummaryFieldsOnly() {
+        when(mongoTemplate.find(any(Query.class), eq(Policy.class))).thenReturn(List.of());
+
+        repository.findSummariesByCustomerId(UUID.randomUUID());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Policy.class));
+        assertEquals(Set.copyOf(PolicyField.SUMMARY_FIELDS), query.getValue().getFieldsObject().keySet());
+    }
+
+    @Test
+    void shouldFetchOnlyVersionForConditionalReads() {
+        UUID id = UUID.randomUUID();
+        when(mongoTemplate.findOne(any(Query.class), eq(Policy.class))).thenReturn(null);
+
+        assertTrue(repository.findVersionById(id).isEmpty());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(query.capture(), eq(Policy.class));
+        assertEquals(id, query.getValue().getQueryObject().get("_id"));
+        assertEquals(Set.of("version"), query.getValue().getFieldsObject().keySet());
+    }
+}
@@ -0,0 +1,278 @@
+package com.zagdev.insurances.domain.repositories.implementation;
+
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.enums.HistoryMode;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.enums.PolicyTransition;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PolicyTransitionRepositoryImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private PolicyTransitionRepositoryImpl repository;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        repository = new PolicyTransitionRepositoryImpl(mongoTemplate);
+    }
+
+    @Test
+    void shouldApplyTransitionWithStatusPreconditionInSingleFindAndModify() {
+        UUID id = UUID.randomUUID();
+        Instant now = Instant.now();
+        Policy updated = new Policy();
+
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Policy.class)))
+                .thenReturn(updated);
+
+        Optional<Policy> result = repository.applyTransitions(id, List.of(PolicyTransition.APPROVE), now);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(Policy.class));
+
+        assertSame(updated, result.orElseThrow());
+        assertTrue(options.getValue().isReturnNew());
+
+        Document filter = query.getValue().getQueryObject();
+        assertEquals(id, filter.get("_id"));
+        assertEquals(List.of(PolicyStatus.PENDING), List.copyOf((Collection<?>) ((Document) filter.get("status")).get("$in")));
+
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(PolicyStatus.APPROVED, set.get("status"));
+        assertEquals(now, set.get("finishedAt"));
+        Document push = (Document) update.getValue().getUpdateObject().get("$push");
+        assertTrue(push.containsKey("history"));
+        assertTrue(push.containsKey("outbox"));
+    }
+
+    @Test
+    void shouldChainValidationAndPendingInOneUpdate() {
+        Instant now = Instant.now();
+
+        Update update = PolicyTransitionRepositoryImpl.toUpdate(
+                List.of(PolicyTransition.VALIDATE, PolicyTransition.MARK_AS_PENDING), now);
+
+        Document set = (Document) update.getUpdateObject().get("$set");
+        assertEquals(PolicyStatus.PENDING, set.get("status"));
+        assertFalse(set.containsKey("finishedAt"));
+        assertEquals(new Document("version", 1), update.getUpdateObject().get("$inc"));
+        Document unset = (Document) update.getUpdateObject().get("$unset");
+        assertTrue(unset.containsKey("validationError"));
+        assertTrue(unset.containsKey("validationFailedAt"));
+
+        Document push = (Document) update.getUpdateObject().get("$push");
+        assertNotNull(push.get("history"));
+
+        Update.Modifiers modifiers = (Update.Modifiers) push.get("outbox");
+        Policy.OutboxEvent[] events = (Policy.OutboxEvent[]) modifiers.getModifiers().iterator().next().getValue();
+        assertEquals(PolicyStatus.VALIDATED, events[0].getNewStatus());
+        assertEquals(PolicyStatus.PENDING, events[1].getNewStatus());
+    }
+
+    @Test
+    void shouldCapEmbeddedHistoryWhenBucketed() {
+        PolicyTransitionRepositoryImpl bucketed = new PolicyTransitionRepositoryImpl(mongoTemplate, HistoryMode.BUCKETED, 5);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Policy.class)))
+                .thenReturn(new Policy());
+
+        bucketed.applyTransitions(UUID.randomUUID(), List.of(PolicyTransition.CANCEL), Instant.now());
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(Policy.class));
+        Document push = (Document) update.getValue().getUpdateObject().get("$push");
+        Update.Modifiers history = (Update.Modifiers) push.get("history");
+        assertTrue(history.getModifiers().stream().anyMatch(modifier -> "$slice".equals(modifier.getKey()) && Integer.valueOf(-5).equals(modifier.getValue())));
+        Update.Modifiers outbox = (Update.Modifiers) push.get("outbox");
+        assertTrue(outbox.getModifiers().stream().noneMatch(modifier -> "$slice".equals(modifier.getKey())));
+    }
+
+    @Test
+    void shouldRefuseTransitionsThatCannotFollowEachOther() {
+        assertThrows(IllegalArgumentException.class, () -> PolicyTransitionRepositoryImpl.toUpdate(
+                List.of(PolicyTransition.APPROVE, PolicyTransition.MARK_AS_PENDING), Instant.now()));
+        assertThrows(IllegalArgumentException.class, () -> repository.applyTransitions(UUID.randomUUID(), List.of(), Instant.now()));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void shouldReturnEmptyWhenPreconditionDoesNotMatch() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Policy.class)))
+                .thenReturn(null);
+
+        assertTrue(repository.applyTransitions(UUID.randomUUID(), List.of(PolicyTransition.CANCEL), Instant.now()).isEmpty());
+    }
+
+    @Test
+    void shouldApplyGuardedTransitionsInSingleUnorderedBulkWrite() {
+        BulkOperations bulk = mock(BulkOperations.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Policy.class)).thenReturn(bulk);
+        when(bulk.execute()).thenReturn(result);
+        when(result.getModifiedCount()).thenReturn(2);
+
+        UUID validated = UUID.randomUUID();
+        UUID denied = UUID.randomUUID();
+        Map<UUID, List<PolicyTransition>> transitions = new LinkedHashMap<>();
+        transitions.put(validated, List.of(PolicyTransition.VALIDATE, PolicyTransition.MARK_AS_PENDING));
+        transitions.put(denied, List.of(PolicyTransition.DENY));
+
+        int modified = repository.applyTransitionsInBulk(transitions, Instant.now());
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).updateOne(queries.capture(), updates.capture());
+        verify(bulk).execute();
+        assertEquals(2, modified);
+
+        Document firstFilter = queries.getAllValues().get(0).getQueryObject();
+        assertEquals(validated, firstFilter.get("_id"));
+        assertTrue(firstFilter.containsKey("status"));
+        assertEquals(PolicyStatus.PENDING, updates.getAllValues().get(0).getUpdateObject().get("$set", Document.class).get("status"));
+        assertEquals(PolicyStatus.REJECTED, updates.getAllValues().get(1).getUpdateObject().get("$set", Document.class).get("status"));
+    }
+
+    @Test
+    void shouldGuardBulkTransitionsOnStatusAndVersionThatWereRead() {
+        BulkOperations bulk = mock(BulkOperations.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Policy.class)).thenReturn(bulk);
+        when(bulk.execute()).thenReturn(result);
+        when(result.getModifiedCount()).thenReturn(1);
+
+        Policy read = new Policy();
+        read.setId(UUID.randomUUID());
+        read.setStatus(PolicyStatus.APPROVED);
+        read.setVersion(7L);
+
+        int modified = repository.applyTransitionsIfUnchanged(Map.of(read.getId(), List.of(PolicyTransition.DENY)),
+                Map.of(read.getId(), read), Instant.now());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(bulk).updateOne(query.capture(), any(Update.class));
+        assertEquals(1, modified);
+        Document filter = query.getValue().getQueryObject();
+        assertEquals(read.getId(), filter.get("_id"));
+        assertEquals(PolicyStatus.APPROVED, filter.get("status"));
+        assertEquals(7L, filter.get("version"));
+    }
+
+    @Test
+    void shouldSkipBulkWriteWhenThereIsNothingToApply() {
+        assertEquals(0, repository.applyTransitionsInBulk(Map.of(), Instant.now()));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void shouldApproveSettledPoliciesInSingleUnorderedBulkWrite() {
+        BulkOperations bulk = mock(BulkOperations.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Policy.class)).thenReturn(bulk);
+        when(bulk.execute()).thenReturn(result);
+        when(result.getModifiedCount()).thenReturn(1);
+
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        int modified = repository.approveWhenSettledInBulk(List.of(first, second), Instant.now());
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).updateOne(queries.capture(), updates.capture());
+        verify(bulk).execute();
+        assertEquals(1, modified);
+
+        Document filter = queries.getAllValues().get(1).getQueryObject();
+        assertEquals(second, filter.get("_id"));
+        assertEquals(true, filter.get("paymentConfirmed"));
+        assertEquals(true, filter.get("subscriptionAuthorized"));
+        assertTrue(filter.containsKey("status"));
+        assertEquals(PolicyStatus.APPROVED, updates.getAllValues().get(1).getUpdateObject().get("$set", Document.class).get("status"));
+        assertNotEquals(updates.getAllValues().get(0).getUpdateObject().get("$push", Document.class).get("outbox"),
+                updates.getAllValues().get(1).getUpdateObject().get("$push", Document.class).get("outbox"));
+    }
+
+    @Test
+    void shouldRecordValidationFailureOnlyWhilePolicyCanStillBeValidated() {
+        UUID id = UUID.randomUUID();
+        Instant failedAt = Instant.now();
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Policy.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertTrue(repository.recordValidationFailure(id, "INVALID_STATUS", failedAt));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Policy.class));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals(id, filter.get("_id"));
+        assertEquals(PolicyStatus.RECEIVED, filter.get("status"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals("INVALID_STATUS", set.get("validationError"));
+        assertEquals(failedAt, set.get("validationFailedAt"));
+        assertEquals(1, update.getValue().getUpdateObject().get("$inc", Document.class).get("version"));
+    }
+
+    @Test
+    void shouldNotRecordValidationFailureWhenPolicyHasMovedOn() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Policy.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertFalse(repository.recordValidationFailure(UUID.randomUUID(), "INVALID_STATUS", Instant.now()));
+    }
+
+    @Test
+    void shouldSetFlagsForWholeBatchInSingleUpdateMulti() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Policy.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+        int modified = repository.markSubscriptionAuthorizedInBulk(List.of(first, second));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(Policy.class));
+        assertEquals(2, modified);
+        assertEquals(List.of(first, second), query.getValue().getQueryObject().get("_id", Document.class).get("$in"));
+        assertTrue(query.getValue().getQueryObject().containsKey("subscriptionAuthorized"));
+        assertEquals(true, update.getValue().getUpdateObject().get("$set", Document.class).get("subscriptionAuthorized"));
+        assertEquals(1, update.getValue().getUpdateObject().get("$inc", Document.class).get("version"));
+    }
+
+    @Test
+    void shouldSkipBulkSettlementWritesWhenThereIsNothingToApply() {
+        assertEquals(0, repository.approveWhenSettledInBulk(List.of(), Instant.now()));
+        assertEquals(0, repository.markPaymentConfirmedInBulk(List.of()));
+        verifyNoInteractions(mongoTemplate);
+    }
+}
@@ -1,29 +1,42 @@
 package com.zagdev.insurances.domain.services.implementation;
 
+import com.zagdev.insurances.domain.dto.PolicyBatchItemResult;
+import com.zagdev.insurances.domain.dto.PolicyCursor;
 import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.dto.PolicyPage;
 import com.zagdev.insurances.domain.entity.Policy;
 import com.zagdev.insurances.domain.enums.InsuranceCategory;
+import com.zagdev.insurances.domain.enums.PolicyField;
 import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.enums.PolicyTransition;
 import com.zagdev.insurances.domain.enums.RiskClassification;
-import com.zagdev.insurances.domain.event.PolicyEvent;
 import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
 import com.zagdev.insurances.domain.exceptions.ErrorCode;
 import com.zagdev.insurances.domain.exceptions.InvalidDataException;
 import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
 import com.zagdev.insurances.domain.repositories.PolicyMongoRepository;
-import com.zagdev.insurances.infrastructure.EventPublisher;
 import com.zagdev.insurances.infrastructure.FraudApiClient;
+import com.zagdev.insurances.infrastructure.IdGenerator;
+import com.zagdev.insurances.infrastructure.implementation.UuidV7Generator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Stream;
 
@@ -36,8 +49,8 @@ class PolicyServiceImplTest {
     private PolicyMongoRepository repository;
     @Mock
     private FraudApiClient fraudApiClient;
-    @Mock
-    private EventPublisher eventPublisher;
+    @Spy
+    private IdGenerator idGenerator = new UuidV7Generator();
 
     @InjectMocks
     private PolicyServiceImpl service;
@@ -71,15 +84,31 @@ class PolicyServiceImplTest {
         return policy;
     }
 
+    private Policy applied(Policy policy, List<PolicyTransition> transitions) {
+        List<Policy.StatusHistory> history = new ArrayList<>(policy.getHistory());
+        for (PolicyTransition transition : transitions) {
+            Policy.StatusHistory entry = new Policy.StatusHistory();
+            entry.setStatus(transition.getTarget());
+            entry.setTimestamp(Instant.now());
+            history.add(entry);
+            policy.setStatus(transition.getTarget());
+        }
+        policy.setHistory(history);
+        policy.setVersion(policy.getVersion() == null ? 1L : policy.getVersion() + 1);
+        return policy;
+    }
+
     static class SuccessCase {
         String methodName;
         PolicyStatus initialStatus;
         PolicyStatus expectedStatus;
+        PolicyTransition expectedTransition;
 
-        public SuccessCase(String methodName, PolicyStatus initialStatus, PolicyStatus expectedStatus) {
+        public SuccessCase(String methodName, PolicyStatus initialStatus, PolicyStatus expectedStatus, PolicyTransition expectedTransition) {
             this.methodName = methodName;
             this.initialStatus = initialStatus;
             this.expectedStatus = expectedStatus;
+            this.expectedTransition = expectedTransition;
         }
     }
 
@@ -95,9 +124,9 @@ class PolicyServiceImplTest {
 
     static Stream<SuccessCase> provideSuccessCases() {
         return Stream.of(
-                new SuccessCase("approve", PolicyStatus.PENDING, PolicyStatus.APPROVED),
-                new SuccessCase("cancel", PolicyStatus.PENDING, PolicyStatus.CANCELLED),
-                new SuccessCase("reject", PolicyStatus.PENDING, PolicyStatus.REJECTED)
+                new SuccessCase("approve", PolicyStatus.PENDING, PolicyStatus.APPROVED, PolicyTransition.APPROVE),
+                new SuccessCase("cancel", PolicyStatus.PENDING, PolicyStatus.CANCELLED, PolicyTransition.CANCEL),
+                new SuccessCase("reject", PolicyStatus.PENDING, PolicyStatus.REJECTED, PolicyTransition.REJECT)
         );
     }
 
@@ -119,8 +148,8 @@ class PolicyServiceImplTest {
     void shouldTransitionPolicyStatusSuccessfully(SuccessCase testCase) throws DataNotFoundException, InvalidDataException, UnexpectedErrorException {
         Policy policy = buildPolicy(policyId, testCase.initialStatus);
 
-        when(repository.findById(policyId)).thenReturn(Optional.of(policy));
-        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.applyTransitions(eq(policyId), eq(List.of(testCase.expectedTransition)), any()))
+                .thenAnswer(invocation -> Optional.of(applied(policy, invocation.getArgument(1))));
 
         PolicyDTO result = switch (testCase.methodName) {
             case "approve" -> service.approve(policyId);
@@ -131,6 +160,8 @@ class PolicyServiceImplTest {
 
         assertEquals(testCase.expectedStatus, result.getStatus());
         assertTrue(result.getHistory().stream().anyMatch(event -> event.getStatus() == testCase.expectedStatus));
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any());
     }
 
     @ParameterizedTest
@@ -139,6 +170,8 @@ class PolicyServiceImplTest {
         Policy policy = buildPolicy(policyId, testCase.initialStatus);
 
         when(repository.findById(policyId)).thenReturn(Optional.of(policy));
+        when(repository.applyTransitions(eq(policyId), anyList(), any())).thenReturn(Optional.empty());
+        when(repository.existsById(policyId)).thenReturn(true);
 
         Exception ex = assertThrows(InvalidDataException.class, () -> {
             switch (testCase.methodName) {
@@ -151,23 +184,274 @@ class PolicyServiceImplTest {
         });
 
         verify(repository, never()).save(any());
-        verify(eventPublisher, never()).publish(any());
         assertEquals(ex.getMessage(), ErrorCode.INVALID_STATUS.getMessage());
     }
 
+    @Test
+    void shouldThrowNotFoundWhenTransitioningMissingPolicy() {
+        when(repository.applyTransitions(eq(policyId), anyList(), any())).thenReturn(Optional.empty());
+        when(repository.existsById(policyId)).thenReturn(false);
+
+        assertThrows(DataNotFoundException.class, () -> service.approve(policyId));
+    }
+
+    @Test
+    void shouldApproveOnceWhenJoinSettlesBothResults() throws Exception {
+        Policy flagged = buildPolicy(policyId, PolicyStatus.PENDING);
+        flagged.setPaymentConfirmed(true);
+        flagged.setSubscriptionAuthorized(true);
+
+        when(repository.markPaymentConfirmed(policyId)).thenReturn(Optional.of(flagged));
+        when(repository.approveWhenSettled(eq(policyId), any()))
+                .thenReturn(Optional.of(applied(buildPolicy(policyId, PolicyStatus.PENDING), List.of(PolicyTransition.APPROVE))));
+
+        PolicyDTO result = service.confirmPayment(policyId);
+
+        assertEquals(PolicyStatus.APPROVED, result.getStatus());
+        verify(repository).approveWhenSettled(eq(policyId), any());
+    }
+
+    @Test
+    void shouldNotApproveWhileOtherResultIsMissing() throws Exception {
+        Policy flagged = buildPolicy(policyId, PolicyStatus.PENDING);
+        flagged.setSubscriptionAuthorized(true);
+        flagged.setPaymentConfirmed(false);
+
+        when(repository.markSubscriptionAuthorized(policyId)).thenReturn(Optional.of(flagged));
+
+        PolicyDTO result = service.authorizeSubscription(policyId);
+
+        assertEquals(PolicyStatus.PENDING, result.getStatus());
+        verify(repository, never()).approveWhenSettled(any(), any());
+    }
+
+    @Test
+    void shouldReturnCurrentStateWhenJoinWasSettledConcurrently() throws Exception {
+        Policy flagged = buildPolicy(policyId, PolicyStatus.PENDING);
+        flagged.setPaymentConfirmed(true);
+        flagged.setSubscriptionAuthorized(true);
+
+        when(repository.markSubscriptionAuthorized(policyId)).thenReturn(Optional.of(flagged));
+        when(repository.approveWhenSettled(eq(policyId), any())).thenReturn(Optional.empty());
+        when(repository.findById(policyId)).thenReturn(Optional.of(buildPolicy(policyId, PolicyStatus.APPROVED)));
+
+        PolicyDTO result = service.authorizeSubscription(policyId);
+
+        assertEquals(PolicyStatus.APPROVED, result.getStatus());
+        verify(repository).findById(policyId);
+    }
+
+    @Test
+    void shouldRefuseJoinWhenPolicyIsNotPending() {
+        Policy flagged = buildPolicy(policyId, PolicyStatus.CANCELLED);
+        flagged.setPaymentConfirmed(true);
+        flagged.setSubscriptionAuthorized(true);
+
+        when(repository.markPaymentConfirmed(policyId)).thenReturn(Optional.of(flagged));
+        when(repository.approveWhenSettled(eq(policyId), any())).thenReturn(Optional.empty());
+
+        Exception ex = assertThrows(InvalidDataException.class, () -> service.confirmPayment(policyId));
+        assertEquals(ErrorCode.INVALID_STATUS.getMessage(), ex.getMessage());
+    }
+
+    @Test
+    void shouldThrowNotFoundWhenAuthorizingSubscriptionOfMissingPolicy() {
+        when(repository.markSubscriptionAuthorized(policyId)).thenReturn(Optional.empty());
+
+        assertThrows(DataNotFoundException.class, () -> service.authorizeSubscription(policyId));
+    }
+
     @Test
     void shouldCreatePolicySuccessfully() throws InvalidDataException, UnexpectedErrorException {
         PolicyDTO dtoToSave = buildPolicyDTO(null, PolicyStatus.PENDING);
         Policy policySaved = buildPolicy(policyId, PolicyStatus.PENDING);
 
-        when(repository.save(any())).thenReturn(policySaved);
+        when(repository.insert(any(Policy.class))).thenReturn(policySaved);
 
         PolicyDTO result = service.create(dtoToSave);
 
         assertNotNull(result);
         assertEquals(policySaved.getId(), result.getId());
         assertEquals(PolicyStatus.PENDING, result.getStatus());
-        verify(repository).save(any());
+
+        ArgumentCaptor<Policy> saved = ArgumentCaptor.forClass(Policy.class);
+        verify(repository).insert(saved.capture());
+        verify(repository, never()).save(any());
+        assertEquals(1, saved.getValue().getOutbox().size());
+        assertEquals(PolicyStatus.PENDING, saved.getValue().getOutbox().get(0).getNewStatus());
+        assertNotNull(saved.getValue().getOutbox().get(0).getEventId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldBulkInsertPoliciesWithReceivedOutboxEvents() {
+        List<PolicyDTO> requests = List.of(
+                new PolicyDTO(UUID.randomUUID(), UUID.randomUUID(), InsuranceCategory.AUTO, "BROKER", "PIX",
+                        BigDecimal.TEN, BigDecimal.valueOf(50_000), null, null),
+                new PolicyDTO(UUID.randomUUID(), UUID.randomUUID(), InsuranceCategory.LIFE, "BROKER", "PIX",
+                        BigDecimal.TEN, BigDecimal.valueOf(80_000), null, null));
+        when(repository.insertAll(any())).thenReturn(Map.of());
+
+        List<PolicyBatchItemResult> results = service.createAll(requests);
+
+        ArgumentCaptor<List<Policy>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(repository).insertAll(inserted.capture());
+        verify(repository, never()).save(any());
+        assertEquals(2, inserted.getValue().size());
+        inserted.getValue().forEach(document -> {
+            assertEquals(1, document.getOutbox().size());
+            assertEquals(PolicyStatus.RECEIVED, document.getOutbox().get(0).getNewStatus());
+            assertEquals(document.getHistory().get(0).getTimestamp(), document.getOutbox().get(0).getOccurredAt());
+        });
+        assertTrue(results.stream().allMatch(PolicyBatchItemResult::isSucceeded));
+        assertEquals(requests.get(0).getId(), results.get(0).getPolicy().getId());
+        assertEquals(requests.get(1).getId(), results.get(1).getPolicy().getId());
+        assertEquals(7, inserted.getValue().get(0).getId().version());
+        assertTrue(inserted.getValue().get(0).getId().compareTo(inserted.getValue().get(1).getId()) < 0);
+    }
+
+    @Test
+    void shouldReportFailedInsertsPerItem() {
+        PolicyDTO ok = new PolicyDTO(UUID.randomUUID(), UUID.randomUUID(), InsuranceCategory.AUTO, "BROKER", "PIX",
+                BigDecimal.TEN, BigDecimal.valueOf(50_000), null, null);
+        PolicyDTO failed = new PolicyDTO(UUID.randomUUID(), UUID.randomUUID(), InsuranceCategory.AUTO, "BROKER", "PIX",
+                BigDecimal.TEN, BigDecimal.valueOf(50_000), null, null);
+        failed.setId(UUID.randomUUID());
+        when(repository.insertAll(any())).thenReturn(Map.of(failed.getId(), "E11000 duplicate key"));
+
+        List<PolicyBatchItemResult> results = service.createAll(List.of(ok, failed));
+
+        assertTrue(results.get(0).isSucceeded());
+        assertFalse(results.get(1).isSucceeded());
+        assertEquals(ErrorCode.UNEXPECTED_ERROR, results.get(1).getError());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldValidateBatchWithOneLoadAndOneBulkWrite() throws InvalidDataException {
+        PolicyServiceImpl batchService = new PolicyServiceImpl(repository, fraudApiClient, Runnable::run, idGenerator);
+        Policy approved = buildPolicy(UUID.randomUUID(), PolicyStatus.RECEIVED);
+        Policy denied = buildPolicy(UUID.randomUUID(), PolicyStatus.RECEIVED);
+        denied.setInsuredAmount(BigDecimal.valueOf(500_000));
+        Policy cancelled = buildPolicy(UUID.randomUUID(), PolicyStatus.CANCELLED);
+        Policy lookupFails = buildPolicy(UUID.randomUUID(), PolicyStatus.RECEIVED);
+        UUID missing = UUID.randomUUID();
+
+        when(repository.findAllById(any()))
+                .thenReturn(List.of(approved, denied, cancelled, lookupFails))
+                .thenReturn(List.of(
+                        applied(buildPolicy(approved.getId(), PolicyStatus.RECEIVED),
+                                List.of(PolicyTransition.VALIDATE, PolicyTransition.MARK_AS_PENDING)),
+                        applied(buildPolicy(denied.getId(), PolicyStatus.RECEIVED), List.of(PolicyTransition.DENY))));
+        when(fraudApiClient.getRiskClassification(eq(approved.getId()), any(), any())).thenReturn(RiskClassification.PREFERENTIAL);
+        when(fraudApiClient.getRiskClassification(eq(denied.getId()), any(), any())).thenReturn(RiskClassification.HIGH_RISK);
+        when(fraudApiClient.getRiskClassification(eq(lookupFails.getId()), any(), any()))
+                .thenThrow(new InvalidDataException(ErrorCode.INVALID_DATA));
+        when(repository.applyTransitionsIfUnchanged(any(), any(), any())).thenReturn(2);
+
+        List<PolicyBatchItemResult> results = batchService.validateAll(
+                List.of(approved.getId(), denied.getId(), cancelled.getId(), lookupFails.getId(), missing, approved.getId()));
+
+        ArgumentCaptor<Map<UUID, List<PolicyTransition>>> transitions = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<Map<UUID, Policy>> read = ArgumentCaptor.forClass(Map.class);
+        verify(repository).applyTransitionsIfUnchanged(transitions.capture(), read.capture(), any());
+        assertSame(approved, read.getValue().get(approved.getId()));
+        verify(repository, times(2)).findAllById(any());
+        verify(fraudApiClient, times(3)).getRiskClassification(any(), any(), any());
+        assertEquals(List.of(PolicyTransition.VALIDATE, PolicyTransition.MARK_AS_PENDING), transitions.getValue().get(approved.getId()));
+        assertEquals(List.of(PolicyTransition.DENY), transitions.getValue().get(denied.getId()));
+        assertEquals(2, transitions.getValue().size());
+
+        assertEquals(5, results.size());
+        assertEquals(PolicyStatus.PENDING, results.get(0).getPolicy().getStatus());
+        assertEquals(PolicyStatus.REJECTED, results.get(1).getPolicy().getStatus());
+        assertEquals(ErrorCode.INVALID_STATUS, results.get(2).getError());
+        assertEquals(ErrorCode.INVALID_DATA, results.get(3).getError());
+        assertEquals(ErrorCode.POLICY_NOT_FOUND, results.get(4).getError());
+        assertEquals(missing, results.get(4).getId());
+    }
+
+    @Test
+    void shouldFailBatchValidationWhenPolicyChangedSinceItWasRead() throws InvalidDataException {
+        PolicyServiceImpl batchService = new PolicyServiceImpl(repository, fraudApiClient, Runnable::run, idGenerator);
+        Policy policy = buildPolicy(UUID.randomUUID(), PolicyStatus.RECEIVED);
+        policy.setVersion(3L);
+        Policy changed = buildPolicy(policy.getId(), PolicyStatus.RECEIVED);
+        changed.setVersion(4L);
+        Policy validatedElsewhere = applied(changed, List.of(PolicyTransition.VALIDATE, PolicyTransition.MARK_AS_PENDING));
+
+        when(repository.findAllById(any())).thenReturn(List.of(policy)).thenReturn(List.of(validatedElsewhere));
+        when(fraudApiClient.getRiskClassification(any(), any(), any())).thenReturn(RiskClassification.PREFERENTIAL);
+        when(repository.applyTransitionsIfUnchanged(any(), any(), any())).thenReturn(0);
+
+        List<PolicyBatchItemResult> results = batchService.validateAll(List.of(policy.getId()));
+
+        assertEquals(ErrorCode.INVALID_STATUS, results.get(0).getError());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSettlePaymentResultsWithBulkWritesAndOneLoad() {
+        Policy settled = buildPolicy(UUID.randomUUID(), PolicyStatus.APPROVED);
+        settled.setPaymentConfirmed(true);
+        settled.setSubscriptionAuthorized(true);
+        Policy waiting = buildPolicy(UUID.randomUUID(), PolicyStatus.PENDING);
+        waiting.setPaymentConfirmed(true);
+        Policy cancelled = buildPolicy(UUID.randomUUID(), PolicyStatus.CANCELLED);
+        cancelled.setPaymentConfirmed(true);
+        cancelled.setSubscriptionAuthorized(true);
+        Policy failed = buildPolicy(UUID.randomUUID(), PolicyStatus.REJECTED);
+        UUID missing = UUID.randomUUID();
+
+        Set<UUID> confirmed = new LinkedHashSet<>(List.of(settled.getId(), waiting.getId(), cancelled.getId(), missing));
+        when(repository.findAllById(any())).thenReturn(List.of(settled, waiting, cancelled, failed));
+
+        List<PolicyBatchItemResult> results = service.confirmPaymentsInBulk(confirmed, Set.of(failed.getId()));
+
+        verify(repository).markPaymentConfirmedInBulk(confirmed);
+        ArgumentCaptor<Map<UUID, List<PolicyTransition>>> rejections = ArgumentCaptor.forClass(Map.class);
+        verify(repository).applyTransitionsInBulk(rejections.capture(), any());
+        assertEquals(Map.of(failed.getId(), List.of(PolicyTransition.REJECT)), rejections.getValue());
+        verify(repository).approveWhenSettledInBulk(eq(List.copyOf(confirmed)), any());
+        verify(repository).findAllById(any());
+        verify(repository, never()).markPaymentConfirmed(any());
+        verify(repository, never()).approveWhenSettled(any(), any());
+
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).isSucceeded());
+        assertTrue(results.get(1).isSucceeded());
+        assertEquals(ErrorCode.INVALID_STATUS, results.get(2).getError());
+        assertEquals(ErrorCode.POLICY_NOT_FOUND, results.get(3).getError());
+        assertEquals(missing, results.get(3).getId());
+        assertTrue(results.get(4).isSucceeded());
+    }
+
+    @Test
+    void shouldNotApprovePoliciesWhoseSubscriptionFailedInTheSameBatch() {
+        Policy policy = buildPolicy(UUID.randomUUID(), PolicyStatus.REJECTED);
+        when(repository.findAllById(any())).thenReturn(List.of(policy));
+
+        List<PolicyBatchItemResult> results = service.authorizeSubscriptionsInBulk(Set.of(policy.getId()), Set.of(policy.getId()));
+
+        verify(repository).markSubscriptionAuthorizedInBulk(Set.of(policy.getId()));
+        verify(repository).approveWhenSettledInBulk(eq(List.of()), any());
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).isSucceeded());
+    }
+
+    @Test
+    void shouldReportConcurrentlyChangedPoliciesInBatchValidation() throws InvalidDataException {
+        PolicyServiceImpl batchService = new PolicyServiceImpl(repository, fraudApiClient, Runnable::run, idGenerator);
+        Policy policy = buildPolicy(UUID.randomUUID(), PolicyStatus.RECEIVED);
+        Policy cancelledMeanwhile = buildPolicy(policy.getId(), PolicyStatus.CANCELLED);
+
+        when(repository.findAllById(any())).thenReturn(List.of(policy)).thenReturn(List.of(cancelledMeanwhile));
+        when(fraudApiClient.getRiskClassification(any(), any(), any())).thenReturn(RiskClassification.REGULAR);
+
+        List<PolicyBatchItemResult> results = batchService.validateAll(List.of(policy.getId()));
+
+        assertFalse(results.get(0).isSucceeded());
+        assertEquals(ErrorCode.INVALID_STATUS, results.get(0).getError());
     }
 
     @Test
@@ -223,6 +507,99 @@ class PolicyServiceImplTest {
         verify(repository).findByCustomerId(customerId);
     }
 
+    @Test
+    void shouldLoadArchivedHistoryWhenFindingSinglePolicy() throws DataNotFoundException {
+        UUID id = UUID.randomUUID();
+        Policy policy = buildPolicy(id, PolicyStatus.APPROVED);
+
+        when(repository.findById(id)).thenReturn(Optional.of(policy));
+        when(repository.findProjectedById(eq(id), any())).thenReturn(Optional.of(policy));
+
+        service.findById(id);
+        service.findById(id, EnumSet.of(PolicyField.COVERAGES));
+        service.findById(id, EnumSet.of(PolicyField.HISTORY));
+
+        verify(repository, times(2)).loadArchivedHistory(policy);
+    }
+
+    @Test
+    void shouldFindProjectedPolicyWithoutHistory() throws DataNotFoundException {
+        UUID id = UUID.randomUUID();
+        Policy policy = buildPolicy(id, PolicyStatus.APPROVED);
+        policy.setHistory(null);
+        Set<PolicyField> fields = EnumSet.of(PolicyField.COVERAGES);
+
+        when(repository.findProjectedById(id, fields)).thenReturn(Optional.of(policy));
+
+        PolicyDTO result = service.findById(id, fields);
+
+        assertEquals(id, result.getId());
+        assertTrue(result.getHistory().isEmpty());
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void shouldThrowWhenProjectedPolicyNotFound() {
+        UUID id = UUID.randomUUID();
+
+        when(repository.findProjectedById(eq(id), any())).thenReturn(Optional.empty());
+
+        DataNotFoundException ex = assertThrows(DataNotFoundException.class, () -> service.findById(id, Set.of()));
+        assertEquals(ErrorCode.POLICY_NOT_FOUND, ex.getErrorCode());
+    }
+
+    @Test
+    void shouldFindPolicySummariesByCustomer() {
+        UUID customerId = UUID.randomUUID();
+        Policy summary = new Policy();
+        summary.setId(UUID.randomUUID());
+        summary.setStatus(PolicyStatus.PENDING);
+        summary.setCategory(InsuranceCategory.AUTO);
+
+        when(repository.findSummariesByCustomerId(customerId)).thenReturn(List.of(summary));
+
+        List<PolicyDTO> result = service.findSummariesByCustomerId(customerId);
+
+        assertEquals(1, result.size());
+        assertEquals(summary.getId(), result.get(0).getId());
+        assertEquals(InsuranceCategory.AUTO, result.get(0).getCategory());
+        assertTrue(result.get(0).getHistory().isEmpty());
+    }
+
+    @Test
+    void shouldReturnPageWithNextCursorWhenMorePoliciesRemain() {
+        UUID customerId = UUID.randomUUID();
+        PolicyCursor after = new PolicyCursor(Instant.ofEpochMilli(1_000), UUID.randomUUID());
+        Policy policy1 = buildPolicy(UUID.randomUUID(), PolicyStatus.APPROVED);
+        Policy policy2 = buildPolicy(UUID.randomUUID(), PolicyStatus.PENDING);
+        Policy policy3 = buildPolicy(UUID.randomUUID(), PolicyStatus.RECEIVED);
+        policy2.setCreatedAt(Instant.ofEpochMilli(2_000));
+
+        when(repository.findByCustomerIdAfter(customerId, null, after, 3)).thenReturn(List.of(policy1, policy2, policy3));
+
+        PolicyPage page = service.findPageByCustomerId(customerId, null, after, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(policy2.getId(), page.getItems().get(1).getId());
+        assertTrue(page.hasNext());
+        assertEquals(policy2.getId(), page.getNextCursor().getId());
+        assertEquals(policy2.getCreatedAt(), page.getNextCursor().getCreatedAt());
+    }
+
+    @Test
+    void shouldReturnLastPageWithoutNextCursor() {
+        UUID customerId = UUID.randomUUID();
+        Policy policy = buildPolicy(UUID.randomUUID(), PolicyStatus.APPROVED);
+
+        when(repository.findByCustomerIdAfter(customerId, null, null, 3)).thenReturn(List.of(policy));
+
+        PolicyPage page = service.findPageByCustomerId(customerId, null, null, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.hasNext());
+        assertNull(page.getNextCursor());
+    }
+
     @Test
     void shouldValidatePolicyAndPublishEventsSuccessfully() throws DataNotFoundException, InvalidDataException, UnexpectedErrorException {
         UUID requestId = UUID.randomUUID();
@@ -231,15 +608,16 @@ class PolicyServiceImplTest {
         RiskClassification classification = RiskClassification.REGULAR;
 
         when(repository.findById(requestId)).thenReturn(Optional.of(policy));
-        when(fraudApiClient.getRiskClassification(any(), any())).thenReturn(classification);
-        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fraudApiClient.getRiskClassification(any(), any(), any())).thenReturn(classification);
+        when(repository.applyTransitions(eq(requestId), eq(List.of(PolicyTransition.VALIDATE, PolicyTransition.MARK_AS_PENDING)), any()))
+                .thenAnswer(invocation -> Optional.of(applied(buildPolicy(requestId, PolicyStatus.PENDING), invocation.getArgument(1))));
 
         PolicyDTO result = service.validate(requestId);
 
         verify(repository).findById(requestId);
-        verify(fraudApiClient).getRiskClassification(requestId, policyDto.getCustomerId());
-        verify(eventPublisher, times(2)).publish(any(PolicyEvent.class));
-        verify(repository).save(any());
+        verify(fraudApiClient).getRiskClassification(requestId, policyDto.getCustomerId(), policyDto.getProductId());
+        verify(repository).applyTransitions(eq(requestId), eq(List.of(PolicyTransition.VALIDATE, PolicyTransition.MARK_AS_PENDING)), any());
+        verify(repository, never()).save(any());
 
         assertNotNull(result);
         assertEquals(result.getStatus(), PolicyStatus.PENDING);
@@ -248,6 +626,16 @@ class PolicyServiceImplTest {
         assertTrue(result.getHistory().stream().anyMatch(event -> event.getStatus() == PolicyStatus.VALIDATED));
     }
 
+    @Test
+    void shouldRecordValidationFailureByErrorCode() {
+        UUID requestId = UUID.randomUUID();
+        when(repository.recordValidationFailure(eq(requestId), eq("SERVICE_UNAVAILABLE"), any())).thenReturn(true);
+
+        assertTrue(service.recordValidationFailure(requestId, ErrorCode.SERVICE_UNAVAILABLE));
+
+        verify(repository).recordValidationFailure(eq(requestId), eq("SERVICE_UNAVAILABLE"), any(Instant.class));
+    }
+
     @Test
     void shouldValidateAndTransitionToRejected() throws DataNotFoundException, InvalidDataException, UnexpectedErrorException {
         UUID requestId = UUID.randomUUID();
@@ -257,15 +645,13 @@ class PolicyServiceImplTest {
         policy.setInsuredAmount(BigDecimal.valueOf(1_000_000));
 
         when(repository.findById(requestId)).thenReturn(Optional.of(policy));
-        when(fraudApiClient.getRiskClassification(any(), any())).thenReturn(classification);
-        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
-
-        when(fraudApiClient.getRiskClassification(any(), any())).thenReturn(classification);
-        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fraudApiClient.getRiskClassification(any(), any(), any())).thenReturn(classification);
+        when(repository.applyTransitions(eq(requestId), eq(List.of(PolicyTransition.DENY)), any()))
+                .thenAnswer(invocation -> Optional.of(applied(policy, invocation.getArgument(1))));
 
         PolicyDTO result = service.validate(requestId);
 
         assertEquals(PolicyStatus.REJECTED, result.getStatus());
-        verify(eventPublisher).publish(any(PolicyEvent.class));
+        verify(repository).applyTransitions(eq(requestId), eq(List.of(PolicyTransition.DENY)), any());
     }
 }
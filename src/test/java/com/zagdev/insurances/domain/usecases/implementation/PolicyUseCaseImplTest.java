@@ -1,23 +1,44 @@
 package com.zagdev.insurances.domain.usecases.implementation;
 
+import com.zagdev.insurances.domain.dto.PolicyBatchItemResult;
 import com.zagdev.insurances.domain.dto.PolicyDTO;
 import com.zagdev.insurances.domain.enums.PolicyStatus;
 import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
 import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.domain.exceptions.ServiceUnavailableException;
 import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
+import com.zagdev.insurances.domain.mapper.PolicyMapper;
 import com.zagdev.insurances.domain.services.PolicyService;
+import com.zagdev.insurances.infrastructure.IdGenerator;
+import com.zagdev.insurances.infrastructure.IdempotencyStore;
+import com.zagdev.insurances.infrastructure.PolicyCache;
+import com.zagdev.insurances.infrastructure.dto.IdempotencyClaim;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,12 +47,31 @@ class PolicyUseCaseImplTest {
     @Mock
     private PolicyService policyService;
 
+    @Mock
+    private Executor validationExecutor;
+
+    @Mock
+    private PolicyCache policyCache;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    private final IdempotencyClaim claim = IdempotencyClaim.claimed("key-1", Instant.parse("2025-01-01T10:00:00Z"));
+
+    @Mock
+    private IdGenerator idGenerator;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private PolicyUseCaseImpl useCase;
 
     @BeforeEach
-    void setup() {
+    void setup() throws DataNotFoundException {
         MockitoAnnotations.openMocks(this);
+        when(policyCache.get(any(), any())).thenAnswer(invocation ->
+                invocation.<PolicyCache.Loader>getArgument(1).load(invocation.getArgument(0)));
     }
 
     private PolicyDTO buildPolicyDTO(UUID id, PolicyStatus status) {
@@ -143,5 +183,253 @@ class PolicyUseCaseImplTest {
         assertEquals(PolicyStatus.REJECTED, result.getStatus());
         verify(policyService).reject(id);
     }
-}
 
+    @Test
+    void shouldDelegateConfirmPayment() throws DataNotFoundException, InvalidDataException, UnexpectedErrorException {
+        UUID id = UUID.randomUUID();
+        PolicyDTO expected = buildPolicyDTO(id, PolicyStatus.APPROVED);
+        when(policyService.confirmPayment(id)).thenReturn(expected);
+
+        PolicyDTO result = useCase.confirmPayment(id);
+
+        assertSame(expected, result);
+        verify(policyService).confirmPayment(id);
+    }
+
+    @Test
+    void shouldInvalidateEveryPolicyTouchedByBulkPaymentJoin() {
+        UUID approved = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        List<PolicyBatchItemResult> expected = List.of(
+                PolicyBatchItemResult.succeeded(buildPolicyDTO(approved, PolicyStatus.APPROVED)),
+                PolicyBatchItemResult.failed(missing, ErrorCode.POLICY_NOT_FOUND));
+        when(policyService.confirmPaymentsInBulk(Set.of(approved), Set.of(missing))).thenReturn(expected);
+
+        List<PolicyBatchItemResult> results = useCase.confirmPaymentsInBulk(Set.of(approved), Set.of(missing));
+
+        assertSame(expected, results);
+        verify(policyCache).invalidate(approved);
+        verify(policyCache).invalidate(missing);
+    }
+
+    @Test
+    void shouldQueueValidationAndReturnCurrentState() throws Exception {
+        UUID id = UUID.randomUUID();
+        PolicyDTO current = buildPolicyDTO(id, PolicyStatus.RECEIVED);
+        when(policyService.findById(id)).thenReturn(current);
+
+        PolicyDTO result = useCase.submitValidation(id);
+
+        assertSame(current, result);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(validationExecutor).execute(task.capture());
+        verify(policyService, never()).validate(id);
+
+        task.getValue().run();
+
+        verify(policyService).validate(id);
+    }
+
+    @Test
+    void shouldSwallowFailuresOfQueuedValidation() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(policyService.findById(id)).thenReturn(buildPolicyDTO(id, PolicyStatus.RECEIVED));
+        when(policyService.validate(id)).thenThrow(new InvalidDataException(ErrorCode.INVALID_STATUS));
+        useCase.submitValidation(id);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(validationExecutor).execute(task.capture());
+
+        assertDoesNotThrow(() -> task.getValue().run());
+    }
+
+    @Test
+    void shouldRecordFailureOfQueuedValidation() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(policyService.findById(id)).thenReturn(buildPolicyDTO(id, PolicyStatus.RECEIVED));
+        when(policyService.validate(id)).thenThrow(new InvalidDataException(ErrorCode.INVALID_STATUS));
+        when(policyService.recordValidationFailure(id, ErrorCode.INVALID_STATUS)).thenReturn(true);
+        useCase.submitValidation(id);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(validationExecutor).execute(task.capture());
+
+        task.getValue().run();
+
+        verify(policyService).recordValidationFailure(id, ErrorCode.INVALID_STATUS);
+        verify(policyCache).invalidate(id);
+        assertEquals(1.0, meterRegistry.get("policy.validation.async.failures").tag("error", "INVALID_STATUS").counter().count());
+    }
+
+    @Test
+    void shouldRecordUnexpectedFailureOfQueuedValidation() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(policyService.findById(id)).thenReturn(buildPolicyDTO(id, PolicyStatus.RECEIVED));
+        when(policyService.validate(id)).thenThrow(new IllegalStateException("boom"));
+        doThrow(new IllegalStateException("down")).when(policyService).recordValidationFailure(id, ErrorCode.UNEXPECTED_ERROR);
+        useCase.submitValidation(id);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(validationExecutor).execute(task.capture());
+
+        assertDoesNotThrow(() -> task.getValue().run());
+
+        verify(policyCache, never()).invalidate(id);
+        assertEquals(1.0, meterRegistry.get("policy.validation.async.failures").tag("error", "UNEXPECTED_ERROR").counter().count());
+    }
+
+    @Test
+    void shouldRejectSubmissionWhenQueueIsFull() throws DataNotFoundException {
+        UUID id = UUID.randomUUID();
+        when(policyService.findById(id)).thenReturn(buildPolicyDTO(id, PolicyStatus.RECEIVED));
+        doThrow(new RejectedExecutionException("full")).when(validationExecutor).execute(any());
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () -> useCase.submitValidation(id));
+
+        assertEquals(ErrorCode.SERVICE_UNAVAILABLE, ex.getErrorCode());
+    }
+
+    @Test
+    void shouldRejectSubmissionForCancelledPolicy() throws DataNotFoundException {
+        UUID id = UUID.randomUUID();
+        when(policyService.findById(id)).thenReturn(buildPolicyDTO(id, PolicyStatus.CANCELLED));
+
+        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> useCase.submitValidation(id));
+
+        assertEquals(ErrorCode.INVALID_STATUS, ex.getErrorCode());
+        verify(validationExecutor, never()).execute(any());
+    }
+
+    @Test
+    void shouldInvalidateCachedPolicyAfterTransition() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(policyService.approve(id)).thenReturn(buildPolicyDTO(id, PolicyStatus.APPROVED));
+
+        useCase.approve(id);
+
+        verify(policyCache).invalidate(id);
+    }
+
+    @Test
+    void shouldNotInvalidateCachedPolicyWhenTransitionFails() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(policyService.cancel(id)).thenThrow(new InvalidDataException(ErrorCode.INVALID_STATUS));
+
+        assertThrows(InvalidDataException.class, () -> useCase.cancel(id));
+
+        verify(policyCache, never()).invalidate(any());
+    }
+
+    @Test
+    void shouldAnswerVersionFromCacheWithoutLoadingPolicy() throws Exception {
+        UUID id = UUID.randomUUID();
+        PolicyDTO cached = buildPolicyDTO(id, PolicyStatus.PENDING);
+        cached.setVersion(3);
+        when(policyCache.getIfPresent(id)).thenReturn(cached);
+
+        assertEquals(3, useCase.findVersionById(id));
+
+        verify(policyService, never()).findVersionById(any());
+    }
+
+    @Test
+    void shouldCreateAndRecordPolicyForNewIdempotencyKey() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        PolicyDTO request = buildPolicyDTO(null, PolicyStatus.RECEIVED);
+        when(idempotencyStore.claim(any(), any())).thenReturn(claim);
+        when(idGenerator.next()).thenReturn(policyId);
+        when(idempotencyStore.reserve(claim, policyId)).thenReturn(policyId);
+        when(policyService.create(request)).thenReturn(request);
+
+        PolicyDTO result = useCase.create(request, "key-1");
+
+        assertSame(request, result);
+        assertEquals(policyId, request.getId());
+        verify(idempotencyStore).claim("key-1", PolicyMapper.toFingerprint(request));
+        verify(idempotencyStore).complete(claim, request);
+        verify(policyService, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void shouldNotCreateAgainWhenCompletingIdempotencyKeyFailedAfterCreation() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        PolicyDTO request = buildPolicyDTO(null, PolicyStatus.RECEIVED);
+        PolicyDTO created = buildPolicyDTO(policyId, PolicyStatus.RECEIVED);
+        when(idempotencyStore.claim(any(), any())).thenReturn(claim);
+        when(idGenerator.next()).thenReturn(policyId, UUID.randomUUID());
+        when(idempotencyStore.reserve(any(), any())).thenReturn(policyId);
+        when(policyService.create(request)).thenReturn(created);
+        doThrow(new IllegalStateException("mongo down")).when(idempotencyStore).complete(claim, created);
+
+        assertThrows(IllegalStateException.class, () -> useCase.create(request, "key-1"));
+        verify(idempotencyStore, never()).release(any());
+
+        doNothing().when(idempotencyStore).complete(any(), any());
+        when(policyService.findById(policyId)).thenReturn(created);
+
+        PolicyDTO result = useCase.create(buildPolicyDTO(null, PolicyStatus.RECEIVED), "key-1");
+
+        assertSame(created, result);
+        verify(policyService, times(1)).create(any());
+        verify(idempotencyStore, times(2)).complete(claim, created);
+    }
+
+    @Test
+    void shouldCreateWithReservedIdWhenPreviousAttemptDidNotCreatePolicy() throws Exception {
+        UUID reservedId = UUID.randomUUID();
+        PolicyDTO request = buildPolicyDTO(null, PolicyStatus.RECEIVED);
+        when(idempotencyStore.claim(any(), any())).thenReturn(claim);
+        when(idGenerator.next()).thenReturn(UUID.randomUUID());
+        when(idempotencyStore.reserve(any(), any())).thenReturn(reservedId);
+        when(policyService.findById(reservedId)).thenThrow(new DataNotFoundException(ErrorCode.POLICY_NOT_FOUND));
+        when(policyService.create(request)).thenReturn(request);
+
+        useCase.create(request, "key-1");
+
+        assertEquals(reservedId, request.getId());
+        verify(idempotencyStore).complete(claim, request);
+    }
+
+    @Test
+    void shouldReplayPolicyForRepeatedIdempotencyKey() throws Exception {
+        PolicyDTO request = buildPolicyDTO(UUID.randomUUID(), PolicyStatus.RECEIVED);
+        PolicyDTO original = buildPolicyDTO(UUID.randomUUID(), PolicyStatus.RECEIVED);
+        when(idempotencyStore.claim(any(), any())).thenReturn(IdempotencyClaim.replay("key-1", original));
+
+        PolicyDTO result = useCase.create(request, "key-1");
+
+        assertSame(original, result);
+        verify(policyService, never()).create(any());
+        verify(idempotencyStore, never()).complete(any(), any());
+    }
+
+    @Test
+    void shouldReleaseIdempotencyKeyWhenCreationFails() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        PolicyDTO request = buildPolicyDTO(null, PolicyStatus.RECEIVED);
+        when(idempotencyStore.claim(any(), any())).thenReturn(claim);
+        when(idGenerator.next()).thenReturn(policyId);
+        when(idempotencyStore.reserve(claim, policyId)).thenReturn(policyId);
+        when(policyService.create(request)).thenThrow(new UnexpectedErrorException(ErrorCode.UNEXPECTED_ERROR, new IllegalStateException("boom")));
+
+        assertThrows(UnexpectedErrorException.class, () -> useCase.create(request, "key-1"));
+
+        verify(idempotencyStore).release(claim);
+        verify(idempotencyStore, never()).complete(any(), any());
+    }
+
+    @Test
+    void shouldCompleteWithPolicyCreatedByConcurrentHolderOfTheSameKey() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        PolicyDTO request = buildPolicyDTO(null, PolicyStatus.RECEIVED);
+        PolicyDTO created = buildPolicyDTO(policyId, PolicyStatus.RECEIVED);
+        when(idempotencyStore.claim(any(), any())).thenReturn(claim);
+        when(idGenerator.next()).thenReturn(policyId);
+        when(idempotencyStore.reserve(claim, policyId)).thenReturn(policyId);
+        when(policyService.create(request)).thenThrow(new DuplicateKeyException("duplicate policy id"));
+        when(policyService.findById(policyId)).thenReturn(created);
+
+        PolicyDTO result = useCase.create(request, "key-1");
+
+        assertSame(created, result);
+        verify(idempotencyStore).complete(claim, created);
+        verify(idempotencyStore, never()).release(any());
+    }
+}
@@ -0,0 +1,178 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.zagdev.insurances.config.FraudApiProperties;
+import com.zagdev.insurances.domain.enums.RiskClassification;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.infrastructure.FraudApiClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+class CachingFraudApiClientTest {
+
+    @Mock
+    private FraudApiClient delegate;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final Queue<Runnable> refreshes = new ArrayDeque<>();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private FraudApiProperties.Cache properties;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new FraudApiProperties.Cache();
+        properties.setTtl(Duration.ofMinutes(10));
+        properties.setRefreshAfter(Duration.ofMinutes(2));
+    }
+
+    private CachingFraudApiClient client() {
+        return new CachingFraudApiClient(delegate, properties, meterRegistry, nanos::get, refreshes::add);
+    }
+
+    private void runPendingRefreshes() {
+        while (!refreshes.isEmpty()) {
+            refreshes.poll().run();
+        }
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void shouldCallFraudApiOncePerCustomerWithinTtl() throws InvalidDataException {
+        UUID customerId = UUID.randomUUID();
+        when(delegate.getRiskClassification(any(), eq(customerId))).thenReturn(RiskClassification.REGULAR);
+        CachingFraudApiClient client = client();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(RiskClassification.REGULAR,
+                    client.getRiskClassification(UUID.randomUUID(), customerId, UUID.randomUUID()));
+        }
+
+        verify(delegate, times(1)).getRiskClassification(any(), eq(customerId));
+        assertEquals(9.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void shouldKeyByProductWhenConfigured() throws InvalidDataException {
+        properties.setKeyByProduct(true);
+        UUID customerId = UUID.randomUUID();
+        when(delegate.getRiskClassification(any(), eq(customerId))).thenReturn(RiskClassification.REGULAR);
+        CachingFraudApiClient client = client();
+
+        client.getRiskClassification(UUID.randomUUID(), customerId, UUID.randomUUID());
+        client.getRiskClassification(UUID.randomUUID(), customerId, UUID.randomUUID());
+
+        verify(delegate, times(2)).getRiskClassification(any(), eq(customerId));
+    }
+
+    @Test
+    void shouldServeStaleValueAndRefreshInBackgroundWithRequestingOrderId() throws InvalidDataException {
+        UUID firstOrderId = UUID.randomUUID();
+        UUID secondOrderId = UUID.randomUUID();
+        UUID customerId = UUID.randomUUID();
+        when(delegate.getRiskClassification(firstOrderId, customerId)).thenReturn(RiskClassification.REGULAR);
+        when(delegate.getRiskClassification(secondOrderId, customerId)).thenReturn(RiskClassification.HIGH_RISK);
+        CachingFraudApiClient client = client();
+
+        client.getRiskClassification(firstOrderId, customerId);
+        advance(Duration.ofMinutes(3));
+
+        assertEquals(RiskClassification.REGULAR, client.getRiskClassification(secondOrderId, customerId));
+        runPendingRefreshes();
+        assertEquals(RiskClassification.HIGH_RISK, client.getRiskClassification(UUID.randomUUID(), customerId));
+        verify(delegate, times(1)).getRiskClassification(firstOrderId, customerId);
+        verify(delegate, times(1)).getRiskClassification(secondOrderId, customerId);
+    }
+
+    @Test
+    void shouldScheduleOneRefreshPerKeyAtATime() throws InvalidDataException {
+        UUID customerId = UUID.randomUUID();
+        when(delegate.getRiskClassification(any(), eq(customerId))).thenReturn(RiskClassification.REGULAR);
+        CachingFraudApiClient client = client();
+
+        client.getRiskClassification(UUID.randomUUID(), customerId);
+        advance(Duration.ofMinutes(3));
+        for (int i = 0; i < 5; i++) {
+            client.getRiskClassification(UUID.randomUUID(), customerId);
+        }
+
+        assertEquals(1, refreshes.size());
+    }
+
+    @Test
+    void shouldKeepServingStaleValueWhenRefreshQueueIsFull() throws InvalidDataException {
+        UUID customerId = UUID.randomUUID();
+        when(delegate.getRiskClassification(any(), eq(customerId))).thenReturn(RiskClassification.REGULAR);
+        CachingFraudApiClient client = new CachingFraudApiClient(delegate, properties, meterRegistry, nanos::get,
+                task -> {
+                    throw new RejectedExecutionException("full");
+                });
+
+        client.getRiskClassification(UUID.randomUUID(), customerId);
+        advance(Duration.ofMinutes(3));
+
+        assertEquals(RiskClassification.REGULAR, client.getRiskClassification(UUID.randomUUID(), customerId));
+        verify(delegate, times(1)).getRiskClassification(any(), eq(customerId));
+    }
+
+    @Test
+    void shouldReloadAfterTtlExpires() throws InvalidDataException {
+        UUID customerId = UUID.randomUUID();
+        when(delegate.getRiskClassification(any(), eq(customerId))).thenReturn(RiskClassification.REGULAR);
+        CachingFraudApiClient client = client();
+
+        client.getRiskClassification(UUID.randomUUID(), customerId);
+        advance(Duration.ofMinutes(11));
+        client.getRiskClassification(UUID.randomUUID(), customerId);
+
+        verify(delegate, times(2)).getRiskClassification(any(), eq(customerId));
+    }
+
+    @Test
+    void shouldNotCacheFailures() throws InvalidDataException {
+        UUID customerId = UUID.randomUUID();
+        when(delegate.getRiskClassification(any(), eq(customerId)))
+                .thenThrow(new InvalidDataException(ErrorCode.INVALID_DATA))
+                .thenReturn(RiskClassification.PREFERENTIAL);
+        CachingFraudApiClient client = client();
+
+        InvalidDataException ex = assertThrows(InvalidDataException.class,
+                () -> client.getRiskClassification(UUID.randomUUID(), customerId));
+        assertEquals(ErrorCode.INVALID_DATA, ex.getErrorCode());
+        assertEquals(RiskClassification.PREFERENTIAL, client.getRiskClassification(UUID.randomUUID(), customerId));
+    }
+
+    @Test
+    void shouldEvictWhenMaximumSizeIsExceeded() throws InvalidDataException {
+        properties.setMaximumSize(1);
+        when(delegate.getRiskClassification(any(), any())).thenReturn(RiskClassification.REGULAR);
+        CachingFraudApiClient client = client();
+
+        for (int i = 0; i < 5; i++) {
+            client.getRiskClassification(UUID.randomUUID(), UUID.randomUUID());
+            runPendingRefreshes();
+        }
+
+        assertTrue(meterRegistry.get("cache.evictions").functionCounter().count() > 0);
+    }
+}
@@ -0,0 +1,139 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.infrastructure.PolicyCache;
+import org.junit.jupiter.api.Test;
+
+class CaffeinePolicyCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private CaffeinePolicyCache cache(boolean enabled) {
+        return new CaffeinePolicyCache(enabled, 100, Duration.ofMinutes(5), Duration.ofSeconds(2), nanos::get);
+    }
+
+    private PolicyCache.Loader loader(PolicyStatus status) {
+        return id -> {
+            loads.incrementAndGet();
+            PolicyDTO dto = new PolicyDTO();
+            dto.setId(id);
+            dto.setStatus(status);
+            return dto;
+        };
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCacheWhileCoherent() throws DataNotFoundException {
+        CaffeinePolicyCache cache = cache(true);
+        cache.setCoherent(true);
+        UUID id = UUID.randomUUID();
+
+        cache.get(id, loader(PolicyStatus.RECEIVED));
+        advance(Duration.ofMinutes(4));
+        PolicyDTO result = cache.get(id, loader(PolicyStatus.RECEIVED));
+
+        assertEquals(id, result.getId());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldUseFallbackTtlWhenChangeStreamIsUnavailable() throws DataNotFoundException {
+        CaffeinePolicyCache cache = cache(true);
+        UUID id = UUID.randomUUID();
+
+        cache.get(id, loader(PolicyStatus.RECEIVED));
+        advance(Duration.ofSeconds(1));
+        cache.get(id, loader(PolicyStatus.RECEIVED));
+        advance(Duration.ofSeconds(2));
+        cache.get(id, loader(PolicyStatus.RECEIVED));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldReloadAfterInvalidation() throws DataNotFoundException {
+        CaffeinePolicyCache cache = cache(true);
+        cache.setCoherent(true);
+        UUID id = UUID.randomUUID();
+
+        cache.get(id, loader(PolicyStatus.RECEIVED));
+        cache.invalidate(id);
+        PolicyDTO result = cache.get(id, loader(PolicyStatus.APPROVED));
+
+        assertEquals(PolicyStatus.APPROVED, result.getStatus());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldDropEntryLoadedConcurrentlyWithInvalidation() throws DataNotFoundException {
+        CaffeinePolicyCache cache = cache(true);
+        cache.setCoherent(true);
+        UUID id = UUID.randomUUID();
+
+        PolicyDTO stale = cache.get(id, requested -> {
+            PolicyDTO dto = loader(PolicyStatus.RECEIVED).load(requested);
+            cache.invalidate(requested);
+            return dto;
+        });
+        PolicyDTO fresh = cache.get(id, loader(PolicyStatus.APPROVED));
+
+        assertEquals(PolicyStatus.RECEIVED, stale.getStatus());
+        assertEquals(PolicyStatus.APPROVED, fresh.getStatus());
+    }
+
+    @Test
+    void shouldClearEntriesWhenCoherenceChanges() throws DataNotFoundException {
+        CaffeinePolicyCache cache = cache(true);
+        cache.setCoherent(true);
+        UUID id = UUID.randomUUID();
+
+        cache.get(id, loader(PolicyStatus.RECEIVED));
+        cache.setCoherent(false);
+        cache.get(id, loader(PolicyStatus.RECEIVED));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldNotCacheMissingPolicies() {
+        CaffeinePolicyCache cache = cache(true);
+        UUID id = UUID.randomUUID();
+        PolicyCache.Loader missing = requested -> {
+            loads.incrementAndGet();
+            throw new DataNotFoundException(ErrorCode.POLICY_NOT_FOUND);
+        };
+
+        assertThrows(DataNotFoundException.class, () -> cache.get(id, missing));
+        assertThrows(DataNotFoundException.class, () -> cache.get(id, missing));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldBypassCacheWhenDisabled() throws DataNotFoundException {
+        CaffeinePolicyCache cache = cache(false);
+        cache.setCoherent(true);
+        UUID id = UUID.randomUUID();
+
+        cache.get(id, loader(PolicyStatus.RECEIVED));
+        cache.get(id, loader(PolicyStatus.RECEIVED));
+
+        assertEquals(2, loads.get());
+    }
+}
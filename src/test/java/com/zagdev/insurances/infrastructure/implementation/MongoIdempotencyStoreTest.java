@@ -0,0 +1,219 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.entity.IdempotencyRecord;
+import com.zagdev.insurances.domain.enums.InsuranceCategory;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.exceptions.ConflictException;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.domain.mapper.PolicyMapper;
+import com.zagdev.insurances.infrastructure.dto.IdempotencyClaim;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+class MongoIdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private MongoIdempotencyStore store;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        store = new MongoIdempotencyStore(mongoTemplate, Duration.ofHours(24), Duration.ofSeconds(30), 100,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private PolicyDTO policy() {
+        PolicyDTO dto = new PolicyDTO();
+        dto.setId(UUID.randomUUID());
+        dto.setCustomerId(UUID.randomUUID());
+        dto.setCategory(InsuranceCategory.AUTO);
+        dto.setStatus(PolicyStatus.RECEIVED);
+        return dto;
+    }
+
+    private IdempotencyRecord record(String fingerprint, boolean completed, Instant createdAt) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId("key-1");
+        record.setFingerprint(fingerprint);
+        record.setCompleted(completed);
+        record.setCreatedAt(createdAt);
+        return record;
+    }
+
+    @Test
+    void shouldClaimNewKeyWithExpiry() throws Exception {
+        IdempotencyClaim claim = store.claim("key-1", "fp");
+
+        assertTrue(claim.getReplay().isEmpty());
+        assertEquals(NOW, claim.getClaimedAt());
+        ArgumentCaptor<IdempotencyRecord> record = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(mongoTemplate).insert(record.capture());
+        assertEquals("key-1", record.getValue().getId());
+        assertFalse(record.getValue().isCompleted());
+        assertEquals(NOW.plus(Duration.ofHours(24)), record.getValue().getExpiresAt());
+    }
+
+    @Test
+    void shouldReplayCompletedRequestFromStoreAndThenFromCache() throws Exception {
+        PolicyDTO original = policy();
+        IdempotencyRecord completed = record("fp", true, NOW.minusSeconds(5));
+        completed.setPolicy(PolicyMapper.toDocument(original));
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(mongoTemplate.findById("key-1", IdempotencyRecord.class)).thenReturn(completed);
+
+        IdempotencyClaim first = store.claim("key-1", "fp");
+        IdempotencyClaim second = store.claim("key-1", "fp");
+
+        assertEquals(original.getId(), first.getReplay().orElseThrow().getId());
+        assertEquals(original.getId(), second.getReplay().orElseThrow().getId());
+        verify(mongoTemplate, times(1)).findById("key-1", IdempotencyRecord.class);
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentRequest() {
+        IdempotencyRecord completed = record("fp", true, NOW.minusSeconds(5));
+        completed.setPolicy(PolicyMapper.toDocument(policy()));
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(mongoTemplate.findById("key-1", IdempotencyRecord.class)).thenReturn(completed);
+
+        InvalidDataException e = assertThrows(InvalidDataException.class, () -> store.claim("key-1", "other"));
+
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_REUSED, e.getErrorCode());
+    }
+
+    @Test
+    void shouldShortCircuitConcurrentDuplicate() {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(mongoTemplate.findById("key-1", IdempotencyRecord.class)).thenReturn(record("fp", false, NOW.minusSeconds(1)));
+
+        ConflictException e = assertThrows(ConflictException.class, () -> store.claim("key-1", "fp"));
+
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_IN_USE, e.getErrorCode());
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class));
+    }
+
+    @Test
+    void shouldTakeOverAbandonedClaim() throws Exception {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(mongoTemplate.findById("key-1", IdempotencyRecord.class)).thenReturn(record("fp", false, NOW.minusSeconds(60)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        IdempotencyClaim claim = store.claim("key-1", "fp");
+
+        assertTrue(claim.getReplay().isEmpty());
+        assertEquals(NOW, claim.getClaimedAt());
+    }
+
+    @Test
+    void shouldCacheCompletedResultSoReplaysSkipMongo() throws Exception {
+        PolicyDTO created = policy();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenReturn(record("fp", false, NOW));
+
+        IdempotencyClaim claim = store.claim("key-1", "fp");
+        store.complete(claim, created);
+        IdempotencyClaim replay = store.claim("key-1", "fp");
+
+        assertEquals(created.getId(), replay.getReplay().orElseThrow().getId());
+        verify(mongoTemplate, times(1)).insert(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void shouldOnlyReleaseUnfinishedClaimsStillHeldByTheCaller() {
+        when(mongoTemplate.remove(any(Query.class), eq(IdempotencyRecord.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        store.release(IdempotencyClaim.claimed("key-1", NOW));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(query.capture(), eq(IdempotencyRecord.class));
+        assertEquals(false, query.getValue().getQueryObject().get("completed"));
+        assertEquals(NOW, query.getValue().getQueryObject().get("createdAt"));
+    }
+
+    @Test
+    void shouldNotCompleteClaimTakenOverByAnotherRequest() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(IdempotencyRecord.class))).thenReturn(null);
+        IdempotencyClaim stale = IdempotencyClaim.claimed("key-1", NOW.minusSeconds(60));
+
+        store.complete(stale, policy());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), eq(IdempotencyRecord.class));
+        assertEquals(NOW.minusSeconds(60), query.getValue().getQueryObject().get("createdAt"));
+        verify(mongoTemplate, never()).findById("key-1", IdempotencyRecord.class);
+    }
+
+    @Test
+    void shouldReserveCandidatePolicyIdOnFirstAttempt() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        IdempotencyRecord record = record("fp", false, NOW);
+        record.setPolicyId(policyId);
+        when(mongoTemplate.findById("key-1", IdempotencyRecord.class)).thenReturn(record);
+
+        assertEquals(policyId, store.reserve(IdempotencyClaim.claimed("key-1", NOW), policyId));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(IdempotencyRecord.class));
+        assertEquals(NOW, query.getValue().getQueryObject().get("createdAt"));
+        assertEquals(policyId, update.getValue().getUpdateObject().get("$set", Document.class).get("policyId"));
+    }
+
+    @Test
+    void shouldKeepPolicyIdReservedBeforeTakeOver() throws Exception {
+        UUID reservedId = UUID.randomUUID();
+        IdempotencyRecord record = record("fp", false, NOW);
+        record.setPolicyId(reservedId);
+        when(mongoTemplate.findById("key-1", IdempotencyRecord.class)).thenReturn(record);
+
+        assertEquals(reservedId, store.reserve(IdempotencyClaim.claimed("key-1", NOW), UUID.randomUUID()));
+    }
+
+    @Test
+    void shouldRejectReservationByStaleHolder() {
+        IdempotencyRecord record = record("fp", false, NOW);
+        record.setPolicyId(UUID.randomUUID());
+        when(mongoTemplate.findById("key-1", IdempotencyRecord.class)).thenReturn(record);
+
+        ConflictException e = assertThrows(ConflictException.class,
+                () -> store.reserve(IdempotencyClaim.claimed("key-1", NOW.minusSeconds(60)), UUID.randomUUID()));
+
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_IN_USE, e.getErrorCode());
+    }
+
+    @Test
+    void shouldRejectReservationWhenKeyIsNoLongerClaimed() {
+        ConflictException e = assertThrows(ConflictException.class,
+                () -> store.reserve(IdempotencyClaim.claimed("key-1", NOW), UUID.randomUUID()));
+
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_IN_USE, e.getErrorCode());
+    }
+}
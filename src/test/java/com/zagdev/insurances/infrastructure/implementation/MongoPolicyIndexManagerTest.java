@@ -0,0 +1,125 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.domain.entity.IdempotencyRecord;
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.entity.PolicyHistoryBucket;
+import com.zagdev.insurances.domain.entity.ProcessedMessage;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class MongoPolicyIndexManagerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOps;
+
+    @Mock
+    private IndexOperations historyIndexOps;
+
+    @Mock
+    private IndexOperations idempotencyIndexOps;
+
+    @Mock
+    private IndexOperations processedIndexOps;
+
+    private MongoPolicyIndexManager indexManager;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoTemplate.indexOps(Policy.class)).thenReturn(indexOps);
+        when(mongoTemplate.indexOps(PolicyHistoryBucket.class)).thenReturn(historyIndexOps);
+        when(mongoTemplate.indexOps(IdempotencyRecord.class)).thenReturn(idempotencyIndexOps);
+        when(mongoTemplate.indexOps(ProcessedMessage.class)).thenReturn(processedIndexOps);
+        indexManager = new MongoPolicyIndexManager(mongoTemplate);
+    }
+
+    @Test
+    void shouldCreateEveryDeclaredIndex() {
+        when(indexOps.createIndex(any(Index.class))).thenAnswer(inv -> ((Index) inv.getArgument(0)).getIndexOptions().getString("name"));
+        when(historyIndexOps.createIndex(any(Index.class))).thenAnswer(inv -> ((Index) inv.getArgument(0)).getIndexOptions().getString("name"));
+        when(idempotencyIndexOps.createIndex(any(Index.class))).thenAnswer(inv -> ((Index) inv.getArgument(0)).getIndexOptions().getString("name"));
+        when(processedIndexOps.createIndex(any(Index.class))).thenAnswer(inv -> ((Index) inv.getArgument(0)).getIndexOptions().getString("name"));
+
+        List<String> created = indexManager.ensureIndexes();
+
+        ArgumentCaptor<Index> indexes = ArgumentCaptor.forClass(Index.class);
+        verify(indexOps, times(4)).createIndex(indexes.capture());
+        assertEquals(indexManager.declaredIndexes(), created);
+        assertEquals(new Document("customerId", 1).append("createdAt", 1).append("_id", 1), indexes.getAllValues().get(0).getIndexKeys());
+        assertEquals(new Document("status", 1).append("createdAt", 1), indexes.getAllValues().get(1).getIndexKeys());
+        assertTrue(indexes.getAllValues().get(2).getIndexOptions().getBoolean("sparse"));
+        assertEquals(new Document("outboxClaimedBy", 1), indexes.getAllValues().get(3).getIndexKeys());
+        assertTrue(indexes.getAllValues().get(3).getIndexOptions().getBoolean("sparse"));
+        verify(historyIndexOps).createIndex(argThat(index -> index.getIndexKeys().equals(new Document("policyId", 1).append("firstAt", 1))));
+        verify(idempotencyIndexOps).createIndex(argThat(index -> index.getIndexKeys().equals(new Document("expiresAt", 1))
+                && index.getIndexOptions().getLong("expireAfterSeconds") == 0L));
+        verify(processedIndexOps).createIndex(argThat(index -> index.getIndexKeys().equals(new Document("expiresAt", 1))
+                && index.getIndexOptions().getLong("expireAfterSeconds") == 0L));
+    }
+
+    @Test
+    void shouldReportMissingIndexesByKeysRegardlessOfName() {
+        when(indexOps.getIndexInfo()).thenReturn(List.of(
+                info("_id_", IndexField.create("_id", Sort.Direction.ASC)),
+                info("legacy_customer_listing", IndexField.create("customerId", Sort.Direction.ASC),
+                        IndexField.create("createdAt", Sort.Direction.ASC), IndexField.create("_id", Sort.Direction.ASC)),
+                info("status_createdAt", IndexField.create("status", Sort.Direction.ASC),
+                        IndexField.create("createdAt", Sort.Direction.DESC))));
+
+        List<String> missing = indexManager.findMissingIndexes();
+
+        assertEquals(List.of("status_createdAt", "outbox_occurredAt", "outboxClaimedBy", "policyId_firstAt", "expiresAt_ttl", "processed_expiresAt_ttl"), missing);
+    }
+
+    @Test
+    void shouldSummarizeIndexedPlan() {
+        Document explain = new Document("queryPlanner", new Document("winningPlan",
+                new Document("stage", "LIMIT").append("inputStage",
+                        new Document("stage", "FETCH").append("inputStage",
+                                new Document("stage", "IXSCAN").append("indexName", "customerId_createdAt_id")))));
+
+        Map<String, Object> summary = MongoPolicyIndexManager.summarize(explain);
+
+        assertEquals(List.of("LIMIT", "FETCH", "IXSCAN"), summary.get("stages"));
+        assertEquals(List.of("customerId_createdAt_id"), summary.get("indexes"));
+        assertEquals(false, summary.get("collectionScan"));
+    }
+
+    @Test
+    void shouldFlagCollectionScanInSlotBasedPlan() {
+        Document explain = new Document("queryPlanner", new Document("winningPlan",
+                new Document("queryPlan", new Document("stage", "SORT").append("inputStages",
+                        List.of(new Document("stage", "COLLSCAN"))))));
+
+        Map<String, Object> summary = MongoPolicyIndexManager.summarize(explain);
+
+        assertEquals(List.of("SORT", "COLLSCAN"), summary.get("stages"));
+        assertEquals(List.of(), summary.get("indexes"));
+        assertEquals(true, summary.get("collectionScan"));
+    }
+
+    private static IndexInfo info(String name, IndexField... fields) {
+        return new IndexInfo(List.of(fields), name, false, false, "");
+    }
+}
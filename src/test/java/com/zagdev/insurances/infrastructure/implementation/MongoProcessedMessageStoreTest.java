@@ -0,0 +1,97 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.domain.entity.ProcessedMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MongoProcessedMessageStoreTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MongoProcessedMessageStore store;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        store = new MongoProcessedMessageStore(mongoTemplate, true, Duration.ofHours(24), 100,
+                Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry);
+    }
+
+    @Test
+    void shouldRecordProcessedMessageWithExpiry() {
+        store.markProcessed("payment-result-queue:p1:success");
+
+        ArgumentCaptor<ProcessedMessage> message = ArgumentCaptor.forClass(ProcessedMessage.class);
+        verify(mongoTemplate).save(message.capture());
+        assertEquals("payment-result-queue:p1:success", message.getValue().getId());
+        assertEquals(NOW, message.getValue().getProcessedAt());
+        assertEquals(NOW.plus(Duration.ofHours(24)), message.getValue().getExpiresAt());
+    }
+
+    @Test
+    void shouldAnswerRecentDuplicatesFromMemory() {
+        store.markProcessed("key-1");
+
+        assertTrue(store.isRecentlyProcessed("key-1"));
+        assertTrue(store.isProcessed("key-1"));
+        assertFalse(store.isRecentlyProcessed("key-2"));
+        verify(mongoTemplate, never()).exists(any(Query.class), eq(ProcessedMessage.class));
+        assertEquals(2.0, meterRegistry.counter("policy.processed-messages.duplicates").count());
+    }
+
+    @Test
+    void shouldFallBackToStoreAndRememberTheAnswer() {
+        when(mongoTemplate.exists(any(Query.class), eq(ProcessedMessage.class))).thenReturn(true);
+
+        assertFalse(store.isRecentlyProcessed("key-1"));
+        assertTrue(store.isProcessed("key-1"));
+        assertTrue(store.isRecentlyProcessed("key-1"));
+        verify(mongoTemplate, times(1)).exists(any(Query.class), eq(ProcessedMessage.class));
+    }
+
+    @Test
+    void shouldProcessAgainWhenStoreIsUnavailable() {
+        when(mongoTemplate.exists(any(Query.class), eq(ProcessedMessage.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        when(mongoTemplate.save(any(ProcessedMessage.class))).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertFalse(store.isProcessed("key-1"));
+        assertDoesNotThrow(() -> store.markProcessed("key-1"));
+        assertTrue(store.isRecentlyProcessed("key-1"));
+    }
+
+    @Test
+    void shouldIgnoreEverythingWhenDisabled() {
+        store = new MongoProcessedMessageStore(mongoTemplate, false, Duration.ofHours(24), 100,
+                Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry);
+
+        store.markProcessed("key-1");
+
+        assertFalse(store.isRecentlyProcessed("key-1"));
+        assertFalse(store.isProcessed("key-1"));
+        verifyNoInteractions(mongoTemplate);
+    }
+}
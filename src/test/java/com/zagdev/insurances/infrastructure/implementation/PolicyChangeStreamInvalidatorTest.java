@@ -0,0 +1,115 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.UUID;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.zagdev.insurances.infrastructure.PolicyCache;
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+
+class PolicyChangeStreamInvalidatorTest {
+
+    @Mock
+    private MessageListenerContainer container;
+
+    @Mock
+    private PolicyCache policyCache;
+
+    @Mock
+    private Subscription subscription;
+
+    private PolicyChangeStreamInvalidator invalidator;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(container.register(any(), eq(Document.class), any())).thenReturn(subscription);
+        invalidator = new PolicyChangeStreamInvalidator(container, policyCache, "policies", true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Message<ChangeStreamDocument<Document>, Document> message(BsonDocument documentKey) {
+        ChangeStreamDocument<Document> event = mock(ChangeStreamDocument.class);
+        when(event.getDocumentKey()).thenReturn(documentKey);
+        Message<ChangeStreamDocument<Document>, Document> message = mock(Message.class);
+        when(message.getRaw()).thenReturn(event);
+        return message;
+    }
+
+    @Test
+    void shouldInvalidateChangedPolicy() {
+        UUID id = UUID.randomUUID();
+
+        invalidator.onChange(message(new BsonDocument("_id", new BsonBinary(id, UuidRepresentation.STANDARD))));
+
+        verify(policyCache).invalidate(id);
+    }
+
+    @Test
+    void shouldDecodeLegacyUuidKeys() {
+        UUID id = UUID.randomUUID();
+
+        assertEquals(id, PolicyChangeStreamInvalidator.toUuid(new BsonBinary(id, UuidRepresentation.JAVA_LEGACY)));
+    }
+
+    @Test
+    void shouldInvalidateEverythingWhenKeyIsNotAUuid() {
+        invalidator.onChange(message(new BsonDocument("_id", new BsonString("unexpected"))));
+
+        verify(policyCache).invalidateAll();
+        verify(policyCache, never()).invalidate(any());
+    }
+
+    @Test
+    void shouldFallBackToShortTtlOnStreamError() {
+        invalidator.onError(new IllegalStateException("The $changeStream stage is only supported on replica sets"));
+
+        verify(policyCache).setCoherent(false);
+    }
+
+    @Test
+    void shouldMarkCacheCoherentWhileSubscriptionIsActive() {
+        when(subscription.isActive()).thenReturn(true);
+        invalidator.start();
+
+        invalidator.checkSubscription();
+
+        verify(policyCache).setCoherent(true);
+        verify(container).register(any(), eq(Document.class), any());
+    }
+
+    @Test
+    void shouldResubscribeWhenSubscriptionIsInactive() {
+        when(subscription.isActive()).thenReturn(false);
+        invalidator.start();
+
+        invalidator.checkSubscription();
+
+        verify(policyCache).setCoherent(false);
+        verify(container).remove(subscription);
+        verify(container, times(2)).register(any(), eq(Document.class), any());
+    }
+
+    @Test
+    void shouldNotSubscribeWhenDisabled() {
+        new PolicyChangeStreamInvalidator(container, policyCache, "policies", false).start();
+
+        verify(container, never()).start();
+        verify(container, never()).register(any(), any(), any());
+    }
+}
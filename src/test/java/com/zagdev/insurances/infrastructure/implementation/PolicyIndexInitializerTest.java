@@ -0,0 +1,71 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.infrastructure.PolicyIndexManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PolicyIndexInitializerTest {
+
+    @Mock
+    private PolicyIndexManager indexManager;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldCreateThenVerifyIndexesInCreateMode() {
+        when(indexManager.findMissingIndexes()).thenReturn(List.of());
+
+        new PolicyIndexInitializer(indexManager, PolicyIndexInitializer.Mode.CREATE, true).run(null);
+
+        verify(indexManager).ensureIndexes();
+        verify(indexManager).findMissingIndexes();
+    }
+
+    @Test
+    void shouldOnlyVerifyInVerifyMode() {
+        when(indexManager.findMissingIndexes()).thenReturn(List.of("status_createdAt"));
+
+        new PolicyIndexInitializer(indexManager, PolicyIndexInitializer.Mode.VERIFY, false).run(null);
+
+        verify(indexManager, never()).ensureIndexes();
+        verify(indexManager).findMissingIndexes();
+    }
+
+    @Test
+    void shouldFailStartupWhenIndexMissingAndFailOnMissing() {
+        when(indexManager.findMissingIndexes()).thenReturn(List.of("status_createdAt"));
+
+        PolicyIndexInitializer initializer = new PolicyIndexInitializer(indexManager, PolicyIndexInitializer.Mode.VERIFY, true);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> initializer.run(null));
+        assertTrue(ex.getMessage().contains("status_createdAt"));
+    }
+
+    @Test
+    void shouldNotFailStartupWhenMongoUnavailableUnlessRequired() {
+        when(indexManager.ensureIndexes()).thenThrow(new DataAccessResourceFailureException("timeout"));
+
+        new PolicyIndexInitializer(indexManager, PolicyIndexInitializer.Mode.CREATE, false).run(null);
+        PolicyIndexInitializer strict = new PolicyIndexInitializer(indexManager, PolicyIndexInitializer.Mode.CREATE, true);
+
+        assertThrows(DataAccessResourceFailureException.class, () -> strict.run(null));
+    }
+
+    @Test
+    void shouldSkipChecksWhenDisabled() {
+        new PolicyIndexInitializer(indexManager, PolicyIndexInitializer.Mode.NONE, true).run(null);
+
+        verifyNoInteractions(indexManager);
+    }
+}
@@ -0,0 +1,138 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.event.PolicyEvent;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
+import com.zagdev.insurances.domain.mapper.PolicyMapper;
+import com.zagdev.insurances.domain.repositories.PolicyMongoRepository;
+import com.zagdev.insurances.infrastructure.EventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PolicyOutboxRelayTest {
+
+    @Mock
+    private PolicyMongoRepository repository;
+    @Mock
+    private EventPublisher eventPublisher;
+
+    private PolicyOutboxRelay relay;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        relay = new PolicyOutboxRelay(repository, eventPublisher, 2, 3, Duration.ofSeconds(30), "node-1");
+    }
+
+    private Policy pendingPolicy(PolicyStatus... statuses) {
+        Policy policy = new Policy();
+        policy.setId(UUID.randomUUID());
+        policy.setCustomerId(UUID.randomUUID());
+        policy.setOutbox(Arrays.stream(statuses)
+                .map(status -> PolicyMapper.toOutboxEvent(status, Instant.now()))
+                .toList());
+        return policy;
+    }
+
+    @Test
+    void shouldPublishPendingEventsInOrderAndAcknowledgeThem() throws Exception {
+        Policy policy = pendingPolicy(PolicyStatus.VALIDATED, PolicyStatus.PENDING);
+        when(repository.claimPendingOutbox(anyString(), any(), any(), eq(2))).thenReturn(List.of(policy));
+
+        relay.relay();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PolicyEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishAll(events.capture());
+        assertEquals(List.of(PolicyStatus.VALIDATED, PolicyStatus.PENDING),
+                events.getValue().stream().map(PolicyEvent::getNewStatus).toList());
+        assertEquals(policy.getId(), events.getValue().get(0).getPolicyId());
+        assertEquals(policy.getCustomerId(), events.getValue().get(0).getCustomerId());
+
+        ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Instant> now = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> leaseUntil = ArgumentCaptor.forClass(Instant.class);
+        verify(repository).claimPendingOutbox(claimToken.capture(), now.capture(), leaseUntil.capture(), eq(2));
+        assertTrue(claimToken.getValue().startsWith("node-1:"));
+        assertEquals(Duration.ofSeconds(30), Duration.between(now.getValue(), leaseUntil.getValue()));
+        verify(repository).acknowledgeOutbox(claimToken.getValue(), Map.of(policy.getId(),
+                policy.getOutbox().stream().map(Policy.OutboxEvent::getEventId).toList()));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<UUID, List<Policy.StatusHistory>>> history = ArgumentCaptor.forClass(Map.class);
+        InOrder order = inOrder(eventPublisher, repository);
+        order.verify(eventPublisher).publishAll(any());
+        order.verify(repository).archiveHistory(history.capture());
+        order.verify(repository).acknowledgeOutbox(anyString(), any());
+        assertEquals(List.of(PolicyStatus.VALIDATED, PolicyStatus.PENDING),
+                history.getValue().get(policy.getId()).stream().map(Policy.StatusHistory::getStatus).toList());
+    }
+
+    @Test
+    void shouldKeepDrainingWhileBatchesAreFull() throws Exception {
+        when(repository.claimPendingOutbox(anyString(), any(), any(), eq(2)))
+                .thenReturn(List.of(pendingPolicy(PolicyStatus.RECEIVED), pendingPolicy(PolicyStatus.RECEIVED)))
+                .thenReturn(List.of(pendingPolicy(PolicyStatus.RECEIVED)));
+
+        relay.relay();
+
+        verify(repository, times(2)).claimPendingOutbox(anyString(), any(), any(), eq(2));
+        verify(eventPublisher, times(2)).publishAll(any());
+    }
+
+    @Test
+    void shouldReleaseClaimInsteadOfAcknowledgingWhenPublishFails() throws Exception {
+        when(repository.claimPendingOutbox(anyString(), any(), any(), anyInt())).thenReturn(List.of(pendingPolicy(PolicyStatus.RECEIVED)));
+        doThrow(new UnexpectedErrorException(ErrorCode.UNEXPECTED_ERROR, new RuntimeException("broker down")))
+                .when(eventPublisher).publishAll(any());
+
+        relay.relay();
+
+        ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+        verify(repository).claimPendingOutbox(claimToken.capture(), any(), any(), anyInt());
+        verify(repository, never()).acknowledgeOutbox(anyString(), any());
+        verify(repository).releaseOutboxClaim(claimToken.getValue());
+    }
+
+    @Test
+    void shouldUseFreshClaimTokenPerBatch() throws Exception {
+        when(repository.claimPendingOutbox(anyString(), any(), any(), eq(2)))
+                .thenReturn(List.of(pendingPolicy(PolicyStatus.RECEIVED), pendingPolicy(PolicyStatus.RECEIVED)))
+                .thenReturn(List.of());
+
+        relay.relay();
+
+        ArgumentCaptor<String> claimTokens = ArgumentCaptor.forClass(String.class);
+        verify(repository, times(2)).claimPendingOutbox(claimTokens.capture(), any(), any(), eq(2));
+        assertNotEquals(claimTokens.getAllValues().get(0), claimTokens.getAllValues().get(1));
+    }
+
+    @Test
+    void shouldNotPublishWhenNothingWasClaimed() throws Exception {
+        when(repository.claimPendingOutbox(anyString(), any(), any(), anyInt())).thenReturn(List.of());
+
+        relay.relay();
+
+        verifyNoInteractions(eventPublisher);
+        verify(repository, never()).acknowledgeOutbox(anyString(), any());
+    }
+}
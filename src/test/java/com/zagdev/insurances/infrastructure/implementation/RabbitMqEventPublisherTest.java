@@ -6,11 +6,15 @@ import com.zagdev.insurances.domain.enums.PolicyStatus;
 import com.zagdev.insurances.domain.event.PolicyEvent;
 import com.zagdev.insurances.domain.exceptions.ErrorCode;
 import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,7 +32,7 @@ class RabbitMqEventPublisherTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        publisher = new RabbitMqEventPublisher(rabbitTemplate, objectMapper);
+        publisher = new RabbitMqEventPublisher(rabbitTemplate, objectMapper, 1000);
     }
 
     @Test
@@ -63,4 +67,34 @@ class RabbitMqEventPublisherTest {
         verify(objectMapper).writeValueAsString(event);
         verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
     }
+
+    @Test
+    void shouldPublishBatchAndWaitForConfirms() throws Exception {
+        PolicyEvent first = new PolicyEvent(UUID.randomUUID(), UUID.randomUUID(), PolicyStatus.RECEIVED);
+        PolicyEvent second = new PolicyEvent(UUID.randomUUID(), UUID.randomUUID(), PolicyStatus.APPROVED);
+        RabbitOperations operations = mock(RabbitOperations.class);
+
+        when(objectMapper.writeValueAsString(first)).thenReturn("first");
+        when(objectMapper.writeValueAsString(second)).thenReturn("second");
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations));
+
+        publisher.publishAll(List.of(first, second));
+
+        InOrder inOrder = inOrder(operations);
+        inOrder.verify(operations).convertAndSend("policy-exchange", "policy.status.changed", "first");
+        inOrder.verify(operations).convertAndSend("policy-exchange", "policy.status.changed", "second");
+        inOrder.verify(operations).waitForConfirmsOrDie(1000);
+    }
+
+    @Test
+    void shouldFailBatchWhenBrokerDoesNotConfirm() throws Exception {
+        PolicyEvent event = new PolicyEvent(UUID.randomUUID(), UUID.randomUUID(), PolicyStatus.RECEIVED);
+
+        when(objectMapper.writeValueAsString(event)).thenReturn("payload");
+        when(rabbitTemplate.invoke(any())).thenThrow(new AmqpTimeoutException("no confirm"));
+
+        Exception ex = assertThrows(UnexpectedErrorException.class, () -> publisher.publishAll(List.of(event)));
+        assertEquals(ErrorCode.UNEXPECTED_ERROR.getMessage(), ex.getMessage());
+    }
 }
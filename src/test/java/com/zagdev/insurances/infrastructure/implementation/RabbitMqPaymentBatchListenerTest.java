@@ -0,0 +1,182 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import com.zagdev.insurances.domain.dto.PolicyBatchItemResult;
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.usecases.PolicyUseCase;
+import com.zagdev.insurances.infrastructure.ProcessedMessageStore;
+import com.zagdev.insurances.infrastructure.ResultRetryScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RabbitMqPaymentBatchListenerTest {
+
+    @Mock
+    private PolicyUseCase policyUseCase;
+    @Mock
+    private Channel channel;
+    @Mock
+    private ProcessedMessageStore processedMessageStore;
+    @Mock
+    private ResultRetryScheduler resultRetryScheduler;
+
+    private RabbitMqPaymentBatchListener listener;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        listener = new RabbitMqPaymentBatchListener(policyUseCase, new ObjectMapper(), processedMessageStore, resultRetryScheduler);
+    }
+
+    private Message message(long deliveryTag, String payload) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return new Message(payload.getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    private Message result(long deliveryTag, UUID policyId, boolean success) {
+        return message(deliveryTag, "{\"policyId\": \"" + policyId + "\", \"success\": " + success + "}");
+    }
+
+    private PolicyBatchItemResult succeeded(UUID id) {
+        PolicyDTO policy = new PolicyDTO();
+        policy.setId(id);
+        return PolicyBatchItemResult.succeeded(policy);
+    }
+
+    @Test
+    void shouldSettleDedupedBatchWithOneCallAndOneMultipleAck() throws Exception {
+        UUID approved = UUID.randomUUID();
+        UUID rejected = UUID.randomUUID();
+        UUID waiting = UUID.randomUUID();
+        when(policyUseCase.confirmPaymentsInBulk(Set.of(approved, waiting), Set.of(rejected)))
+                .thenReturn(List.of(succeeded(approved), succeeded(waiting), succeeded(rejected)));
+
+        listener.handlePaymentResults(List.of(
+                result(11, approved, true),
+                result(12, approved, true),
+                result(13, rejected, false),
+                result(14, waiting, true)), channel);
+
+        verify(policyUseCase).confirmPaymentsInBulk(Set.of(approved, waiting), Set.of(rejected));
+        verify(policyUseCase, never()).confirmPayment(any());
+        verify(processedMessageStore).markProcessed("payment-result-queue:" + approved + ":success");
+        verify(processedMessageStore).markProcessed("payment-result-queue:" + rejected + ":failure");
+        verify(processedMessageStore).markProcessed("payment-result-queue:" + waiting + ":success");
+        verify(channel).basicAck(14, true);
+        verify(channel, never()).basicReject(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void shouldDropResultsAlreadyInTheProcessedStore() throws Exception {
+        UUID processed = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+        when(processedMessageStore.isProcessed("subscription-result-queue:" + processed + ":success")).thenReturn(true);
+        when(policyUseCase.authorizeSubscriptionsInBulk(Set.of(fresh), Set.of())).thenReturn(List.of(succeeded(fresh)));
+
+        listener.handleSubscriptionResults(List.of(
+                result(21, processed, true),
+                result(22, fresh, true)), channel);
+
+        verify(policyUseCase).authorizeSubscriptionsInBulk(Set.of(fresh), Set.of());
+        verify(processedMessageStore, never()).markProcessed("subscription-result-queue:" + processed + ":success");
+        verify(channel).basicAck(22, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void shouldAckWithoutSettlingWhenWholeBatchIsDuplicated() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        when(processedMessageStore.isProcessed(any())).thenReturn(true);
+
+        listener.handlePaymentResults(List.of(result(31, policyId, true), result(32, policyId, true)), channel);
+
+        verifyNoInteractions(policyUseCase);
+        verify(channel).basicAck(32, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void shouldRejectUnreadableAndRetryFailedResultsThroughDelayedQueues() throws Exception {
+        UUID missing = UUID.randomUUID();
+        UUID authorized = UUID.randomUUID();
+        when(policyUseCase.authorizeSubscriptionsInBulk(Set.of(missing, authorized), Set.of()))
+                .thenReturn(List.of(PolicyBatchItemResult.failed(missing, ErrorCode.POLICY_NOT_FOUND), succeeded(authorized)));
+        when(resultRetryScheduler.schedule(anyString(), anyString(), anyInt(), anyInt(), any())).thenReturn(true);
+
+        listener.handleSubscriptionResults(List.of(
+                message(1, "INVALID_JSON"),
+                result(2, authorized, true),
+                result(3, missing, true),
+                result(4, missing, true)), channel);
+
+        String payload = "{\"policyId\": \"" + missing + "\", \"success\": true}";
+        verify(resultRetryScheduler, times(2)).schedule("subscription-result-queue", payload, 1, 1, null);
+        verify(processedMessageStore, never()).markProcessed("subscription-result-queue:" + missing + ":success");
+        verify(processedMessageStore).markProcessed("subscription-result-queue:" + authorized + ":success");
+        verify(channel).basicReject(1, false);
+        verify(channel).basicAck(4, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void shouldRejectToDeadLetterQueueWhenRetriesAreExhausted() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        Message redelivered = result(7, policyId, true);
+        redelivered.getMessageProperties().setHeader(ResultRetryScheduler.ATTEMPT_HEADER, 3);
+        when(policyUseCase.confirmPaymentsInBulk(Set.of(policyId), Set.of()))
+                .thenReturn(List.of(PolicyBatchItemResult.failed(policyId, ErrorCode.INVALID_STATUS)));
+
+        listener.handlePaymentResults(List.of(redelivered), channel);
+
+        verify(resultRetryScheduler).schedule(eq("payment-result-queue"), anyString(), eq(4), eq(4), isNull());
+        verify(channel).basicReject(7, false);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void shouldOnlyRejectWhenWholeBatchIsUnreadable() throws Exception {
+        listener.handlePaymentResults(List.of(message(5, "INVALID_JSON")), channel);
+
+        verify(channel).basicReject(5, false);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verifyNoInteractions(policyUseCase);
+    }
+
+    @Test
+    void shouldRetryWholeBatchWhenSettlementFails() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(policyUseCase.confirmPaymentsInBulk(any(), any())).thenThrow(new DataAccessResourceFailureException("mongo down"));
+        when(resultRetryScheduler.schedule(anyString(), anyString(), anyInt(), anyInt(), any())).thenReturn(true);
+
+        listener.handlePaymentResults(List.of(
+                message(1, "INVALID_JSON"),
+                result(2, first, true),
+                result(3, second, false)), channel);
+
+        verify(resultRetryScheduler, times(2)).schedule(eq("payment-result-queue"), anyString(), eq(1), eq(1), isNull());
+        verify(channel).basicReject(1, false);
+        verify(channel).basicAck(3, true);
+        verifyNoMoreInteractions(channel);
+    }
+}
@@ -2,18 +2,28 @@ package com.zagdev.insurances.infrastructure.implementation;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
 import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.exceptions.DataNotFoundException;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.exceptions.UnexpectedErrorException;
 import com.zagdev.insurances.domain.usecases.PolicyUseCase;
+import com.zagdev.insurances.infrastructure.PolicyLanes;
+import com.zagdev.insurances.infrastructure.ProcessedMessageStore;
+import com.zagdev.insurances.infrastructure.ResultRetryScheduler;
 import com.zagdev.insurances.infrastructure.dto.MessageResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.util.UUID;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 class RabbitMqPaymentListenerTest {
@@ -22,6 +32,14 @@ class RabbitMqPaymentListenerTest {
     private PolicyUseCase policyUseCase;
     @Mock
     private ObjectMapper objectMapper;
+    @Mock
+    private Channel channel;
+    @Spy
+    private PolicyLanes policyLanes = new InlinePolicyLanes();
+    @Mock
+    private ProcessedMessageStore processedMessageStore;
+    @Mock
+    private ResultRetryScheduler resultRetryScheduler;
 
     @InjectMocks
     private RabbitMqPaymentListener listener;
@@ -41,14 +59,19 @@ class RabbitMqPaymentListenerTest {
         messageResult.setSuccess(true);
 
         PolicyDTO policyDTO = new PolicyDTO();
+        policyDTO.setId(policyId);
         policyDTO.setSubscriptionAuthorized(true);
+        policyDTO.setPaymentConfirmed(true);
+        policyDTO.setStatus(PolicyStatus.APPROVED);
 
         when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
-        when(policyUseCase.setPaymentConfirmed(eq(policyId))).thenReturn(policyDTO);
-        listener.handlePaymentResult(payload);
+        when(policyUseCase.confirmPayment(eq(policyId))).thenReturn(policyDTO);
+        listener.handlePaymentResult(payload, channel, 7L, null, null);
 
-        verify(policyUseCase).approve(policyId);
+        verify(policyUseCase).confirmPayment(policyId);
+        verify(policyUseCase, never()).approve(any());
         verify(policyUseCase, never()).reject(any());
+        verify(channel).basicAck(7L, false);
     }
 
     @Test
@@ -62,22 +85,24 @@ class RabbitMqPaymentListenerTest {
 
         when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
 
-        listener.handlePaymentResult(payload);
+        listener.handlePaymentResult(payload, channel, 7L, null, null);
 
         verify(policyUseCase).reject(policyId);
         verify(policyUseCase, never()).approve(any());
+        verify(channel).basicAck(7L, false);
     }
 
     @Test
-    void shouldThrowWhenDeserializationFails() throws Exception {
+    void shouldRejectWithoutRequeueWhenDeserializationFails() throws Exception {
         String payload = "INVALID_JSON";
 
         when(objectMapper.readValue(payload, MessageResult.class))
                 .thenThrow(new JsonProcessingException("Erro de parsing!") {});
 
-        assertThrows(JsonProcessingException.class,
-                () -> listener.handlePaymentResult(payload));
+        listener.handlePaymentResult(payload, channel, 7L, null, null);
 
+        verify(channel).basicReject(7L, false);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
         verifyNoInteractions(policyUseCase);
     }
 
@@ -91,14 +116,19 @@ class RabbitMqPaymentListenerTest {
         messageResult.setSuccess(true);
 
         PolicyDTO policyDTO = new PolicyDTO();
+        policyDTO.setId(policyId);
+        policyDTO.setSubscriptionAuthorized(true);
         policyDTO.setPaymentConfirmed(true);
+        policyDTO.setStatus(PolicyStatus.APPROVED);
 
         when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
-        when(policyUseCase.setSubscriptionAuthorized(eq(policyId))).thenReturn(policyDTO);
-        listener.handleSubscriptionResult(payload);
+        when(policyUseCase.authorizeSubscription(eq(policyId))).thenReturn(policyDTO);
+        listener.handleSubscriptionResult(payload, channel, 7L, null, null);
 
-        verify(policyUseCase).approve(policyId);
+        verify(policyUseCase).authorizeSubscription(policyId);
+        verify(policyUseCase, never()).approve(any());
         verify(policyUseCase, never()).reject(any());
+        verify(channel).basicAck(7L, false);
     }
 
     @Test
@@ -112,22 +142,257 @@ class RabbitMqPaymentListenerTest {
 
         when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
 
-        listener.handleSubscriptionResult(payload);
+        listener.handleSubscriptionResult(payload, channel, 7L, null, null);
 
         verify(policyUseCase).reject(policyId);
         verify(policyUseCase, never()).approve(any());
+        verify(channel).basicAck(7L, false);
     }
 
     @Test
-    void shouldThrowWhenDeserializationFailsSubscription() throws Exception {
+    void shouldRejectWithoutRequeueWhenDeserializationFailsSubscription() throws Exception {
         String payload = "INVALID_JSON";
 
         when(objectMapper.readValue(payload, MessageResult.class))
                 .thenThrow(new JsonProcessingException("Erro de parsing!") {});
 
-        assertThrows(JsonProcessingException.class,
-                () -> listener.handleSubscriptionResult(payload));
+        listener.handleSubscriptionResult(payload, channel, 7L, null, null);
 
+        verify(channel).basicReject(7L, false);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
         verifyNoInteractions(policyUseCase);
     }
+
+    @Test
+    void shouldRejectWithoutRequeueWhenPolicyDoesNotExist() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        String payload = "{\"policyId\": \"" + policyId + "\", \"success\": true}";
+
+        MessageResult messageResult = new MessageResult();
+        messageResult.setPolicyId(policyId);
+        messageResult.setSuccess(true);
+
+        when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
+        when(policyUseCase.confirmPayment(policyId)).thenThrow(new DataNotFoundException(ErrorCode.POLICY_NOT_FOUND));
+
+        listener.handlePaymentResult(payload, channel, 7L, null, null);
+
+        verify(channel).basicReject(7L, false);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void shouldScheduleDelayedRetryAndAckOnUnexpectedError() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        String payload = "{\"policyId\": \"" + policyId + "\", \"success\": true}";
+
+        MessageResult messageResult = new MessageResult();
+        messageResult.setPolicyId(policyId);
+        messageResult.setSuccess(true);
+
+        when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
+        when(policyUseCase.authorizeSubscription(policyId))
+                .thenThrow(new UnexpectedErrorException(ErrorCode.UNEXPECTED_ERROR, new IllegalStateException("mongo down")));
+        when(resultRetryScheduler.schedule(eq("subscription-result-queue"), eq(payload), eq(1), eq(1), anyString())).thenReturn(true);
+
+        listener.handleSubscriptionResult(payload, channel, 7L, null, null);
+
+        verify(policyUseCase, times(1)).authorizeSubscription(policyId);
+        verify(resultRetryScheduler).schedule(eq("subscription-result-queue"), eq(payload), eq(1), eq(1), anyString());
+        verify(processedMessageStore, never()).markProcessed(any());
+        verify(channel).basicAck(7L, false);
+        verify(channel, never()).basicReject(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void shouldCarryAttemptHeaderIntoNextRetry() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        String payload = "{\"policyId\": \"" + policyId + "\", \"success\": false}";
+
+        MessageResult messageResult = new MessageResult();
+        messageResult.setPolicyId(policyId);
+        messageResult.setSuccess(false);
+
+        when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
+        when(policyUseCase.reject(policyId)).thenThrow(new IllegalStateException("socket closed"));
+        when(resultRetryScheduler.schedule(eq("payment-result-queue"), eq(payload), eq(3), eq(3), anyString())).thenReturn(true);
+
+        listener.handlePaymentResult(payload, channel, 7L, 2, null);
+
+        verify(resultRetryScheduler).schedule(eq("payment-result-queue"), eq(payload), eq(3), eq(3), anyString());
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void shouldRejectToDeadLetterQueueWhenRetriesAreExhausted() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        String payload = "{\"policyId\": \"" + policyId + "\", \"success\": true}";
+
+        MessageResult messageResult = new MessageResult();
+        messageResult.setPolicyId(policyId);
+        messageResult.setSuccess(true);
+
+        when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
+        when(policyUseCase.confirmPayment(policyId))
+                .thenThrow(new UnexpectedErrorException(ErrorCode.UNEXPECTED_ERROR, new IllegalStateException("mongo down")));
+        when(resultRetryScheduler.schedule(eq("payment-result-queue"), eq(payload), eq(5), eq(5), anyString())).thenReturn(false);
+
+        listener.handlePaymentResult(payload, channel, 7L, 4, null);
+
+        verify(channel).basicReject(7L, false);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void shouldNotScheduleRetryForBusinessRejections() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        String payload = "{\"policyId\": \"" + policyId + "\", \"success\": true}";
+
+        MessageResult messageResult = new MessageResult();
+        messageResult.setPolicyId(policyId);
+        messageResult.setSuccess(true);
+
+        when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
+        when(policyUseCase.confirmPayment(policyId)).thenThrow(new DataNotFoundException(ErrorCode.POLICY_NOT_FOUND));
+
+        listener.handlePaymentResult(payload, channel, 7L, null, null);
+
+        verifyNoInteractions(resultRetryScheduler);
+        verify(channel).basicReject(7L, false);
+    }
+
+    @Test
+    void shouldRouteResultsThroughThePolicyLane() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        String payload = "{\"policyId\": \"" + policyId + "\", \"success\": false}";
+
+        MessageResult messageResult = new MessageResult();
+        messageResult.setPolicyId(policyId);
+        messageResult.setSuccess(false);
+
+        when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
+
+        listener.handleSubscriptionResult(payload, channel, 7L, null, null);
+
+        verify(policyLanes).execute(eq(policyId), any());
+    }
+
+    @Test
+    void shouldMarkResultAsProcessedAfterSuccess() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        String payload = "{\"policyId\": \"" + policyId + "\", \"success\": false}";
+
+        MessageResult messageResult = new MessageResult();
+        messageResult.setPolicyId(policyId);
+        messageResult.setSuccess(false);
+
+        when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
+
+        listener.handlePaymentResult(payload, channel, 7L, null, null);
+
+        verify(processedMessageStore).isProcessed("payment-result-queue:" + policyId + ":failure");
+        verify(processedMessageStore).markProcessed("payment-result-queue:" + policyId + ":failure");
+    }
+
+    @Test
+    void shouldDropDuplicateWithoutTouchingTheDomain() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        String payload = "{\"policyId\": \"" + policyId + "\", \"success\": true}";
+
+        MessageResult messageResult = new MessageResult();
+        messageResult.setPolicyId(policyId);
+        messageResult.setSuccess(true);
+
+        when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
+        when(processedMessageStore.isProcessed("subscription-result-queue:" + policyId + ":success")).thenReturn(true);
+
+        listener.handleSubscriptionResult(payload, channel, 7L, null, null);
+
+        verifyNoInteractions(policyUseCase);
+        verify(processedMessageStore, never()).markProcessed(any());
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void shouldNotMarkResultAsProcessedWhenRejected() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        String payload = "{\"policyId\": \"" + policyId + "\", \"success\": true}";
+
+        MessageResult messageResult = new MessageResult();
+        messageResult.setPolicyId(policyId);
+        messageResult.setSuccess(true);
+
+        when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
+        when(policyUseCase.confirmPayment(policyId))
+                .thenThrow(new DataNotFoundException(ErrorCode.POLICY_NOT_FOUND));
+
+        listener.handlePaymentResult(payload, channel, 7L, null, null);
+
+        verify(processedMessageStore, never()).markProcessed(any());
+        verify(channel).basicReject(7L, false);
+    }
+
+    @Test
+    void shouldParkLaterResultsForPolicyBehindPendingRetry() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        String paymentPayload = "{\"policyId\": \"" + policyId + "\", \"success\": true}";
+        String subscriptionPayload = "{\"policyId\": \"" + policyId + "\", \"success\": false}";
+
+        MessageResult payment = new MessageResult();
+        payment.setPolicyId(policyId);
+        payment.setSuccess(true);
+        MessageResult subscription = new MessageResult();
+        subscription.setPolicyId(policyId);
+        subscription.setSuccess(false);
+
+        when(objectMapper.readValue(paymentPayload, MessageResult.class)).thenReturn(payment);
+        when(objectMapper.readValue(subscriptionPayload, MessageResult.class)).thenReturn(subscription);
+        when(policyUseCase.confirmPayment(policyId))
+                .thenThrow(new UnexpectedErrorException(ErrorCode.UNEXPECTED_ERROR, new IllegalStateException("mongo down")))
+                .thenReturn(new PolicyDTO());
+        when(resultRetryScheduler.schedule(anyString(), anyString(), anyInt(), anyInt(), anyString())).thenReturn(true);
+
+        listener.handlePaymentResult(paymentPayload, channel, 7L, null, null);
+        listener.handleSubscriptionResult(subscriptionPayload, channel, 8L, null, null);
+
+        ArgumentCaptor<String> paymentTicket = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> subscriptionTicket = ArgumentCaptor.forClass(String.class);
+        verify(resultRetryScheduler).schedule(eq("payment-result-queue"), eq(paymentPayload), eq(1), eq(1), paymentTicket.capture());
+        verify(resultRetryScheduler).schedule(eq("subscription-result-queue"), eq(subscriptionPayload), eq(0), eq(1), subscriptionTicket.capture());
+        verify(policyUseCase, never()).reject(any());
+
+        listener.handleSubscriptionResult(subscriptionPayload, channel, 9L, 0, subscriptionTicket.getValue());
+        verify(policyUseCase, never()).reject(any());
+
+        listener.handlePaymentResult(paymentPayload, channel, 10L, 1, paymentTicket.getValue());
+        listener.handleSubscriptionResult(subscriptionPayload, channel, 11L, 0, subscriptionTicket.getValue());
+
+        InOrder inOrder = inOrder(policyUseCase);
+        inOrder.verify(policyUseCase, times(2)).confirmPayment(policyId);
+        inOrder.verify(policyUseCase).reject(policyId);
+        verify(channel, never()).basicReject(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void shouldReleaseParkedResultsWhenRetriesAreExhausted() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        String payload = "{\"policyId\": \"" + policyId + "\", \"success\": true}";
+
+        MessageResult messageResult = new MessageResult();
+        messageResult.setPolicyId(policyId);
+        messageResult.setSuccess(true);
+
+        when(objectMapper.readValue(payload, MessageResult.class)).thenReturn(messageResult);
+        when(policyUseCase.confirmPayment(policyId))
+                .thenThrow(new UnexpectedErrorException(ErrorCode.UNEXPECTED_ERROR, new IllegalStateException("mongo down")))
+                .thenReturn(new PolicyDTO());
+        when(resultRetryScheduler.schedule(anyString(), anyString(), anyInt(), anyInt(), anyString())).thenReturn(false);
+
+        listener.handlePaymentResult(payload, channel, 7L, 4, "ticket-1");
+        listener.handlePaymentResult(payload, channel, 8L, null, null);
+
+        verify(policyUseCase, times(2)).confirmPayment(policyId);
+        verify(channel).basicReject(7L, false);
+        verify(channel).basicAck(8L, false);
+    }
 }
@@ -0,0 +1,54 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.event.PolicyEvent;
+import com.zagdev.insurances.infrastructure.PolicyEventBroadcaster;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class RabbitMqPolicyEventListenerTest {
+
+    @Mock
+    private PolicyEventBroadcaster broadcaster;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private RabbitMqPolicyEventListener listener;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        listener = new RabbitMqPolicyEventListener(broadcaster, objectMapper);
+    }
+
+    @Test
+    void shouldBroadcastPublishedStatusChange() throws JsonProcessingException {
+        PolicyEvent published = new PolicyEvent(UUID.randomUUID(), UUID.randomUUID(), PolicyStatus.VALIDATED);
+
+        listener.handlePolicyEvent(objectMapper.writeValueAsString(published));
+
+        ArgumentCaptor<PolicyEvent> event = ArgumentCaptor.forClass(PolicyEvent.class);
+        verify(broadcaster).broadcast(event.capture());
+        assertEquals(published.getPolicyId(), event.getValue().getPolicyId());
+        assertEquals(published.getCustomerId(), event.getValue().getCustomerId());
+        assertEquals(PolicyStatus.VALIDATED, event.getValue().getNewStatus());
+        assertEquals(published.getOccurredAt(), event.getValue().getOccurredAt());
+    }
+
+    @Test
+    void shouldRejectMalformedPayload() {
+        assertThrows(JsonProcessingException.class, () -> listener.handlePolicyEvent("{not-json"));
+
+        verifyNoInteractions(broadcaster);
+    }
+}
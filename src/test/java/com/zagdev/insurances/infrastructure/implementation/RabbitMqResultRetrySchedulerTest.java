@@ -0,0 +1,90 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import com.zagdev.insurances.config.ListenerProperties;
+import com.zagdev.insurances.infrastructure.ResultRetryScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RabbitMqResultRetrySchedulerTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+    @Mock
+    private RabbitOperations operations;
+
+    private ListenerProperties.Retry retry;
+
+    private RabbitMqResultRetryScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        retry = new ListenerProperties.Retry();
+        retry.setTiers(3);
+        retry.setInitialDelay(Duration.ofSeconds(1));
+        retry.setMultiplier(4.0);
+        retry.setConfirmTimeout(Duration.ofMillis(500));
+        scheduler = new RabbitMqResultRetryScheduler(rabbitTemplate, retry);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations));
+    }
+
+    @Test
+    void shouldGrowDelayExponentiallyPerTier() {
+        assertEquals(Duration.ofSeconds(1), retry.delayOf(1));
+        assertEquals(Duration.ofSeconds(4), retry.delayOf(2));
+        assertEquals(Duration.ofSeconds(16), retry.delayOf(3));
+        assertEquals("payment-result-queue.retry.16000",
+                RabbitMqResultRetryScheduler.tierQueue("payment-result-queue", retry.delayOf(3)));
+    }
+
+    @Test
+    void shouldPublishToTierQueueWithAttemptHeaderAndWaitForConfirm() {
+        assertTrue(scheduler.schedule("payment-result-queue", "{}", 1, 2, "ticket-1"));
+
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        InOrder inOrder = inOrder(operations);
+        inOrder.verify(operations).convertAndSend(eq(""), eq("payment-result-queue.retry.4000"), eq("{}"), postProcessor.capture());
+        inOrder.verify(operations).waitForConfirmsOrDie(500);
+
+        Message message = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        assertEquals(1, (Integer) message.getMessageProperties().getHeader(ResultRetryScheduler.ATTEMPT_HEADER));
+        assertEquals("ticket-1", message.getMessageProperties().getHeader(ResultRetryScheduler.TICKET_HEADER));
+    }
+
+    @Test
+    void shouldGiveUpWhenTiersAreExhausted() {
+        assertFalse(scheduler.schedule("subscription-result-queue", "{}", 4, 4, "ticket-1"));
+
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void shouldGiveUpWhenRetryIsDisabled() {
+        retry.setEnabled(false);
+
+        assertFalse(scheduler.schedule("subscription-result-queue", "{}", 1, 1, null));
+
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void shouldGiveUpWhenRetryIsNotConfirmed() {
+        doThrow(new AmqpTimeoutException("no confirm")).when(rabbitTemplate).invoke(any());
+
+        assertFalse(scheduler.schedule("payment-result-queue", "{}", 1, 1, "ticket-1"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.zagdev.insurances.domain.enums.RiskClassification;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.infrastructure.FraudApiClient;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.web.client.ResourceAccessException;
+
+class ResilientFraudApiClientTest {
+
+    @Mock
+    private FraudApiClient delegate;
+
+    private CircuitBreaker circuitBreaker;
+
+    private Bulkhead bulkhead;
+
+    private ResilientFraudApiClient client;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        circuitBreaker = CircuitBreaker.of("fraud-api", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .slowCallDurationThreshold(Duration.ofMillis(50))
+                .slowCallRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordExceptions(ResourceAccessException.class)
+                .build());
+        bulkhead = Bulkhead.of("fraud-api", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        client = new ResilientFraudApiClient(delegate, circuitBreaker, bulkhead);
+    }
+
+    @Test
+    void shouldOpenCircuitAfterFailureRateIsExceeded() throws InvalidDataException {
+        when(delegate.getRiskClassification(any(), any())).thenThrow(new ResourceAccessException("timeout"));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ResourceAccessException.class,
+                    () -> client.getRiskClassification(UUID.randomUUID(), UUID.randomUUID()));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CallNotPermittedException.class,
+                () -> client.getRiskClassification(UUID.randomUUID(), UUID.randomUUID()));
+        verify(delegate, times(4)).getRiskClassification(any(), any());
+    }
+
+    @Test
+    void shouldOpenCircuitAfterSlowCallRateIsExceeded() throws InvalidDataException {
+        when(delegate.getRiskClassification(any(), any())).thenAnswer(inv -> {
+            Thread.sleep(80);
+            return RiskClassification.REGULAR;
+        });
+
+        for (int i = 0; i < 4; i++) {
+            client.getRiskClassification(UUID.randomUUID(), UUID.randomUUID());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void shouldNotCountBusinessErrorsAsFailures() throws InvalidDataException {
+        when(delegate.getRiskClassification(any(), any())).thenThrow(new InvalidDataException(ErrorCode.INVALID_DATA));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(InvalidDataException.class,
+                    () -> client.getRiskClassification(UUID.randomUUID(), UUID.randomUUID()));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void shouldRejectCallsBeyondBulkheadLimit() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getRiskClassification(any(), any())).thenAnswer(inv -> {
+            entered.countDown();
+            release.await();
+            return RiskClassification.REGULAR;
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> client.getRiskClassification(UUID.randomUUID(), UUID.randomUUID()));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            assertThrows(BulkheadFullException.class,
+                    () -> client.getRiskClassification(UUID.randomUUID(), UUID.randomUUID()));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedPolicyLanesTest {
+
+    private static final int LANES = 8;
+    private static final int PRODUCERS = 8;
+    private static final int POLICIES_PER_PRODUCER = 32;
+    private static final int RESULTS_PER_POLICY = 200;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ShardedPolicyLanes lanes = new ShardedPolicyLanes(LANES, 64, meterRegistry);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        lanes.shutdown();
+    }
+
+    @Test
+    void shouldPreserveSubmissionOrderPerPolicyUnderHighParallelism() throws Exception {
+        Map<UUID, List<Integer>> applied = new ConcurrentHashMap<>();
+        Map<UUID, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        Queue<String> violations = new ConcurrentLinkedQueue<>();
+        Set<String> laneThreads = ConcurrentHashMap.newKeySet();
+
+        List<List<UUID>> policiesByProducer = IntStream.range(0, PRODUCERS)
+                .mapToObj(p -> IntStream.range(0, POLICIES_PER_PRODUCER).mapToObj(i -> UUID.randomUUID()).toList())
+                .toList();
+        policiesByProducer.forEach(policies -> policies.forEach(id -> {
+            applied.put(id, new ArrayList<>());
+            inFlight.put(id, new AtomicInteger());
+        }));
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        for (List<UUID> policies : policiesByProducer) {
+            producers.submit(() -> {
+                start.await();
+                for (int sequence = 0; sequence < RESULTS_PER_POLICY; sequence++) {
+                    for (UUID id : policies) {
+                        int current = sequence;
+                        lanes.execute(id, () -> {
+                            if (inFlight.get(id).incrementAndGet() != 1) {
+                                violations.add("concurrent results for " + id);
+                            }
+                            laneThreads.add(Thread.currentThread().getName());
+                            applied.get(id).add(current);
+                            inFlight.get(id).decrementAndGet();
+                        });
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        producers.shutdown();
+        assertTrue(producers.awaitTermination(1, TimeUnit.MINUTES));
+        lanes.shutdown();
+
+        assertTrue(violations.isEmpty(), () -> "Ordering violated: " + violations);
+        List<Integer> expected = IntStream.range(0, RESULTS_PER_POLICY).boxed().collect(Collectors.toList());
+        applied.forEach((id, sequence) -> assertEquals(expected, sequence, () -> "Out of order results for " + id));
+        assertEquals(LANES, laneThreads.size());
+    }
+
+    @Test
+    void shouldAlwaysRouteAPolicyToTheSameLane() {
+        UUID id = UUID.randomUUID();
+
+        int lane = lanes.laneOf(id);
+
+        assertTrue(lane >= 0 && lane < LANES);
+        assertEquals(lane, lanes.laneOf(new UUID(id.getMostSignificantBits(), id.getLeastSignificantBits())));
+    }
+
+    @Test
+    void shouldExposeLaneDepthPerLane() throws Exception {
+        UUID id = UUID.randomUUID();
+        int lane = lanes.laneOf(id);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        lanes.execute(id, () -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        lanes.execute(id, () -> { });
+        lanes.execute(id, () -> { });
+
+        assertEquals(2, lanes.depth(lane));
+        assertEquals(2.0, meterRegistry.get("policy.lanes.depth").tag("lane", String.valueOf(lane)).gauge().value());
+        assertEquals(LANES, meterRegistry.find("policy.lanes.depth").gauges().size());
+
+        release.countDown();
+    }
+
+    @Test
+    void shouldRefuseInvalidLaneConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedPolicyLanes(0, 10, new SimpleMeterRegistry()));
+    }
+}
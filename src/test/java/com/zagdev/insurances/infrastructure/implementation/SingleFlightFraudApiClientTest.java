@@ -0,0 +1,121 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.zagdev.insurances.domain.enums.RiskClassification;
+import com.zagdev.insurances.domain.exceptions.ErrorCode;
+import com.zagdev.insurances.domain.exceptions.InvalidDataException;
+import com.zagdev.insurances.infrastructure.FraudApiClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+class SingleFlightFraudApiClientTest {
+
+    private static final int CALLERS = 8;
+
+    @Mock
+    private FraudApiClient delegate;
+
+    private SingleFlightFraudApiClient client;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        client = new SingleFlightFraudApiClient(delegate);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private List<Future<RiskClassification>> callConcurrently(UUID customerId, CountDownLatch entered,
+                                                              CountDownLatch release) throws Exception {
+        List<Future<RiskClassification>> results = new ArrayList<>();
+        results.add(executor.submit(() -> client.getRiskClassification(UUID.randomUUID(), customerId)));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> client.getRiskClassification(UUID.randomUUID(), customerId)));
+        }
+        Thread.sleep(200);
+        release.countDown();
+        return results;
+    }
+
+    @Test
+    void shouldShareOneCallAcrossConcurrentCallersForSameCustomer() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getRiskClassification(any(), eq(customerId))).thenAnswer(inv -> {
+            entered.countDown();
+            release.await();
+            return RiskClassification.HIGH_RISK;
+        });
+
+        for (Future<RiskClassification> result : callConcurrently(customerId, entered, release)) {
+            assertEquals(RiskClassification.HIGH_RISK, result.get(5, TimeUnit.SECONDS));
+        }
+
+        verify(delegate, times(1)).getRiskClassification(any(), eq(customerId));
+        assertEquals(0, client.inFlightCount());
+    }
+
+    @Test
+    void shouldShareFailureAcrossConcurrentCallers() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getRiskClassification(any(), eq(customerId))).thenAnswer(inv -> {
+            entered.countDown();
+            release.await();
+            throw new InvalidDataException(ErrorCode.INVALID_DATA);
+        });
+
+        for (Future<RiskClassification> result : callConcurrently(customerId, entered, release)) {
+            Exception ex = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(InvalidDataException.class, ex.getCause());
+        }
+
+        verify(delegate, times(1)).getRiskClassification(any(), eq(customerId));
+        assertEquals(0, client.inFlightCount());
+    }
+
+    @Test
+    void shouldCallAgainOnceThePreviousCallCompleted() throws InvalidDataException {
+        UUID customerId = UUID.randomUUID();
+        when(delegate.getRiskClassification(any(), eq(customerId)))
+                .thenReturn(RiskClassification.REGULAR)
+                .thenReturn(RiskClassification.PREFERENTIAL);
+
+        assertEquals(RiskClassification.REGULAR, client.getRiskClassification(UUID.randomUUID(), customerId));
+        assertEquals(RiskClassification.PREFERENTIAL, client.getRiskClassification(UUID.randomUUID(), customerId));
+
+        verify(delegate, times(2)).getRiskClassification(any(), eq(customerId));
+    }
+
+    @Test
+    void shouldNotCoalesceDifferentCustomers() throws InvalidDataException {
+        when(delegate.getRiskClassification(any(), any())).thenReturn(RiskClassification.REGULAR);
+
+        client.getRiskClassification(UUID.randomUUID(), UUID.randomUUID());
+        client.getRiskClassification(UUID.randomUUID(), UUID.randomUUID());
+
+        verify(delegate, times(2)).getRiskClassification(any(), any());
+    }
+}
@@ -0,0 +1,153 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.event.PolicyEvent;
+import com.zagdev.insurances.domain.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class SsePolicyEventBroadcasterTest {
+
+    private final Queue<Runnable> dispatches = new ArrayDeque<>();
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    private SsePolicyEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setup() {
+        broadcaster = new SsePolicyEventBroadcaster(dispatches::add, new ObjectMapper().findAndRegisterModules(),
+                2, 3, Duration.ofMinutes(1), timeout -> {
+                    RecordingEmitter emitter = new RecordingEmitter(timeout);
+                    emitters.add(emitter);
+                    return emitter;
+                });
+    }
+
+    private void runDispatches() {
+        while (!dispatches.isEmpty()) {
+            dispatches.poll().run();
+        }
+    }
+
+    @Test
+    void shouldDeliverEventsToPolicyAndCustomerSubscribersOnly() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        UUID customerId = UUID.randomUUID();
+        RecordingEmitter byPolicy = (RecordingEmitter) broadcaster.subscribeToPolicy(policyId);
+        RecordingEmitter byCustomer = (RecordingEmitter) broadcaster.subscribeToCustomer(customerId);
+        RecordingEmitter unrelated = (RecordingEmitter) broadcaster.subscribeToPolicy(UUID.randomUUID());
+
+        broadcaster.broadcast(new PolicyEvent(policyId, customerId, PolicyStatus.APPROVED));
+        runDispatches();
+
+        assertEquals(1, byPolicy.sent.size());
+        assertEquals(1, byCustomer.sent.size());
+        assertTrue(byPolicy.sent.get(0).contains("event:" + SsePolicyEventBroadcaster.EVENT_NAME));
+        assertTrue(byPolicy.sent.get(0).contains("\"newStatus\":\"APPROVED\""));
+        assertTrue(unrelated.sent.isEmpty());
+    }
+
+    @Test
+    void shouldDrainBufferedEventsInOrderWithSingleDispatch() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        UUID customerId = UUID.randomUUID();
+        RecordingEmitter emitter = (RecordingEmitter) broadcaster.subscribeToPolicy(policyId);
+
+        broadcaster.broadcast(new PolicyEvent(policyId, customerId, PolicyStatus.VALIDATED));
+        broadcaster.broadcast(new PolicyEvent(policyId, customerId, PolicyStatus.PENDING));
+
+        assertEquals(1, dispatches.size());
+        runDispatches();
+        assertEquals(2, emitter.sent.size());
+        assertTrue(emitter.sent.get(0).contains("VALIDATED"));
+        assertTrue(emitter.sent.get(1).contains("PENDING"));
+    }
+
+    @Test
+    void shouldCloseSlowSubscriberWhenBufferOverflows() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        RecordingEmitter slow = (RecordingEmitter) broadcaster.subscribeToPolicy(policyId);
+
+        for (int i = 0; i < 3; i++) {
+            broadcaster.broadcast(new PolicyEvent(policyId, UUID.randomUUID(), PolicyStatus.PENDING));
+        }
+        runDispatches();
+
+        assertTrue(slow.completed);
+        assertTrue(slow.sent.isEmpty());
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void shouldForgetSubscriberWhoseConnectionIsGone() throws Exception {
+        UUID policyId = UUID.randomUUID();
+        RecordingEmitter gone = (RecordingEmitter) broadcaster.subscribeToPolicy(policyId);
+        gone.broken = true;
+
+        broadcaster.broadcast(new PolicyEvent(policyId, UUID.randomUUID(), PolicyStatus.PENDING));
+        runDispatches();
+        broadcaster.broadcast(new PolicyEvent(policyId, UUID.randomUUID(), PolicyStatus.APPROVED));
+
+        assertEquals(0, broadcaster.subscriberCount());
+        assertTrue(dispatches.isEmpty());
+    }
+
+    @Test
+    void shouldRefuseSubscriptionsBeyondLimit() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            broadcaster.subscribeToCustomer(UUID.randomUUID());
+        }
+
+        assertThrows(ServiceUnavailableException.class, () -> broadcaster.subscribeToPolicy(UUID.randomUUID()));
+        assertEquals(3, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void shouldSendHeartbeatCommentsToIdleSubscribers() throws Exception {
+        RecordingEmitter idle = (RecordingEmitter) broadcaster.subscribeToCustomer(UUID.randomUUID());
+
+        broadcaster.sendHeartbeats();
+        runDispatches();
+
+        assertEquals(List.of(":heartbeat\n\n"), idle.sent);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new ArrayList<>();
+        private boolean broken;
+        private boolean completed;
+
+        RecordingEmitter(Long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            sent.add(text.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.zagdev.insurances.infrastructure.implementation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class UuidV7GeneratorTest {
+
+    private final AtomicLong millis = new AtomicLong(1_700_000_000_000L);
+
+    private final UuidV7Generator generator = new UuidV7Generator(millis::get);
+
+    @Test
+    void shouldProduceVersion7RfcVariantIds() {
+        UUID id = generator.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(millis.get(), id.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void shouldStayMonotonicWithinTheSameMillisecond() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(generator.next());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0);
+        }
+    }
+
+    @Test
+    void shouldStayMonotonicWhenTheClockMovesBackwards() {
+        UUID first = generator.next();
+        millis.addAndGet(-5_000);
+        UUID second = generator.next();
+
+        assertTrue(first.compareTo(second) < 0);
+        assertEquals(first.getMostSignificantBits() >>> 16, second.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void shouldOrderIdsByCreationTime() {
+        UUID earlier = generator.next();
+        millis.incrementAndGet();
+        UUID later = generator.next();
+
+        assertTrue(earlier.compareTo(later) < 0);
+        assertEquals(millis.get(), later.getMostSignificantBits() >>> 16);
+    }
+}
@@ -0,0 +1,165 @@
+package com.zagdev.insurances.integrationTests;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.zagdev.insurances.domain.dto.PolicyDTO;
+import com.zagdev.insurances.domain.entity.Policy;
+import com.zagdev.insurances.domain.enums.InsuranceCategory;
+import com.zagdev.insurances.domain.enums.PolicyStatus;
+import com.zagdev.insurances.domain.enums.RiskClassification;
+import com.zagdev.insurances.domain.mapper.PolicyMapper;
+import com.zagdev.insurances.domain.repositories.PolicyMongoRepository;
+import com.zagdev.insurances.domain.repositories.implementation.PolicyBulkRepositoryImpl;
+import com.zagdev.insurances.domain.repositories.implementation.PolicyHistoryRepositoryImpl;
+import com.zagdev.insurances.domain.repositories.implementation.PolicyOutboxRepositoryImpl;
+import com.zagdev.insurances.domain.repositories.implementation.PolicyQueryRepositoryImpl;
+import com.zagdev.insurances.domain.repositories.implementation.PolicyTransitionRepositoryImpl;
+import com.zagdev.insurances.domain.services.implementation.PolicyServiceImpl;
+import com.zagdev.insurances.infrastructure.implementation.UuidV7Generator;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.bson.UuidRepresentation;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PolicyPaymentJoinStressTest {
+
+    private static final int POLICIES = 1_000;
+    private static final int DELIVERIES_PER_RESULT = 2;
+    private static final int WORKER_THREADS = 32;
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient mongoClient;
+
+    private PolicyMongoRepository repository;
+    private PolicyServiceImpl service;
+
+    @BeforeAll
+    static void startMongo() {
+        try {
+            mongod = Mongod.instance().start(Version.Main.V6_0);
+        } catch (RuntimeException e) {
+            Assumptions.abort("Embedded MongoDB could not be provisioned: " + e.getMessage());
+        }
+        ServerAddress address = mongod.current().getServerAddress();
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString("mongodb://" + address.getHost() + ":" + address.getPort()))
+                .uuidRepresentation(UuidRepresentation.JAVA_LEGACY)
+                .build());
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongoClient != null) {
+            mongoClient.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, "policies-join-stress");
+        mongoTemplate.dropCollection(Policy.class);
+
+        repository = new MongoRepositoryFactory(mongoTemplate).getRepository(PolicyMongoRepository.class,
+                RepositoryComposition.RepositoryFragments.just(new PolicyTransitionRepositoryImpl(mongoTemplate),
+                        new PolicyBulkRepositoryImpl(mongoTemplate),
+                        new PolicyOutboxRepositoryImpl(mongoTemplate),
+                        new PolicyQueryRepositoryImpl(mongoTemplate),
+                        new PolicyHistoryRepositoryImpl(mongoTemplate)));
+
+        service = new PolicyServiceImpl(repository, (orderId, customerId) -> RiskClassification.REGULAR,
+                Runnable::run, new UuidV7Generator());
+    }
+
+    @Test
+    void interleavedResultsShouldApproveEveryPolicyExactlyOnce() throws Exception {
+        List<Policy> pending = new ArrayList<>();
+        for (int i = 0; i < POLICIES; i++) {
+            PolicyDTO dto = new PolicyDTO(UUID.randomUUID(), UUID.randomUUID(), InsuranceCategory.LIFE, "partner",
+                    "CREDIT_CARD", BigDecimal.TEN, BigDecimal.valueOf(10_000), Map.of(), List.of());
+            dto.setId(UUID.randomUUID());
+            dto.validate(RiskClassification.REGULAR);
+            dto.markAsPending();
+            pending.add(PolicyMapper.toDocument(dto));
+        }
+        Map<UUID, Long> initialVersions = repository.insert(pending).stream()
+                .collect(Collectors.toMap(Policy::getId, policy -> policy.getVersion() == null ? 0L : policy.getVersion()));
+
+        List<Result> results = new ArrayList<>();
+        for (Policy policy : pending) {
+            for (int i = 0; i < DELIVERIES_PER_RESULT; i++) {
+                results.add(() -> service.confirmPayment(policy.getId()));
+                results.add(() -> service.authorizeSubscription(policy.getId()));
+            }
+        }
+        Collections.shuffle(results);
+
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService workers = Executors.newFixedThreadPool(WORKER_THREADS);
+        for (Result result : results) {
+            workers.submit(() -> {
+                try {
+                    start.await();
+                    result.apply();
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(2, TimeUnit.MINUTES));
+
+        assertTrue(failures.isEmpty(), () -> "Results failed: " + failures);
+
+        Map<UUID, Policy> stored = repository.findAll().stream()
+                .collect(Collectors.toMap(Policy::getId, Function.identity()));
+        assertEquals(POLICIES, stored.size());
+        for (Policy policy : stored.values()) {
+            assertEquals(PolicyStatus.APPROVED, policy.getStatus());
+            assertTrue(policy.getPaymentConfirmed());
+            assertTrue(policy.getSubscriptionAuthorized());
+            assertEquals(1, policy.getHistory().stream().filter(h -> h.getStatus() == PolicyStatus.APPROVED).count());
+            assertEquals(1, policy.getOutbox().stream().filter(e -> e.getNewStatus() == PolicyStatus.APPROVED).count());
+            assertEquals(initialVersions.get(policy.getId()) + 2L * DELIVERIES_PER_RESULT + 1, policy.getVersion());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Result {
+        void apply() throws Exception;
+    }
+}
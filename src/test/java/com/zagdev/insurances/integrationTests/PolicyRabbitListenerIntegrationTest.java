@@ -9,6 +9,7 @@ import com.zagdev.insurances.domain.enums.PolicyStatus;
 import com.zagdev.insurances.domain.event.PolicyEvent;
 import com.zagdev.insurances.infrastructure.dto.MessageResult;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -113,6 +114,51 @@ class PolicyRabbitListenerIntegrationTest {
         assertTrue(updated.getHistory().stream().anyMatch(h -> h.getStatus() == scenario.expectedStatus));
     }
 
+    @Test
+    void duplicatedResultsShouldApprovePolicyExactlyOnce() throws Exception {
+        PolicyRequest request = new PolicyRequest();
+        request.setCustomerId(UUID.randomUUID());
+        request.setCategory("LIFE");
+        request.setInsuredAmount(BigDecimal.valueOf(10000));
+
+        String response = mockMvc.perform(post("/api/v1/policies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        PolicyResponse created = objectMapper.readValue(response, PolicyResponse.class);
+
+        stubFor(get(urlPathMatching("/frauds/.*?/customers/.*"))
+                .willReturn(okJson("{ \"classification\": \"REGULAR\" }")));
+
+        mockMvc.perform(patch("/api/v1/policies/" + created.getId() + "/validate"))
+                .andExpect(status().isOk());
+
+        MessageResult messageResult = new MessageResult();
+        messageResult.setPolicyId(created.getId());
+        messageResult.setSuccess(true);
+
+        String messageJson = objectMapper.writeValueAsString(messageResult);
+        for (int i = 0; i < 2; i++) {
+            rabbitTemplate.convertAndSend("payment-result-queue", messageJson);
+            rabbitTemplate.convertAndSend("subscription-result-queue", messageJson);
+        }
+
+        Thread.sleep(2000);
+
+        String getResponse = mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/v1/policies/" + created.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        PolicyResponse updated = objectMapper.readValue(getResponse, PolicyResponse.class);
+        List<PolicyEvent> policyEvents = getPolicyRabbitMqEvents();
+
+        assertEquals(PolicyStatus.APPROVED, updated.getStatus());
+        assertEquals(1, updated.getHistory().stream().filter(h -> h.getStatus() == PolicyStatus.APPROVED).count());
+        assertEquals(1, policyEvents.stream().filter(e -> e.getNewStatus() == PolicyStatus.APPROVED).count());
+    }
+
     private List<PolicyEvent> getPolicyRabbitMqEvents() throws JsonProcessingException {
         List<PolicyEvent> policyEvents = new ArrayList<>();
 